@@ -25,7 +25,15 @@ import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
@@ -45,18 +53,32 @@ import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
  *     }
  * }}}
  * </pre>
+ * A lock is either exclusive ({@link #tryLock(long, TimeUnit)}) or shared ({@link #tryLockShared(long, TimeUnit)}),
+ * shared locks of different threads and processes do not exclude each other. A waiting thread blocks in {@link
+ * FileChannel#lock(long, long, boolean)} on a helper thread, so it is woken up as soon as the lock is released.
+ * Threads of the same JVM are coordinated in memory, because a JVM holds at most one lock of a file. The in-memory
+ * state of a file is dropped once the last {@link FileLock} of the file is closed.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
  */
 public final class FileLock implements AutoCloseable {
 
+	private static final Map<Path, SharedLock> SHARED_LOCKS = new ConcurrentHashMap<>();
+
+	private static final ExecutorService LOCK_EXECUTOR = Executors.newCachedThreadPool(new LockThreadFactory());
+
 	private final FileChannel fileChannel;
 
-	private final Map<Thread, java.nio.channels.FileLock> locks = new ConcurrentHashMap<>();
+	private final SharedLock sharedLock;
+
+	private final Map<Thread, Boolean> locks = new ConcurrentHashMap<>();
 
-	private FileLock(FileChannel fileChannel) {
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	private FileLock(FileChannel fileChannel, SharedLock sharedLock) {
 		this.fileChannel = fileChannel;
+		this.sharedLock = sharedLock;
 	}
 
 	/**
@@ -69,7 +91,10 @@ public final class FileLock implements AutoCloseable {
 	 */
 	public static FileLock of(Path file) throws IOException {
 		Objects.requireNonNull(file, "'file' must not be null");
-		return new FileLock(FileChannel.open(FileUtils.createIfNotExists(file), StandardOpenOption.WRITE));
+		Path lockFile = FileUtils.createIfNotExists(file).toRealPath();
+		FileChannel fileChannel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+		return new FileLock(fileChannel, SHARED_LOCKS.compute(lockFile,
+				(path, sharedLock) -> ((sharedLock != null) ? sharedLock : new SharedLock(path)).retain()));
 	}
 
 	/**
@@ -91,30 +116,23 @@ public final class FileLock implements AutoCloseable {
 	 * @throws IOException If some other I/O error occurs
 	 */
 	public boolean tryLock(long timeout, TimeUnit timeUnit) throws FileLockInterruptionException, IOException {
-		Objects.requireNonNull(timeUnit, "'timeUnit' must not be null");
-		java.nio.channels.FileLock fileLock = this.locks.get(Thread.currentThread());
-		if (fileLock != null && fileLock.isValid()) {
-			return true;
-		}
-		long startTime = System.nanoTime();
-		long rem = timeUnit.toNanos(timeout);
-		do {
-			fileLock = lock(this.fileChannel);
-			if (fileLock != null) {
-				this.locks.put(Thread.currentThread(), fileLock);
-				return true;
-			}
-			if (rem > 0) {
-				try {
-					Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(rem) + 1, 100));
-				}
-				catch (InterruptedException ex) {
-					throw new FileLockInterruptionException();
-				}
-			}
-			rem = timeUnit.toNanos(timeout) - (System.nanoTime() - startTime);
-		} while (rem > 0);
-		return false;
+		return tryLock(timeout, timeUnit, false);
+	}
+
+	/**
+	 * Acquires a shared lock on the file. A shared lock prevents other threads and processes from acquiring an
+	 * exclusive lock, but not a shared one.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param timeUnit the time unit of the {@code timeout} argument
+	 * @return {@code true} if lock has been acquired otherwise {@code false}
+	 * @throws FileLockInterruptionException If the invoking thread is interrupted while blocked in this method
+	 * @throws IOException If some other I/O error occurs
+	 * @throws IllegalStateException if the current thread already holds an exclusive lock
+	 * @since 3.0.4
+	 */
+	public boolean tryLockShared(long timeout, TimeUnit timeUnit) throws FileLockInterruptionException, IOException {
+		return tryLock(timeout, timeUnit, true);
 	}
 
 	/**
@@ -123,9 +141,8 @@ public final class FileLock implements AutoCloseable {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public void release() throws IOException {
-		java.nio.channels.FileLock fileLock = this.locks.remove(Thread.currentThread());
-		if (fileLock != null) {
-			fileLock.close();
+		if (this.locks.remove(Thread.currentThread()) != null) {
+			this.sharedLock.release();
 		}
 	}
 
@@ -136,19 +153,189 @@ public final class FileLock implements AutoCloseable {
 	 */
 	@Override
 	public void close() throws IOException {
-		//closes all locks and channel
-		this.fileChannel.close();
-		this.locks.clear();
+		try {
+			for (Thread thread : this.locks.keySet()) {
+				if (this.locks.remove(thread) != null) {
+					this.sharedLock.release();
+				}
+			}
+		}
+		finally {
+			try {
+				this.fileChannel.close();
+			}
+			finally {
+				if (this.closed.compareAndSet(false, true)) {
+					SHARED_LOCKS.computeIfPresent(this.sharedLock.file,
+							(path, sharedLock) -> (sharedLock == this.sharedLock && sharedLock.unretain()) ? null
+									: sharedLock);
+				}
+			}
+		}
 	}
 
-	@Nullable
-	private static java.nio.channels.FileLock lock(FileChannel fileChannel) throws IOException {
-		try {
-			return fileChannel.tryLock();
+	private boolean tryLock(long timeout, TimeUnit timeUnit, boolean shared) throws IOException {
+		Objects.requireNonNull(timeUnit, "'timeUnit' must not be null");
+		Boolean held = this.locks.get(Thread.currentThread());
+		if (held != null) {
+			if (held && !shared) {
+				throw new IllegalStateException("A shared lock cannot be upgraded to an exclusive lock");
+			}
+			return true;
+		}
+		if (this.sharedLock.acquire(shared, System.nanoTime() + timeUnit.toNanos(timeout))) {
+			this.locks.put(Thread.currentThread(), shared);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The lock of a file within this JVM. The first holder acquires the lock of the file, the following holders of a
+	 * shared lock reuse it, the last holder releases it.
+	 */
+	private static final class SharedLock {
+
+		private final Path file;
+
+		/**
+		 * The number of open {@link FileLock} instances, guarded by {@link #SHARED_LOCKS}.
+		 */
+		private int references;
+
+		private int holders;
+
+		private boolean shared;
+
+		private boolean pending;
+
+		@Nullable
+		private FileChannel channel;
+
+		@Nullable
+		private java.nio.channels.FileLock lock;
+
+		SharedLock(Path file) {
+			this.file = file;
+		}
+
+		SharedLock retain() {
+			this.references++;
+			return this;
+		}
+
+		boolean unretain() {
+			return --this.references == 0;
+		}
+
+		boolean acquire(boolean shared, long deadline) throws IOException {
+			synchronized (this) {
+				while (this.pending || (this.lock != null && !(shared && this.shared))) {
+					long rem = deadline - System.nanoTime();
+					if (rem <= 0) {
+						return false;
+					}
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this, rem);
+					}
+					catch (InterruptedException ex) {
+						throw new FileLockInterruptionException();
+					}
+				}
+				if (this.lock != null) {
+					this.holders++;
+					return true;
+				}
+				this.pending = true;
+			}
+			FileChannel channel = null;
+			java.nio.channels.FileLock lock = null;
+			try {
+				channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				lock = lock(channel, shared, deadline);
+			}
+			finally {
+				synchronized (this) {
+					this.pending = false;
+					if (lock != null) {
+						this.channel = channel;
+						this.lock = lock;
+						this.shared = shared;
+						this.holders = 1;
+					}
+					else if (channel != null) {
+						// wakes up the helper thread, a lock acquired in the meantime is released as well
+						channel.close();
+					}
+					notifyAll();
+				}
+			}
+			return lock != null;
+		}
+
+		synchronized void release() throws IOException {
+			if (this.holders > 0 && --this.holders == 0) {
+				FileChannel channel = this.channel;
+				this.channel = null;
+				this.lock = null;
+				notifyAll();
+				if (channel != null) {
+					// closing the channel releases the lock
+					channel.close();
+				}
+			}
 		}
-		catch (OverlappingFileLockException ex) {
-			return null;
+
+		@Nullable
+		private static java.nio.channels.FileLock lock(FileChannel channel, boolean shared, long deadline)
+				throws IOException {
+			java.nio.channels.FileLock lock = tryLock(channel, shared);
+			if (lock != null || deadline - System.nanoTime() <= 0) {
+				return lock;
+			}
+			Future<java.nio.channels.FileLock> future = LOCK_EXECUTOR.submit(
+					() -> channel.lock(0, Long.MAX_VALUE, shared));
+			try {
+				return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+			}
+			catch (TimeoutException ex) {
+				return null;
+			}
+			catch (InterruptedException ex) {
+				throw new FileLockInterruptionException();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				throw new IOException(cause);
+			}
 		}
+
+		@Nullable
+		private static java.nio.channels.FileLock tryLock(FileChannel channel, boolean shared) throws IOException {
+			try {
+				return channel.tryLock(0, Long.MAX_VALUE, shared);
+			}
+			catch (OverlappingFileLockException ex) {
+				return null;
+			}
+		}
+
+	}
+
+	private static final class LockThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "file-lock-" + this.threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
 	}
 
 }
@@ -16,32 +16,49 @@
 
 package com.github.nosan.embedded.cassandra.commons.io;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.utils.IOUtils;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 
 /**
- * {@link Resource} implementation for archives.
+ * {@link Resource} implementation for archives. The archive format is determined by the file name extension, e.g.
+ * {@code .tar.gz}, {@code .tar.lz4} or {@code .zip}; if the extension is unknown, the compression and the archive
+ * format are detected by their magic bytes.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -67,7 +84,11 @@ public class ArchiveResource implements Resource {
 	 */
 	public void forEach(ArchiveEntryCallback callback) throws IOException {
 		Objects.requireNonNull(callback, "'callback' must not be null");
-		try (ArchiveInputStream is = getInputStream()) {
+		forEach(this.resource, callback);
+	}
+
+	private void forEach(Resource source, ArchiveEntryCallback callback) throws IOException {
+		try (ArchiveInputStream is = getInputStream(source)) {
 			ArchiveEntry entry;
 			while ((entry = is.getNextEntry()) != null) {
 				callback.accept(entry, is);
@@ -83,7 +104,15 @@ public class ArchiveResource implements Resource {
 	 */
 	public void extract(Path destination) throws IOException {
 		Objects.requireNonNull(destination, "'destination' must not be null");
-		forEach((entry, stream) -> {
+		extract(this.resource, destination, entry -> true);
+	}
+
+	private void extract(Resource source, Path destination, Predicate<? super ArchiveEntry> filter)
+			throws IOException {
+		forEach(source, (entry, stream) -> {
+			if (!filter.test(entry)) {
+				return;
+			}
 			if (entry.isDirectory()) {
 				Path directory = destination.resolve(entry.getName());
 				Files.createDirectories(directory);
@@ -100,6 +129,151 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Extracts this {@code Resource} into the given destination directory using the given number of threads. The
+	 * calling thread decompresses the archive and creates directories, small files are read into memory and written
+	 * concurrently by a pool of worker threads, large files are written by the calling thread. The memory used for
+	 * pending files is bounded.
+	 * <p>
+	 * ZIP archives located on the file system are read through their central directory instead, every entry is
+	 * inflated and written by a worker thread.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param threads the number of threads used to write files, {@code 1} means that files are written by the calling
+	 * thread
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.0.4
+	 */
+	public void extract(Path destination, int threads) throws IOException {
+		extract(destination, threads, entry -> true);
+	}
+
+	/**
+	 * Extracts the entries of this {@code Resource} that match the given filter into the given destination directory
+	 * using the given number of threads, see {@link #extract(Path, int)}. Entries that do not match the filter are
+	 * skipped without being written, ZIP archives read through their central directory do not even read them.
+	 *
+	 * @param destination the directory to which to extract the files
+	 * @param threads the number of threads used to write files, {@code 1} means that files are written by the calling
+	 * thread
+	 * @param filter the filter that accepts the entries to extract
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.0.4
+	 */
+	public void extract(Path destination, int threads, Predicate<? super ArchiveEntry> filter) throws IOException {
+		extract(this.resource, destination, threads, filter);
+	}
+
+	/**
+	 * Extracts the entries that match the given filter, see {@link #extract(Path, int, Predicate)}, but reads the
+	 * archive from the given source instead of the underlying resource, e.g. from a resource that computes a digest
+	 * of the bytes being extracted. The archive format is still determined by {@link
+	 * #createArchiveInputStreamFactory(Resource)} for the underlying resource.
+	 *
+	 * @param source the resource the archive is read from
+	 * @param destination the directory to which to extract the files
+	 * @param threads the number of threads used to write files, {@code 1} means that files are written by the calling
+	 * thread
+	 * @param filter the filter that accepts the entries to extract
+	 * @throws IOException if an I/O error occurs or the resource does not exist
+	 * @since 3.0.4
+	 */
+	public void extract(Resource source, Path destination, int threads, Predicate<? super ArchiveEntry> filter)
+			throws IOException {
+		Objects.requireNonNull(source, "'source' must not be null");
+		Objects.requireNonNull(destination, "'destination' must not be null");
+		Objects.requireNonNull(filter, "'filter' must not be null");
+		if (threads <= 0) {
+			throw new IllegalArgumentException("'threads' must be positive");
+		}
+		if (threads == 1) {
+			extract(source, destination, filter);
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ExtractThreadFactory());
+		try {
+			Path zipFile = getZipFile(source);
+			if (zipFile != null) {
+				extractZip(zipFile, destination, filter, executor);
+				return;
+			}
+			ParallelExtractor extractor = new ParallelExtractor(destination, filter, executor);
+			forEach(source, extractor);
+			extractor.awaitAll();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Nullable
+	private Path getZipFile(Resource source) {
+		if (!ArchiveStreams.isZip(createArchiveInputStreamFactory(this.resource))) {
+			return null;
+		}
+		try {
+			Path file = source.toPath();
+			return Files.isRegularFile(file) ? file : null;
+		}
+		catch (Exception ex) {
+			return null;
+		}
+	}
+
+	private static void extractZip(Path file, Path destination, Predicate<? super ArchiveEntry> filter,
+			ExecutorService executor) throws IOException {
+		try (ZipFile zipFile = new ZipFile(file.toFile())) {
+			// the last entry wins if an archive contains the same file twice
+			Map<Path, ZipArchiveEntry> files = new LinkedHashMap<>();
+			for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+				if (!filter.test(entry)) {
+					continue;
+				}
+				Path path = destination.resolve(entry.getName());
+				if (entry.isDirectory()) {
+					Files.createDirectories(path);
+				}
+				else {
+					Path directory = path.getParent();
+					if (directory != null && !Files.exists(directory)) {
+						Files.createDirectories(directory);
+					}
+					files.remove(path);
+					files.put(path, entry);
+				}
+			}
+			List<Future<?>> futures = new ArrayList<>();
+			for (Map.Entry<Path, ZipArchiveEntry> entry : files.entrySet()) {
+				futures.add(executor.submit(() -> {
+					try (InputStream is = zipFile.getInputStream(entry.getValue())) {
+						Files.copy(is, entry.getKey(), StandardCopyOption.REPLACE_EXISTING);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				await(future);
+			}
+		}
+	}
+
+	private static void await(Future<?> future) throws IOException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Extraction has been interrupted");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
 	/**
 	 * Returns the underlying resource.
 	 *
@@ -126,9 +300,12 @@ public class ArchiveResource implements Resource {
 
 	@Override
 	public ArchiveInputStream getInputStream() throws IOException {
-		Resource resource = this.resource;
-		ArchiveInputStreamFactory archiveInputStreamFactory = createArchiveInputStreamFactory(resource);
-		InputStream is = resource.getInputStream();
+		return getInputStream(this.resource);
+	}
+
+	private ArchiveInputStream getInputStream(Resource source) throws IOException {
+		ArchiveInputStreamFactory archiveInputStreamFactory = createArchiveInputStreamFactory(this.resource);
+		InputStream is = source.getInputStream();
 		try {
 			return archiveInputStreamFactory.create(is);
 		}
@@ -213,6 +390,116 @@ public class ArchiveResource implements Resource {
 
 	}
 
+	/**
+	 * Creates directories on the calling thread and submits buffered files to the executor.
+	 */
+	private static final class ParallelExtractor implements ArchiveEntryCallback {
+
+		/**
+		 * The maximum size of a file that is buffered in memory.
+		 */
+		private static final int MAX_BUFFERED_FILE_SIZE = 4 * 1024 * 1024;
+
+		/**
+		 * The maximum size of all buffered files.
+		 */
+		private static final int MAX_BUFFERED_SIZE = 32 * 1024 * 1024;
+
+		private final Path destination;
+
+		private final Predicate<? super ArchiveEntry> filter;
+
+		private final ExecutorService executor;
+
+		private final Semaphore memory = new Semaphore(MAX_BUFFERED_SIZE);
+
+		private final Map<Path, Future<?>> files = new LinkedHashMap<>();
+
+		ParallelExtractor(Path destination, Predicate<? super ArchiveEntry> filter, ExecutorService executor) {
+			this.destination = destination;
+			this.filter = filter;
+			this.executor = executor;
+		}
+
+		@Override
+		public void accept(ArchiveEntry entry, ArchiveInputStream stream) throws IOException {
+			if (!this.filter.test(entry)) {
+				return;
+			}
+			if (entry.isDirectory()) {
+				Files.createDirectories(this.destination.resolve(entry.getName()));
+				return;
+			}
+			Path file = this.destination.resolve(entry.getName());
+			Path directory = file.getParent();
+			if (directory != null && !Files.exists(directory)) {
+				Files.createDirectories(directory);
+			}
+			// an archive may contain the same file twice, the last one wins
+			Future<?> previous = this.files.remove(file);
+			if (previous != null) {
+				await(previous);
+			}
+			long size = entry.getSize();
+			if (size < 0 || size > MAX_BUFFERED_FILE_SIZE) {
+				Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+				return;
+			}
+			int length = (int) size;
+			acquire(length);
+			try {
+				byte[] content = new byte[length];
+				int read = IOUtils.readFully(stream, content);
+				if (read != length) {
+					throw new IOException(String.format("Premature end of the entry '%s'", entry.getName()));
+				}
+				this.files.put(file, this.executor.submit(() -> {
+					try {
+						Files.write(file, content);
+					}
+					finally {
+						this.memory.release(length);
+					}
+					return null;
+				}));
+			}
+			catch (IOException | RuntimeException ex) {
+				this.memory.release(length);
+				throw ex;
+			}
+		}
+
+		void awaitAll() throws IOException {
+			for (Future<?> future : this.files.values()) {
+				await(future);
+			}
+		}
+
+		private void acquire(int length) throws IOException {
+			try {
+				this.memory.acquire(length);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Extraction has been interrupted");
+			}
+		}
+
+	}
+
+	private static final class ExtractThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "archive-extract-" + this.threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 	/**
 	 * Factory to create {@link ArchiveInputStream}.
 	 */
@@ -233,12 +520,18 @@ public class ArchiveResource implements Resource {
 
 	private static final class ArchiveStreams {
 
+		private static final ArchiveInputStreamFactory ZIP = create(ArchiveStreamFactory.ZIP);
+
+		private static final ArchiveInputStreamFactory JAR = create(ArchiveStreamFactory.JAR);
+
 		private static final Map<String, ArchiveInputStreamFactory> STREAMS;
 
 		static {
 			Map<String, ArchiveInputStreamFactory> streams = new LinkedHashMap<>();
 			streams.put(".tar.gz", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.GZIP));
 			streams.put(".tar.bz2", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.BZIP2));
+			streams.put(".tar.lz4", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.LZ4_FRAMED));
+			streams.put(".tar.sz", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.SNAPPY_FRAMED));
 			streams.put(".tgz", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.GZIP));
 			streams.put(".tbz2", create(ArchiveStreamFactory.TAR, CompressorStreamFactory.BZIP2));
 			streams.put(".7z", create(ArchiveStreamFactory.SEVEN_Z));
@@ -247,13 +540,17 @@ public class ArchiveResource implements Resource {
 			streams.put(".arj", create(ArchiveStreamFactory.ARJ));
 			streams.put(".cpio", create(ArchiveStreamFactory.CPIO));
 			streams.put(".dump", create(ArchiveStreamFactory.DUMP));
-			streams.put(".jar", create(ArchiveStreamFactory.JAR));
+			streams.put(".jar", JAR);
 			streams.put(".tar", create(ArchiveStreamFactory.TAR));
-			streams.put(".zip", create(ArchiveStreamFactory.ZIP));
-			streams.put(".zipx", create(ArchiveStreamFactory.ZIP));
+			streams.put(".zip", ZIP);
+			streams.put(".zipx", ZIP);
 			STREAMS = Collections.unmodifiableMap(streams);
 		}
 
+		static boolean isZip(ArchiveInputStreamFactory factory) {
+			return factory == ZIP || factory == JAR;
+		}
+
 		static ArchiveInputStreamFactory create(Resource resource) {
 			String name = Objects.toString(resource.getFileName(), "");
 			for (Map.Entry<String, ArchiveInputStreamFactory> entry : STREAMS.entrySet()) {
@@ -261,7 +558,28 @@ public class ArchiveResource implements Resource {
 					return entry.getValue();
 				}
 			}
-			throw new IllegalArgumentException("Archive Type for '" + resource + "' cannot be determined");
+			return ArchiveStreams::detect;
+		}
+
+		/**
+		 * Detects the compression and the archive format by their magic bytes.
+		 */
+		private static ArchiveInputStream detect(InputStream is) throws ArchiveException, CompressorException {
+			InputStream stream = new BufferedInputStream(is);
+			String compressorType;
+			try {
+				compressorType = CompressorStreamFactory.detect(stream);
+			}
+			catch (CompressorException ex) {
+				// not compressed
+				compressorType = null;
+			}
+			if (compressorType != null) {
+				stream = new BufferedInputStream(
+						new CompressorStreamFactory().createCompressorInputStream(compressorType, stream));
+			}
+			ArchiveStreamFactory af = new ArchiveStreamFactory();
+			return af.createArchiveInputStream(ArchiveStreamFactory.detect(stream), stream);
 		}
 
 		private static ArchiveInputStreamFactory create(String archiveType, String compressorType) {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Simple utility methods for dealing with a {@link MessageDigest}.
+ *
+ * @author Dmytro Nosan
+ * @since 3.0.4
+ */
+public final class DigestUtils {
+
+	private DigestUtils() {
+	}
+
+	/**
+	 * Creates a new {@link MessageDigest} for the specified algorithm, e.g. {@code SHA-256}.
+	 *
+	 * @param algorithm the name of the algorithm
+	 * @return a new message digest
+	 * @throws IllegalStateException if the algorithm is not available
+	 */
+	public static MessageDigest getDigest(String algorithm) throws IllegalStateException {
+		Objects.requireNonNull(algorithm, "'algorithm' must not be null");
+		try {
+			return MessageDigest.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Encodes the specified bytes as a lower-case hex string.
+	 *
+	 * @param bytes the bytes
+	 * @return the hex string
+	 */
+	public static String toHex(byte[] bytes) {
+		Objects.requireNonNull(bytes, "'bytes' must not be null");
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+}
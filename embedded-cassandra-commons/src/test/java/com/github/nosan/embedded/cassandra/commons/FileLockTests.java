@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileLockInterruptionException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -107,6 +108,81 @@ class FileLockTests {
 		}
 	}
 
+	@Test
+	void closeKeepsLocksOfOtherInstances(@TempDir Path folder) throws Exception {
+		FileLock unused = FileLock.of(folder.resolve(LOCK_FILE));
+		try (FileLock fileLock = FileLock.of(folder.resolve(LOCK_FILE))) {
+			assertThat(fileLock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+			unused.close();
+			unused.close();
+			AtomicBoolean success = new AtomicBoolean(true);
+			Thread thread = new Thread(() -> {
+				try (FileLock other = FileLock.of(folder.resolve(LOCK_FILE))) {
+					success.set(other.tryLock(100, TimeUnit.MILLISECONDS));
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			thread.start();
+			thread.join();
+			assertThat(success).isFalse();
+		}
+		try (FileLock fileLock = FileLock.of(folder.resolve(LOCK_FILE))) {
+			assertThat(fileLock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void successTryLockSharedThreads(@TempDir Path folder) throws Exception {
+		try (FileLock fileLock1 = FileLock.of(folder.resolve(LOCK_FILE));
+				FileLock fileLock2 = FileLock.of(folder.resolve(LOCK_FILE))) {
+			assertThat(fileLock1.tryLockShared(0, TimeUnit.MILLISECONDS)).isTrue();
+			AtomicBoolean shared = new AtomicBoolean(false);
+			AtomicBoolean exclusive = new AtomicBoolean(true);
+			Thread thread = new Thread(() -> {
+				try {
+					shared.set(fileLock2.tryLockShared(0, TimeUnit.MILLISECONDS));
+					fileLock2.release();
+					exclusive.set(fileLock2.tryLock(100, TimeUnit.MILLISECONDS));
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			thread.start();
+			thread.join(1000);
+			assertThat(shared).isTrue();
+			assertThat(exclusive).isFalse();
+			fileLock1.release();
+			assertThat(fileLock2.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void interruptTryLock(@TempDir Path folder) throws Exception {
+		try (FileLock fileLock = FileLock.of(folder.resolve(LOCK_FILE))) {
+			assertThat(fileLock.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+			AtomicBoolean interrupted = new AtomicBoolean(false);
+			Thread thread = new Thread(() -> {
+				try {
+					fileLock.tryLock(1, TimeUnit.MINUTES);
+				}
+				catch (FileLockInterruptionException ex) {
+					interrupted.set(true);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			thread.start();
+			Thread.sleep(100);
+			thread.interrupt();
+			thread.join(1000);
+			assertThat(interrupted).isTrue();
+		}
+	}
+
 	@RepeatedTest(10)
 	void successTryLockProcesses(@TempDir Path folder) throws Exception {
 		Path fileLock = folder.resolve(LOCK_FILE);
@@ -20,9 +20,22 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -93,4 +106,145 @@ class ArchiveResourceTests {
 		assertThat(destination.resolve("test/text.txt")).isRegularFile();
 	}
 
+	@Test
+	void extractParallel(@TempDir Path directory) throws IOException {
+		Path archive = directory.resolve("archive.tar.gz");
+		Random random = new Random(42);
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			byte[] content = new byte[random.nextInt(64 * 1024)];
+			random.nextBytes(content);
+			files.put("archive/lib/file-" + i + ".jar", content);
+		}
+		byte[] large = new byte[5 * 1024 * 1024];
+		random.nextBytes(large);
+		files.put("archive/bin/large.bin", large);
+		files.put("archive/lib/file-0.jar", "duplicate".getBytes(StandardCharsets.UTF_8));
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+			os.putArchiveEntry(new TarArchiveEntry("archive/lib/file-0.jar"));
+			os.closeArchiveEntry();
+			for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+				TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getKey());
+				tarEntry.setSize(entry.getValue().length);
+				os.putArchiveEntry(tarEntry);
+				os.write(entry.getValue());
+				os.closeArchiveEntry();
+			}
+		}
+		Path destination = directory.resolve("destination");
+		new ArchiveResource(new FileSystemResource(archive)).extract(destination, 4);
+		for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+			assertThat(destination.resolve(entry.getKey())).hasBinaryContent(entry.getValue());
+		}
+	}
+
+	@Test
+	void extractZipParallel(@TempDir Path directory) throws IOException {
+		Path archive = directory.resolve("archive.zip");
+		Random random = new Random(42);
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		for (int i = 0; i < 50; i++) {
+			byte[] content = new byte[random.nextInt(256 * 1024)];
+			random.nextBytes(content);
+			files.put("archive/lib/file-" + i + ".jar", content);
+		}
+		try (ZipArchiveOutputStream os = new ZipArchiveOutputStream(archive.toFile())) {
+			os.putArchiveEntry(new ZipArchiveEntry("archive/bin/"));
+			os.closeArchiveEntry();
+			for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+				os.putArchiveEntry(new ZipArchiveEntry(entry.getKey()));
+				os.write(entry.getValue());
+				os.closeArchiveEntry();
+			}
+		}
+		Path destination = directory.resolve("destination");
+		new ArchiveResource(new FileSystemResource(archive)).extract(destination, 4);
+		assertThat(destination.resolve("archive/bin")).isDirectory();
+		for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+			assertThat(destination.resolve(entry.getKey())).hasBinaryContent(entry.getValue());
+		}
+	}
+
+	@Test
+	void extractFiltered(@TempDir Path directory) throws IOException {
+		Path tarArchive = directory.resolve("archive.tar.gz");
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new GzipCompressorOutputStream(Files.newOutputStream(tarArchive)))) {
+			for (String name : new String[]{"archive/lib/file.jar", "archive/javadoc/index.html"}) {
+				TarArchiveEntry entry = new TarArchiveEntry(name);
+				entry.setSize(1);
+				os.putArchiveEntry(entry);
+				os.write(1);
+				os.closeArchiveEntry();
+			}
+		}
+		Path zipArchive = directory.resolve("archive.zip");
+		try (ZipArchiveOutputStream os = new ZipArchiveOutputStream(zipArchive.toFile())) {
+			for (String name : new String[]{"archive/lib/file.jar", "archive/javadoc/index.html"}) {
+				os.putArchiveEntry(new ZipArchiveEntry(name));
+				os.write(1);
+				os.closeArchiveEntry();
+			}
+		}
+		for (Path archive : new Path[]{tarArchive, zipArchive}) {
+			for (int threads : new int[]{1, 4}) {
+				Path destination = directory.resolve("destination-" + archive.getFileName() + "-" + threads);
+				new ArchiveResource(new FileSystemResource(archive))
+						.extract(destination, threads, entry -> !entry.getName().contains("javadoc"));
+				assertThat(destination.resolve("archive/lib/file.jar")).exists();
+				assertThat(destination.resolve("archive/javadoc")).doesNotExist();
+			}
+		}
+	}
+
+	@Test
+	void extractDetectedFormat(@TempDir Path directory) throws IOException {
+		Path archive = directory.resolve("archive.bin");
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new FramedLZ4CompressorOutputStream(Files.newOutputStream(archive)))) {
+			TarArchiveEntry entry = new TarArchiveEntry("archive/conf/cassandra.yaml");
+			entry.setSize(1);
+			os.putArchiveEntry(entry);
+			os.write('1');
+			os.closeArchiveEntry();
+		}
+		Path destination = directory.resolve("destination");
+		new ArchiveResource(new FileSystemResource(archive)).extract(destination);
+		assertThat(destination.resolve("archive/conf/cassandra.yaml")).hasContent("1");
+		Path lz4Archive = Files.copy(archive, directory.resolve("archive.tar.lz4"));
+		Path lz4Destination = directory.resolve("lz4-destination");
+		new ArchiveResource(new FileSystemResource(lz4Archive)).extract(lz4Destination);
+		assertThat(lz4Destination.resolve("archive/conf/cassandra.yaml")).hasContent("1");
+	}
+
+	@Test
+	void extractFromSource(@TempDir Path directory) throws IOException {
+		Path archive = directory.resolve("archive.bin");
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new FramedLZ4CompressorOutputStream(Files.newOutputStream(archive)))) {
+			TarArchiveEntry entry = new TarArchiveEntry("archive/conf/cassandra.yaml");
+			entry.setSize(1);
+			os.putArchiveEntry(entry);
+			os.write('1');
+			os.closeArchiveEntry();
+		}
+		// the underlying resource decides the format only, the archive is read from the source
+		ArchiveResource resource = new ArchiveResource(new FileSystemResource(directory.resolve("missing.bin"))) {
+
+			@Override
+			protected ArchiveInputStreamFactory createArchiveInputStreamFactory(Resource resource) {
+				return is -> new ArchiveStreamFactory().createArchiveInputStream(ArchiveStreamFactory.TAR,
+						new CompressorStreamFactory().createCompressorInputStream(
+								CompressorStreamFactory.LZ4_FRAMED, is));
+			}
+
+		};
+		for (int threads : new int[]{1, 4}) {
+			Path destination = directory.resolve("destination-" + threads);
+			resource.extract(new FileSystemResource(archive), destination, threads, entry -> true);
+			assertThat(destination.resolve("archive/conf/cassandra.yaml")).hasContent("1");
+		}
+	}
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.commons.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link DigestUtils}.
+ *
+ * @author Dmytro Nosan
+ */
+class DigestUtilsTests {
+
+	@Test
+	void sha256() {
+		byte[] digest = DigestUtils.getDigest("SHA-256").digest("abc".getBytes(StandardCharsets.UTF_8));
+		assertThat(DigestUtils.toHex(digest))
+				.isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+	}
+
+	@Test
+	void toHex() {
+		assertThat(DigestUtils.toHex(new byte[]{0, 15, 16, (byte) 255})).isEqualTo("000f10ff");
+		assertThat(DigestUtils.toHex(new byte[0])).isEmpty();
+	}
+
+	@Test
+	void unknownAlgorithm() {
+		assertThatThrownBy(() -> DigestUtils.getDigest("SHA-0")).isInstanceOf(IllegalStateException.class);
+	}
+
+}
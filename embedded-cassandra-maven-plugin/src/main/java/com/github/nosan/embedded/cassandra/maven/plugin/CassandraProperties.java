@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.maven.plugin;
+
+import java.net.InetAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+
+/**
+ * Properties of a running {@link Cassandra} that are exposed to the build, e.g. {@code embedded.cassandra.port}.
+ *
+ * @author Dmytro Nosan
+ */
+final class CassandraProperties {
+
+	private CassandraProperties() {
+	}
+
+	/**
+	 * Returns the version, address and ports of the {@link Cassandra}. Ports that are not enabled are not included.
+	 *
+	 * @param cassandra the Cassandra
+	 * @param prefix the prefix of the property names
+	 * @return the properties
+	 */
+	static Map<String, String> of(Cassandra cassandra, String prefix) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put(prefix + ".version", Objects.toString(cassandra.getVersion()));
+		InetAddress address = cassandra.getAddress();
+		if (address != null) {
+			properties.put(prefix + ".address", address.getHostAddress());
+		}
+		int port = cassandra.getPort();
+		if (port != -1) {
+			properties.put(prefix + ".port", Integer.toString(port));
+		}
+		int sslPort = cassandra.getSslPort();
+		if (sslPort != -1) {
+			properties.put(prefix + ".ssl-port", Integer.toString(sslPort));
+		}
+		int rpcPort = cassandra.getRpcPort();
+		if (rpcPort != -1) {
+			properties.put(prefix + ".rpc-port", Integer.toString(rpcPort));
+		}
+		return properties;
+	}
+
+}
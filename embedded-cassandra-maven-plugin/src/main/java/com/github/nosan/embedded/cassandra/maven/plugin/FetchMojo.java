@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import com.github.nosan.embedded.cassandra.artifact.Artifact;
+
+/**
+ * Downloads and extracts Apache Cassandra artifacts into the shared artifact cache, so that neither the {@code start}
+ * goal nor the test JVMs pay for it. Artifacts are resolved in parallel.
+ *
+ * @author Dmytro Nosan
+ * @since 3.0.4
+ */
+@Mojo(name = "fetch", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST, threadSafe = true)
+public class FetchMojo extends AbstractMojo {
+
+	/**
+	 * Versions of Apache Cassandra to fetch.
+	 */
+	@Parameter(property = "embedded.cassandra.versions", defaultValue = "3.11.6")
+	private List<String> versions = Collections.emptyList();
+
+	/**
+	 * Skips the goal.
+	 */
+	@Parameter(property = "embedded.cassandra.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		if (this.skip) {
+			getLog().info("Skipping fetching of Apache Cassandra artifacts");
+			return;
+		}
+		List<Artifact> artifacts = new ArrayList<>();
+		for (String version : this.versions) {
+			artifacts.add(Artifact.ofVersion(version));
+		}
+		List<Future<Artifact.Distribution>> futures = Artifact.prefetch(artifacts);
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				Artifact.Distribution distribution = futures.get(i).get();
+				getLog().info(String.format("Apache Cassandra '%s' is available at '%s'", distribution.getVersion(),
+						distribution.getDirectory()));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new MojoExecutionException("Fetching of Apache Cassandra has been interrupted", ex);
+			}
+			catch (ExecutionException ex) {
+				throw new MojoExecutionException(
+						"Apache Cassandra '" + this.versions.get(i) + "' cannot be fetched", ex.getCause());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.maven.plugin;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import com.github.nosan.embedded.cassandra.EmbeddedCassandraFactory;
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.artifact.Artifact;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+
+/**
+ * Starts Apache Cassandra before integration tests. The node is started once per build and is shared by all test
+ * JVMs, e.g. {@code maven-failsafe-plugin} forks. Its version, address and ports are exposed as project and user
+ * properties ({@code embedded.cassandra.version}, {@code embedded.cassandra.address}, {@code embedded.cassandra.port},
+ * {@code embedded.cassandra.ssl-port} and {@code embedded.cassandra.rpc-port}), so that they can be passed to the
+ * tests. By default, Cassandra runs on random ports. Parameters are read from {@code embedded.cassandra.start.*}
+ * properties, so the exposed properties of a node started by a previous module are never taken as parameters.
+ *
+ * @author Dmytro Nosan
+ * @see StopMojo
+ * @since 3.0.4
+ */
+@Mojo(name = "start", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST, threadSafe = true)
+public class StartMojo extends AbstractMojo {
+
+	/**
+	 * The key of the started {@link Cassandra} in the plugin context.
+	 */
+	static final String CASSANDRA = StartMojo.class.getName() + ".cassandra";
+
+	@Nullable
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Nullable
+	@Parameter(defaultValue = "${session}", readonly = true, required = true)
+	private MavenSession session;
+
+	/**
+	 * Version of Apache Cassandra.
+	 */
+	@Parameter(property = "embedded.cassandra.start.version", defaultValue = "3.11.6")
+	private String version = "3.11.6";
+
+	/**
+	 * Name of the Cassandra instance.
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.name")
+	private String name;
+
+	/**
+	 * Working directory of Cassandra. A temporary directory is used by default.
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.workingDirectory")
+	private File workingDirectory;
+
+	/**
+	 * Java home that is used to run Cassandra. The Java home of the build is used by default.
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.javaHome")
+	private File javaHome;
+
+	/**
+	 * Address Cassandra listens on.
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.address")
+	private String address;
+
+	/**
+	 * Native transport port, {@code 0} means a random port.
+	 */
+	@Parameter(property = "embedded.cassandra.start.port", defaultValue = "0")
+	private int port;
+
+	/**
+	 * RPC transport port, {@code 0} means a random port.
+	 */
+	@Parameter(property = "embedded.cassandra.start.rpcPort", defaultValue = "0")
+	private int rpcPort;
+
+	/**
+	 * Storage port, {@code 0} means a random port.
+	 */
+	@Parameter(property = "embedded.cassandra.start.storagePort", defaultValue = "0")
+	private int storagePort;
+
+	/**
+	 * JMX local port, {@code 0} means a random port.
+	 */
+	@Parameter(property = "embedded.cassandra.start.jmxLocalPort", defaultValue = "0")
+	private int jmxLocalPort;
+
+	/**
+	 * Configuration file ({@code cassandra.yaml}).
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.config")
+	private File config;
+
+	/**
+	 * Startup timeout in seconds.
+	 */
+	@Nullable
+	@Parameter(property = "embedded.cassandra.start.timeout")
+	private Long timeout;
+
+	/**
+	 * JVM options of Cassandra.
+	 */
+	@Parameter
+	private List<String> jvmOptions = Collections.emptyList();
+
+	/**
+	 * System properties of Cassandra.
+	 */
+	@Parameter
+	private Map<String, String> systemProperties = Collections.emptyMap();
+
+	/**
+	 * Environment variables of Cassandra.
+	 */
+	@Parameter
+	private Map<String, String> environmentVariables = Collections.emptyMap();
+
+	/**
+	 * Properties that override {@code cassandra.yaml} properties, e.g. {@code start_rpc=true}.
+	 */
+	@Parameter
+	private Map<String, String> configProperties = Collections.emptyMap();
+
+	/**
+	 * Prefix of the exposed properties.
+	 */
+	@Parameter(property = "embedded.cassandra.start.propertyPrefix", defaultValue = "embedded.cassandra")
+	private String propertyPrefix = "embedded.cassandra";
+
+	/**
+	 * Skips the goal.
+	 */
+	@Parameter(property = "embedded.cassandra.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void execute() throws MojoExecutionException {
+		if (this.skip) {
+			getLog().info("Skipping start of Apache Cassandra");
+			return;
+		}
+		Map<Object, Object> context = getPluginContext();
+		if (context.get(CASSANDRA) != null) {
+			throw new MojoExecutionException("Apache Cassandra has already been started, execute 'stop' goal first");
+		}
+		EmbeddedCassandraFactory factory = createFactory();
+		Cassandra cassandra;
+		try {
+			cassandra = factory.create();
+			cassandra.start();
+		}
+		catch (CassandraException ex) {
+			throw new MojoExecutionException("Apache Cassandra cannot be started", ex);
+		}
+		context.put(CASSANDRA, cassandra);
+		Map<String, String> properties = CassandraProperties.of(cassandra, this.propertyPrefix);
+		properties.forEach((name, value) -> {
+			getLog().info(String.format("Exposes '%s=%s'", name, value));
+			if (this.project != null) {
+				this.project.getProperties().setProperty(name, value);
+			}
+			if (this.session != null) {
+				this.session.getUserProperties().setProperty(name, value);
+			}
+		});
+	}
+
+	private EmbeddedCassandraFactory createFactory() throws MojoExecutionException {
+		EmbeddedCassandraFactory factory = new EmbeddedCassandraFactory();
+		factory.setArtifact(Artifact.ofVersion(this.version));
+		factory.setName(this.name);
+		factory.setWorkingDirectory((this.workingDirectory != null) ? this.workingDirectory.toPath() : null);
+		factory.setJavaHome((this.javaHome != null) ? this.javaHome.toPath() : null);
+		factory.setAddress(getAddress());
+		factory.setPort(this.port);
+		factory.setRpcPort(this.rpcPort);
+		factory.setStoragePort(this.storagePort);
+		factory.setJmxLocalPort(this.jmxLocalPort);
+		factory.setConfig((this.config != null) ? new FileSystemResource(this.config) : null);
+		factory.setTimeout((this.timeout != null) ? Duration.ofSeconds(this.timeout) : null);
+		factory.getJvmOptions().addAll(this.jvmOptions);
+		factory.getSystemProperties().putAll(this.systemProperties);
+		factory.getEnvironmentVariables().putAll(this.environmentVariables);
+		factory.getConfigProperties().putAll(this.configProperties);
+		factory.setRegisterShutdownHook(true);
+		return factory;
+	}
+
+	@Nullable
+	private InetAddress getAddress() throws MojoExecutionException {
+		if (this.address == null) {
+			return null;
+		}
+		try {
+			return InetAddress.getByName(this.address);
+		}
+		catch (UnknownHostException ex) {
+			throw new MojoExecutionException("Address '" + this.address + "' cannot be resolved", ex);
+		}
+	}
+
+}
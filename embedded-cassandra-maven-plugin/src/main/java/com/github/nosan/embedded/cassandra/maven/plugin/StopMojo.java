@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.maven.plugin;
+
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+
+/**
+ * Stops Apache Cassandra that has been started by the {@code start} goal.
+ *
+ * @author Dmytro Nosan
+ * @see StartMojo
+ * @since 3.0.4
+ */
+@Mojo(name = "stop", defaultPhase = LifecyclePhase.POST_INTEGRATION_TEST, threadSafe = true)
+public class StopMojo extends AbstractMojo {
+
+	/**
+	 * Skips the goal.
+	 */
+	@Parameter(property = "embedded.cassandra.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void execute() throws MojoExecutionException {
+		if (this.skip) {
+			getLog().info("Skipping stop of Apache Cassandra");
+			return;
+		}
+		Map<Object, Object> context = getPluginContext();
+		Cassandra cassandra = (context != null) ? (Cassandra) context.remove(StartMojo.CASSANDRA) : null;
+		if (cassandra == null) {
+			getLog().info("Apache Cassandra has not been started");
+			return;
+		}
+		try {
+			cassandra.stop();
+		}
+		catch (CassandraException ex) {
+			throw new MojoExecutionException("Apache Cassandra cannot be stopped", ex);
+		}
+	}
+
+}
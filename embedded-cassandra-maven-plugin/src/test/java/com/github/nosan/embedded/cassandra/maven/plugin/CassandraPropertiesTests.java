@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.maven.plugin;
+
+import java.net.InetAddress;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link CassandraProperties}.
+ *
+ * @author Dmytro Nosan
+ */
+class CassandraPropertiesTests {
+
+	@Test
+	void exposeProperties() {
+		Cassandra cassandra = new MockCassandra(InetAddress.getLoopbackAddress(), 9042, 9160);
+		assertThat(CassandraProperties.of(cassandra, "embedded.cassandra")).containsExactly(
+				entry("embedded.cassandra.version", "3.11.6"), entry("embedded.cassandra.address", "127.0.0.1"),
+				entry("embedded.cassandra.port", "9042"), entry("embedded.cassandra.rpc-port", "9160"));
+	}
+
+	@Test
+	void exposeEnabledProperties() {
+		Cassandra cassandra = new MockCassandra(null, -1, -1);
+		assertThat(CassandraProperties.of(cassandra, "cassandra"))
+				.containsExactly(entry("cassandra.version", "3.11.6"));
+	}
+
+	private static final class MockCassandra implements Cassandra {
+
+		@Nullable
+		private final InetAddress address;
+
+		private final int port;
+
+		private final int rpcPort;
+
+		MockCassandra(@Nullable InetAddress address, int port, int rpcPort) {
+			this.address = address;
+			this.port = port;
+			this.rpcPort = rpcPort;
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void stop() {
+		}
+
+		@Override
+		public String getName() {
+			return "mock";
+		}
+
+		@Override
+		public Version getVersion() {
+			return Version.of("3.11.6");
+		}
+
+		@Nullable
+		@Override
+		public InetAddress getAddress() {
+			return this.address;
+		}
+
+		@Override
+		public int getPort() {
+			return this.port;
+		}
+
+		@Override
+		public int getRpcPort() {
+			return this.rpcPort;
+		}
+
+	}
+
+}
@@ -40,6 +40,7 @@ import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
 import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
  * Abstract {@link CassandraNode} that implements common logic for any subclasses.
@@ -50,6 +51,8 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	private static final String JVM_EXTRA_OPTS = "JVM_EXTRA_OPTS";
 
+	private static final int DEFAULT_JMX_PORT = 7199;
+
 	private static final ByteArrayInputStream EMPTY_STREAM = new ByteArrayInputStream(new byte[0]);
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
@@ -69,6 +72,8 @@ abstract class AbstractCassandraNode implements CassandraNode {
 
 	private volatile long pid = -1;
 
+	private volatile int jmxPort = -1;
+
 	AbstractCassandraNode(Path workingDirectory, Map<String, Object> properties, List<String> jvmOptions,
 			Map<String, Object> systemProperties, Map<String, Object> environmentVariables) {
 		this.workingDirectory = workingDirectory;
@@ -86,6 +91,7 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		Map<String, Object> systemProperties = new LinkedHashMap<>(this.systemProperties);
 		configureSystemProperties(systemProperties);
 		configureProperties(properties);
+		this.jmxPort = getJmxPort(systemProperties);
 		Path configFile = Files.createTempFile(this.workingDirectory.resolve("conf"), "", "-cassandra.yaml");
 		dumpProperties(properties, configFile);
 		systemProperties.put("cassandra.config", configFile.toUri().toString());
@@ -129,6 +135,16 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		return process != null && process.isAlive();
 	}
 
+	@Override
+	public final long getPid() {
+		return this.pid;
+	}
+
+	@Override
+	public final int getJmxPort() {
+		return this.jmxPort;
+	}
+
 	@Override
 	public final String toString() {
 		return String.format("%s[pid='%s', exitValue='%s']", getClass().getSimpleName(), this.pid, exitValue());
@@ -212,6 +228,15 @@ abstract class AbstractCassandraNode implements CassandraNode {
 		configurePort(systemProperties, "cassandra.ssl_storage_port");
 	}
 
+	private static int getJmxPort(Map<String, Object> systemProperties) {
+		Object port = systemProperties.get("cassandra.jmx.remote.port");
+		if (port == null) {
+			port = systemProperties.get("cassandra.jmx.local.port");
+		}
+		String value = Objects.toString(port, "").trim();
+		return StringUtils.hasText(value) ? Integer.parseInt(value) : DEFAULT_JMX_PORT;
+	}
+
 	private void configurePort(Map<String, Object> properties, String name) throws IOException {
 		if (!Objects.toString(properties.get(name), "").trim().equals("0")) {
 			return;
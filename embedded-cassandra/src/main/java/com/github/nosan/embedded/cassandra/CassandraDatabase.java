@@ -76,4 +76,36 @@ interface CassandraDatabase {
 	 */
 	int getRpcPort();
 
+	/**
+	 * Returns {@link NodeOperations} bound to the running {@code Cassandra}.
+	 *
+	 * @return the node operations (or null if none)
+	 */
+	@Nullable
+	NodeOperations getNodeOperations();
+
+	/**
+	 * Returns {@link ProcessSampler} bound to the running {@code Cassandra}.
+	 *
+	 * @return the process sampler (or null if sampling is disabled or not supported)
+	 */
+	@Nullable
+	ProcessSampler getProcessSampler();
+
+	/**
+	 * Returns {@link GcLog} of the running {@code Cassandra}.
+	 *
+	 * @return the GC log (or null if GC logging is disabled)
+	 */
+	@Nullable
+	GcLog getGcLog();
+
+	/**
+	 * Returns {@link FlightRecorder} bound to the running {@code Cassandra}.
+	 *
+	 * @return the flight recorder (or null if none)
+	 */
+	@Nullable
+	FlightRecorder getFlightRecorder();
+
 }
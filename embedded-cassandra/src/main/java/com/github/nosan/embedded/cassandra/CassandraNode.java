@@ -57,4 +57,19 @@ interface CassandraNode {
 	 */
 	InputStream getInputStream();
 
+	/**
+	 * Returns the JMX port ({@code cassandra.jmx.remote.port} or {@code cassandra.jmx.local.port}) of the started
+	 * node.
+	 *
+	 * @return the JMX port (or -1 if the node has not been started)
+	 */
+	int getJmxPort();
+
+	/**
+	 * Returns the pid of the started node.
+	 *
+	 * @return the pid (or -1 if none)
+	 */
+	long getPid();
+
 }
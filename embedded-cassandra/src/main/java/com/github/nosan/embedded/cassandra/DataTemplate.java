@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * A golden image of Cassandra's {@code data} directory right after the first start, i.e. with initialized system
+ * keyspaces. Images are keyed by Cassandra's version and the configuration that affects the data (ports and addresses
+ * are ignored), so that a new working directory is cloned from the image and Cassandra skips its first-start
+ * initialization. The node identity ({@code system.local} and {@code system.peers} tables) and the commit log are not
+ * stored, so that every clone generates its own host ID and tokens. Immutable SSTable files are hard-linked when
+ * possible, other files are copied.
+ *
+ * @author Dmytro Nosan
+ */
+final class DataTemplate {
+
+	private static final Logger log = LoggerFactory.getLogger(DataTemplate.class);
+
+	private static final String DATA = "data";
+
+	private static final String COMMIT_LOG = "commitlog";
+
+	private static final String SYSTEM = "system";
+
+	private static final List<String> IDENTITY_TABLES = Collections.unmodifiableList(
+			Arrays.asList("local", "peers", "peers_v2"));
+
+	private static final List<String> STORAGE_PROPERTIES = Collections.unmodifiableList(
+			Arrays.asList("data_file_directories", "commitlog_directory", "saved_caches_directory",
+					"hints_directory", "cdc_raw_directory"));
+
+	private final Path directory;
+
+	private DataTemplate(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Creates a {@link DataTemplate} for the given configuration.
+	 *
+	 * @param templateDirectory the directory of all templates
+	 * @param version Cassandra's version
+	 * @param config the configuration file ({@code cassandra.yaml})
+	 * @param rackConfig the rack configuration file, if any
+	 * @param topologyConfig the topology configuration file, if any
+	 * @param configProperties properties that override the configuration file
+	 * @param systemProperties system properties of Cassandra
+	 * @return the template, or {@code null} if the data is not stored inside the working directory or seeds name
+	 * other hosts
+	 * @throws IOException if a configuration file cannot be read
+	 */
+	@Nullable
+	static DataTemplate of(Path templateDirectory, Version version, Resource config, @Nullable Resource rackConfig,
+			@Nullable Resource topologyConfig, Map<String, Object> configProperties,
+			Map<String, Object> systemProperties) throws IOException {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		try (InputStream is = config.getInputStream()) {
+			Map<String, Object> yaml = new Yaml().load(is);
+			if (yaml != null) {
+				properties.putAll(yaml);
+			}
+		}
+		properties.putAll(configProperties);
+		for (String name : STORAGE_PROPERTIES) {
+			if (properties.get(name) != null) {
+				log.warn("'{}' is set, data template cannot be used", name);
+				return null;
+			}
+		}
+		if (systemProperties.containsKey("cassandra.storagedir")) {
+			log.warn("'cassandra.storagedir' is set, data template cannot be used");
+			return null;
+		}
+		for (String seed : getSeeds(properties)) {
+			if (!isLocalAddress(seed)) {
+				log.warn("Seed '{}' names another host, data template cannot be used", seed);
+				return null;
+			}
+		}
+		MessageDigest digest = DigestUtils.getDigest("SHA-256");
+		update(digest, version.toString());
+		update(digest, new TreeMap<>(filter(properties)).toString());
+		update(digest, new TreeMap<>(filter(systemProperties)).toString());
+		for (Resource resource : Arrays.asList(rackConfig, topologyConfig)) {
+			if (resource != null) {
+				digest.update(resource.getBytes());
+			}
+		}
+		String hash = DigestUtils.toHex(digest.digest()).substring(0, 16);
+		return new DataTemplate(templateDirectory.resolve(version.toString()).resolve(hash));
+	}
+
+	/**
+	 * Returns the directory of this template.
+	 *
+	 * @return the directory
+	 */
+	Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Clones this template into the {@code data} directory of the working directory.
+	 *
+	 * @param workingDirectory Cassandra's working directory
+	 * @return {@code true} if the template exists and has been cloned
+	 * @throws IOException if an I/O error occurs
+	 */
+	boolean restore(Path workingDirectory) throws IOException {
+		if (!Files.isDirectory(this.directory)) {
+			return false;
+		}
+		Path target = workingDirectory.resolve(DATA);
+		FileUtils.delete(target);
+		try (Stream<Path> stream = Files.walk(this.directory)) {
+			for (Path source : (Iterable<Path>) stream::iterator) {
+				Path relative = this.directory.relativize(source);
+				Path file = target.resolve(relative.toString());
+				if (Files.isDirectory(source)) {
+					Files.createDirectories(file);
+				}
+				else if (relative.getNameCount() > 1 && relative.getName(0).toString().equals(DATA)) {
+					link(source, file);
+				}
+				else {
+					Files.copy(source, file, StandardCopyOption.COPY_ATTRIBUTES);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the {@code data} directory of the working directory as this template, except the node identity and the
+	 * commit log. Cassandra must be stopped. If the template has been stored concurrently, the existing one is kept.
+	 *
+	 * @param workingDirectory Cassandra's working directory
+	 * @throws IOException if an I/O error occurs
+	 */
+	void store(Path workingDirectory) throws IOException {
+		Path parent = this.directory.getParent();
+		Files.createDirectories(parent);
+		Path tempDirectory = Files.createTempDirectory(parent, ".template-");
+		try {
+			Path data = workingDirectory.resolve(DATA);
+			FileUtils.copy(data, tempDirectory, (path, attributes) -> isShared(data.relativize(path)));
+			try {
+				Files.move(tempDirectory, this.directory, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (FileAlreadyExistsException ex) {
+				// stored by another instance
+			}
+			catch (IOException ex) {
+				if (!Files.isDirectory(this.directory)) {
+					throw ex;
+				}
+			}
+		}
+		finally {
+			FileUtils.delete(tempDirectory);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.directory.toString();
+	}
+
+	private static void link(Path source, Path file) throws IOException {
+		try {
+			Files.createLink(file, source);
+		}
+		catch (IOException | UnsupportedOperationException ex) {
+			// e.g. another file store
+			Files.copy(source, file, StandardCopyOption.COPY_ATTRIBUTES);
+		}
+	}
+
+	private static boolean isShared(Path path) {
+		if (path.getNameCount() == 2 && path.getName(0).toString().equals(COMMIT_LOG)) {
+			// drained already, but would replay the node identity
+			return false;
+		}
+		if (path.getNameCount() == 3 && path.getName(0).toString().equals(DATA)
+				&& path.getName(1).toString().equals(SYSTEM)) {
+			String name = path.getName(2).toString();
+			int index = name.indexOf('-');
+			return !IDENTITY_TABLES.contains((index != -1) ? name.substring(0, index) : name);
+		}
+		return true;
+	}
+
+	private static List<String> getSeeds(Map<String, Object> properties) {
+		List<String> seeds = new ArrayList<>();
+		Object seedProvider = properties.get("seed_provider");
+		for (Object provider : (seedProvider instanceof List) ? (List<?>) seedProvider : Collections.emptyList()) {
+			Object parameters = (provider instanceof Map) ? ((Map<?, ?>) provider).get("parameters") : null;
+			for (Object parameter : (parameters instanceof List) ? (List<?>) parameters : Collections.emptyList()) {
+				Object value = (parameter instanceof Map) ? ((Map<?, ?>) parameter).get("seeds") : null;
+				if (value != null) {
+					for (String seed : value.toString().split(",")) {
+						if (StringUtils.hasText(seed)) {
+							seeds.add(seed.trim());
+						}
+					}
+				}
+			}
+		}
+		return seeds;
+	}
+
+	private static boolean isLocalAddress(String seed) {
+		String host = seed;
+		if (host.startsWith("[") && host.indexOf(']') != -1) {
+			host = host.substring(1, host.indexOf(']'));
+		}
+		else if (host.indexOf(':') != -1 && host.indexOf(':') == host.lastIndexOf(':')) {
+			host = host.substring(0, host.indexOf(':'));
+		}
+		try {
+			InetAddress address = InetAddress.getByName(host);
+			return address.isLoopbackAddress() || address.isAnyLocalAddress()
+					|| NetworkInterface.getByInetAddress(address) != null;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	private static Map<String, Object> filter(Map<String, Object> properties) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		properties.forEach((name, value) -> {
+			String key = String.valueOf(name).toLowerCase(Locale.ENGLISH);
+			if (!key.contains("port") && !key.contains("address") && !key.startsWith("logback.")
+					&& !key.equals("cassandra.config")) {
+				result.put(String.valueOf(name), value);
+			}
+		});
+		return result;
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+}
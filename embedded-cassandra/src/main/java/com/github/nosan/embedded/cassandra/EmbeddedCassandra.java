@@ -132,6 +132,68 @@ class EmbeddedCassandra implements Cassandra {
 		return -1;
 	}
 
+	/**
+	 * Returns {@link NodeOperations} bound to this running {@code Cassandra}.
+	 *
+	 * @return the node operations
+	 * @throws IllegalStateException if this {@code Cassandra} is not running
+	 */
+	NodeOperations getNodeOperations() throws IllegalStateException {
+		NodeOperations nodeOperations = this.running ? this.database.getNodeOperations() : null;
+		if (nodeOperations == null) {
+			throw new IllegalStateException(toString() + " is not running");
+		}
+		return nodeOperations;
+	}
+
+	/**
+	 * Returns {@link FlightRecorder} bound to this running {@code Cassandra}.
+	 *
+	 * @return the flight recorder
+	 * @throws IllegalStateException if this {@code Cassandra} is not running
+	 */
+	FlightRecorder getFlightRecorder() throws IllegalStateException {
+		FlightRecorder flightRecorder = this.running ? this.database.getFlightRecorder() : null;
+		if (flightRecorder == null) {
+			throw new IllegalStateException(toString() + " is not running");
+		}
+		return flightRecorder;
+	}
+
+	/**
+	 * Returns {@link ProcessSampler} bound to this running {@code Cassandra}.
+	 *
+	 * @return the process sampler
+	 * @throws IllegalStateException if this {@code Cassandra} is not running or sampling is not enabled
+	 */
+	ProcessSampler getProcessSampler() throws IllegalStateException {
+		if (!this.running) {
+			throw new IllegalStateException(toString() + " is not running");
+		}
+		ProcessSampler processSampler = this.database.getProcessSampler();
+		if (processSampler == null) {
+			throw new IllegalStateException("Process sampling is not enabled or not supported for " + toString());
+		}
+		return processSampler;
+	}
+
+	/**
+	 * Returns {@link GcLog} of this running {@code Cassandra}.
+	 *
+	 * @return the GC log
+	 * @throws IllegalStateException if this {@code Cassandra} is not running or GC logging is not enabled
+	 */
+	GcLog getGcLog() throws IllegalStateException {
+		if (!this.running) {
+			throw new IllegalStateException(toString() + " is not running");
+		}
+		GcLog gcLog = this.database.getGcLog();
+		if (gcLog == null) {
+			throw new IllegalStateException("GC logging is not enabled for " + toString());
+		}
+		return gcLog;
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandra.class.getSimpleName() + "[", "]")
@@ -87,12 +87,30 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 	@Nullable
 	private Boolean registerShutdownHook;
 
+	@Nullable
+	private Boolean gcLogging;
+
+	@Nullable
+	private Path flightRecording;
+
+	@Nullable
+	private Path templateDirectory;
+
+	@Nullable
+	private Boolean quietLogging;
+
+	@Nullable
+	private Boolean debugLogging;
+
 	@Nullable
 	private Logger logger;
 
 	@Nullable
 	private Duration timeout;
 
+	@Nullable
+	private Duration processSamplingInterval;
+
 	@Nullable
 	private String name;
 
@@ -225,6 +243,65 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets if GC logging should be enabled. Defaults to {@code false}.
+	 *
+	 * @param gcLogging if GC logging should be enabled
+	 * @return this builder
+	 * @see GcLog
+	 */
+	public EmbeddedCassandraBuilder withGcLogging(@Nullable Boolean gcLogging) {
+		this.gcLogging = gcLogging;
+		return this;
+	}
+
+	/**
+	 * Sets the file a Java Flight Recording of the whole Cassandra's lifetime should be written to.
+	 *
+	 * @param flightRecording the recording file
+	 * @return this builder
+	 * @see FlightRecorder
+	 */
+	public EmbeddedCassandraBuilder withFlightRecording(@Nullable Path flightRecording) {
+		this.flightRecording = flightRecording;
+		return this;
+	}
+
+	/**
+	 * Sets the directory where golden images of Cassandra's {@code data} directory should be stored.
+	 *
+	 * @param templateDirectory the template directory
+	 * @return this builder
+	 * @see EmbeddedCassandraFactory#setTemplateDirectory(Path)
+	 */
+	public EmbeddedCassandraBuilder withTemplateDirectory(@Nullable Path templateDirectory) {
+		this.templateDirectory = templateDirectory;
+		return this;
+	}
+
+	/**
+	 * Sets if Cassandra's own logging should be reduced to a console output at {@code WARN} level. Defaults to {@code
+	 * false}.
+	 *
+	 * @param quietLogging if quiet logging should be enabled
+	 * @return this builder
+	 */
+	public EmbeddedCassandraBuilder withQuietLogging(@Nullable Boolean quietLogging) {
+		this.quietLogging = quietLogging;
+		return this;
+	}
+
+	/**
+	 * Sets if {@code DEBUG} logging should be enabled in the quiet logging mode. Defaults to {@code false}.
+	 *
+	 * @param debugLogging if debug logging should be enabled
+	 * @return this builder
+	 */
+	public EmbeddedCassandraBuilder withDebugLogging(@Nullable Boolean debugLogging) {
+		this.debugLogging = debugLogging;
+		return this;
+	}
+
 	/**
 	 * Sets {@link Logger} for {@code Cassandra's} output. Defaults to {@code LoggerFactory.getLogger(Cassandra.class)}.
 	 *
@@ -247,6 +324,18 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		return this;
 	}
 
+	/**
+	 * Sets the interval at which resource usage of Cassandra's process is sampled.
+	 *
+	 * @param processSamplingInterval the sampling interval (must be positive)
+	 * @return this builder
+	 * @see ProcessSampler
+	 */
+	public EmbeddedCassandraBuilder withProcessSamplingInterval(@Nullable Duration processSamplingInterval) {
+		this.processSamplingInterval = processSamplingInterval;
+		return this;
+	}
+
 	/**
 	 * Sets Cassandra's name.
 	 *
@@ -433,12 +522,18 @@ public final class EmbeddedCassandraBuilder implements CassandraFactory {
 		Optional.ofNullable(this.address).ifPresent(cassandraFactory::setAddress);
 		Optional.ofNullable(this.rootAllowed).ifPresent(cassandraFactory::setRootAllowed);
 		Optional.ofNullable(this.registerShutdownHook).ifPresent(cassandraFactory::setRegisterShutdownHook);
+		Optional.ofNullable(this.gcLogging).ifPresent(cassandraFactory::setGcLogging);
+		Optional.ofNullable(this.flightRecording).ifPresent(cassandraFactory::setFlightRecording);
+		Optional.ofNullable(this.templateDirectory).ifPresent(cassandraFactory::setTemplateDirectory);
+		Optional.ofNullable(this.quietLogging).ifPresent(cassandraFactory::setQuietLogging);
+		Optional.ofNullable(this.debugLogging).ifPresent(cassandraFactory::setDebugLogging);
 		Optional.ofNullable(this.daemon).ifPresent(cassandraFactory::setDaemon);
 		Optional.ofNullable(this.config).ifPresent(cassandraFactory::setConfig);
 		Optional.ofNullable(this.rackConfig).ifPresent(cassandraFactory::setRackConfig);
 		Optional.ofNullable(this.topologyConfig).ifPresent(cassandraFactory::setTopologyConfig);
 		Optional.ofNullable(this.logger).ifPresent(cassandraFactory::setLogger);
 		Optional.ofNullable(this.timeout).ifPresent(cassandraFactory::setTimeout);
+		Optional.ofNullable(this.processSamplingInterval).ifPresent(cassandraFactory::setProcessSamplingInterval);
 		Optional.ofNullable(this.name).ifPresent(cassandraFactory::setName);
 		Optional.ofNullable(this.workingDirectory).ifPresent(cassandraFactory::setWorkingDirectory);
 		Optional.ofNullable(this.javaHome).ifPresent(cassandraFactory::setJavaHome);
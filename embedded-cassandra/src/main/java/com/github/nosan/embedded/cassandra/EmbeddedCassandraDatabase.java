@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -55,6 +56,11 @@ import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
  */
 class EmbeddedCassandraDatabase implements CassandraDatabase {
 
+	/**
+	 * The name of the recording that is started together with {@code Cassandra}.
+	 */
+	static final String FLIGHT_RECORDING = "embedded-cassandra";
+
 	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraDatabase.class);
 
 	private final String name;
@@ -71,6 +77,18 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private final Duration timeout;
 
+	@Nullable
+	private final Duration processSamplingInterval;
+
+	@Nullable
+	private final GcLog gcLog;
+
+	@Nullable
+	private final Path flightRecording;
+
+	@Nullable
+	private final QuietLogging quietLogging;
+
 	private final CassandraNode node;
 
 	@Nullable
@@ -82,6 +100,9 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 	@Nullable
 	private final Resource topologyConfig;
 
+	@Nullable
+	private final DataTemplate dataTemplate;
+
 	@Nullable
 	private volatile InetAddress address;
 
@@ -91,9 +112,20 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 
 	private volatile int rpcPort = -1;
 
+	@Nullable
+	private volatile JmxNodeOperations nodeOperations;
+
+	@Nullable
+	private volatile JmxFlightRecorder flightRecorder;
+
+	@Nullable
+	private volatile ProcFsProcessSampler processSampler;
+
 	EmbeddedCassandraDatabase(String name, Version version, Path directory, Path workingDirectory, boolean daemon,
-			Logger logger, Duration timeout, @Nullable Resource config, @Nullable Resource rackConfig,
-			@Nullable Resource topologyConfig, CassandraNode node) {
+			Logger logger, Duration timeout, @Nullable Duration processSamplingInterval, @Nullable GcLog gcLog,
+			@Nullable Path flightRecording, @Nullable QuietLogging quietLogging, @Nullable Resource config,
+			@Nullable Resource rackConfig, @Nullable Resource topologyConfig, CassandraNode node,
+			@Nullable DataTemplate dataTemplate) {
 		this.name = name;
 		this.version = version;
 		this.directory = directory;
@@ -101,17 +133,35 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		this.daemon = daemon;
 		this.logger = logger;
 		this.timeout = timeout;
+		this.processSamplingInterval = processSamplingInterval;
+		this.gcLog = gcLog;
+		this.flightRecording = flightRecording;
+		this.quietLogging = quietLogging;
 		this.config = config;
 		this.rackConfig = rackConfig;
 		this.topologyConfig = topologyConfig;
 		this.node = node;
+		this.dataTemplate = dataTemplate;
 	}
 
 	@Override
 	public void start() throws InterruptedException, IOException {
 		initialize();
+		DataTemplate dataTemplate = this.dataTemplate;
+		boolean restored = dataTemplate != null && dataTemplate.restore(this.workingDirectory);
+		if (restored) {
+			log.info("{} data directory has been cloned from the template '{}'", toString(), dataTemplate);
+		}
+		startNode();
+		if (dataTemplate != null && !restored) {
+			storeTemplate(dataTemplate);
+		}
+	}
+
+	private void startNode() throws InterruptedException, IOException {
 		this.node.start();
 		log.info("{} has been started", toString());
+		startProcessSampler();
 		NativeTransportReadinessConsumer nativeTransportReadiness = new NativeTransportReadinessConsumer(this.version);
 		RpcTransportReadinessConsumer rpcTransportReadiness = new RpcTransportReadinessConsumer(this.version);
 		await(nativeTransportReadiness, rpcTransportReadiness);
@@ -122,14 +172,67 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		this.rpcPort = rpcTransportReadiness.getRpcPort();
 		InetAddress address = nativeTransportReadiness.getAddress();
 		this.address = (address != null) ? address : rpcTransportReadiness.getAddress();
+		JmxNodeOperations nodeOperations = new JmxNodeOperations(this.version, InetAddress.getLoopbackAddress(),
+				this.node.getJmxPort());
+		this.nodeOperations = nodeOperations;
+		this.flightRecorder = new JmxFlightRecorder(nodeOperations);
 	}
 
 	@Override
 	public void stop() throws InterruptedException, IOException {
+		Path flightRecordingFile = this.workingDirectory.resolve(FLIGHT_RECORDING + ".jfr");
+		JmxFlightRecorder flightRecorder = this.flightRecorder;
+		this.flightRecorder = null;
+		if (flightRecorder != null && this.flightRecording != null && this.node.isAlive()) {
+			try {
+				flightRecorder.stop(FLIGHT_RECORDING, flightRecordingFile);
+			}
+			catch (Exception ex) {
+				log.warn("Flight recording '" + FLIGHT_RECORDING + "' cannot be stopped, relying on dumponexit", ex);
+			}
+		}
+		JmxNodeOperations nodeOperations = this.nodeOperations;
+		this.nodeOperations = null;
+		if (nodeOperations != null) {
+			nodeOperations.close();
+		}
+		ProcFsProcessSampler processSampler = this.processSampler;
+		this.processSampler = null;
+		if (processSampler != null) {
+			processSampler.close();
+			if (this.node.isAlive()) {
+				processSampler.sample();
+			}
+			log.info("{} resource usage: {}", toString(), processSampler.getSummary());
+		}
 		if (this.node.isAlive()) {
 			this.node.stop();
 			log.info("{} has been stopped", toString());
 		}
+		GcLog gcLog = this.gcLog;
+		if (gcLog != null) {
+			try {
+				log.info("{} GC pauses: {}", toString(), gcLog.getSummary());
+			}
+			catch (IOException ex) {
+				log.error("GC log '" + gcLog.getFile() + "' cannot be parsed", ex);
+			}
+		}
+		Path flightRecording = this.flightRecording;
+		if (flightRecording != null && Files.exists(flightRecordingFile)) {
+			try {
+				Path parent = flightRecording.toAbsolutePath().getParent();
+				if (parent != null) {
+					Files.createDirectories(parent);
+				}
+				Files.copy(flightRecordingFile, flightRecording, StandardCopyOption.REPLACE_EXISTING);
+				log.info("{} flight recording has been written to '{}'", toString(), flightRecording);
+			}
+			catch (IOException ex) {
+				log.error("Flight recording '" + flightRecordingFile + "' cannot be copied to '" + flightRecording
+						+ "'", ex);
+			}
+		}
 		try {
 			FileUtils.delete(this.workingDirectory);
 		}
@@ -159,6 +262,30 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 		return this.rpcPort;
 	}
 
+	@Override
+	@Nullable
+	public NodeOperations getNodeOperations() {
+		return this.nodeOperations;
+	}
+
+	@Override
+	@Nullable
+	public ProcessSampler getProcessSampler() {
+		return this.processSampler;
+	}
+
+	@Override
+	@Nullable
+	public GcLog getGcLog() {
+		return this.gcLog;
+	}
+
+	@Override
+	@Nullable
+	public FlightRecorder getFlightRecorder() {
+		return this.flightRecorder;
+	}
+
 	@Override
 	public String toString() {
 		return new StringJoiner(", ", EmbeddedCassandraDatabase.class.getSimpleName() + "[", "]")
@@ -193,6 +320,60 @@ class EmbeddedCassandraDatabase implements CassandraDatabase {
 						StandardCopyOption.REPLACE_EXISTING);
 			}
 		}
+		if (this.quietLogging != null) {
+			this.quietLogging.write(this.workingDirectory);
+		}
+	}
+
+	private void storeTemplate(DataTemplate dataTemplate) throws InterruptedException, IOException {
+		JmxNodeOperations nodeOperations = this.nodeOperations;
+		this.nodeOperations = null;
+		this.flightRecorder = null;
+		try {
+			if (nodeOperations != null) {
+				// flushes memtables, so that the data directory has no commit log to replay
+				nodeOperations.drain();
+			}
+		}
+		catch (Exception ex) {
+			log.warn(toString() + " cannot be drained, the data template '" + dataTemplate + "' is not stored", ex);
+			this.nodeOperations = nodeOperations;
+			this.flightRecorder = (nodeOperations != null) ? new JmxFlightRecorder(nodeOperations) : null;
+			return;
+		}
+		if (nodeOperations != null) {
+			nodeOperations.close();
+		}
+		ProcFsProcessSampler processSampler = this.processSampler;
+		this.processSampler = null;
+		if (processSampler != null) {
+			processSampler.close();
+		}
+		this.node.stop();
+		try {
+			dataTemplate.store(this.workingDirectory);
+			log.info("{} data directory has been stored as the template '{}'", toString(), dataTemplate);
+		}
+		catch (IOException ex) {
+			log.warn(toString() + " data directory cannot be stored as the template '" + dataTemplate + "'", ex);
+		}
+		startNode();
+	}
+
+	private void startProcessSampler() {
+		Duration interval = this.processSamplingInterval;
+		if (interval == null) {
+			return;
+		}
+		long pid = this.node.getPid();
+		if (!ProcFsProcessSampler.isAvailable(pid)) {
+			log.warn("Process sampling is not supported for {}", this.node);
+			return;
+		}
+		ProcFsProcessSampler processSampler = new ProcFsProcessSampler(ProcFsProcessSampler.getDirectory(pid),
+				Clock.systemUTC());
+		processSampler.start(this.name + "-sampler", interval);
+		this.processSampler = processSampler;
 	}
 
 	private void await(ReadinessConsumer... readinessConsumers) throws IOException, InterruptedException {
@@ -16,19 +16,26 @@
 
 package com.github.nosan.embedded.cassandra;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +49,9 @@ import com.github.nosan.embedded.cassandra.artifact.ArchiveArtifact;
 import com.github.nosan.embedded.cassandra.artifact.Artifact;
 import com.github.nosan.embedded.cassandra.artifact.DefaultArtifact;
 import com.github.nosan.embedded.cassandra.artifact.RemoteArtifact;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
 import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
@@ -93,8 +102,12 @@ import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
  */
 public final class EmbeddedCassandraFactory implements CassandraFactory {
 
+	private static final Logger log = LoggerFactory.getLogger(EmbeddedCassandraFactory.class);
+
 	private static final AtomicLong NUMBER = new AtomicLong();
 
+	private static final Pattern JAVA_VERSION = Pattern.compile("version \"([^\"]+)\"");
+
 	private final Map<String, Object> environmentVariables = new LinkedHashMap<>();
 
 	private final List<String> jvmOptions = new ArrayList<>();
@@ -109,12 +122,27 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 
 	private boolean registerShutdownHook = true;
 
+	private boolean gcLogging = false;
+
+	@Nullable
+	private Path flightRecording;
+
+	@Nullable
+	private Path templateDirectory;
+
+	private boolean quietLogging = false;
+
+	private boolean debugLogging = false;
+
 	@Nullable
 	private Logger logger;
 
 	@Nullable
 	private Duration timeout;
 
+	@Nullable
+	private Duration processSamplingInterval;
+
 	@Nullable
 	private Path javaHome;
 
@@ -349,6 +377,141 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		this.timeout = timeout;
 	}
 
+	/**
+	 * Returns the interval at which resource usage of Cassandra's process is sampled.
+	 *
+	 * @return the sampling interval (or null if sampling is disabled)
+	 * @see ProcessSampler
+	 */
+	@Nullable
+	public Duration getProcessSamplingInterval() {
+		return this.processSamplingInterval;
+	}
+
+	/**
+	 * Sets the interval at which resource usage (RSS, CPU time, threads, context switches and I/O) of Cassandra's
+	 * process is sampled from {@code /proc/<pid>}. Sampling is disabled by default and is supported only on Linux.
+	 *
+	 * @param processSamplingInterval the sampling interval (must be positive)
+	 * @see ProcessSampler
+	 */
+	public void setProcessSamplingInterval(@Nullable Duration processSamplingInterval) {
+		this.processSamplingInterval = processSamplingInterval;
+	}
+
+	/**
+	 * Whether GC logging into the working directory is enabled or not.
+	 *
+	 * @return {@code true} if GC logging is enabled
+	 * @see GcLog
+	 */
+	public boolean isGcLogging() {
+		return this.gcLogging;
+	}
+
+	/**
+	 * Sets if GC logging should be enabled. If enabled, Cassandra's process writes a GC log ({@code -Xlog:gc} on Java
+	 * 9+ or {@code -Xloggc} on Java 8) into the working directory and a summary of the pauses is logged on stop.
+	 * Defaults to {@code false}.
+	 *
+	 * @param gcLogging if GC logging should be enabled
+	 * @see GcLog
+	 */
+	public void setGcLogging(boolean gcLogging) {
+		this.gcLogging = gcLogging;
+	}
+
+	/**
+	 * Returns the file a Java Flight Recording of the whole Cassandra's lifetime is written to.
+	 *
+	 * @return the recording file, or {@code null} if the recording is disabled
+	 * @see FlightRecorder
+	 */
+	@Nullable
+	public Path getFlightRecording() {
+		return this.flightRecording;
+	}
+
+	/**
+	 * Sets the file a Java Flight Recording of the whole Cassandra's lifetime should be written to. If set, the
+	 * recording is started together with Cassandra's process ({@code -XX:StartFlightRecording}) and is written to the
+	 * working directory on stop, from where it is copied into the specified file before the working directory is
+	 * deleted.
+	 *
+	 * @param flightRecording the recording file
+	 * @see FlightRecorder
+	 */
+	public void setFlightRecording(@Nullable Path flightRecording) {
+		this.flightRecording = flightRecording;
+	}
+
+	/**
+	 * Returns the directory where golden images of Cassandra's {@code data} directory are stored.
+	 *
+	 * @return the template directory, or {@code null} if templates are disabled
+	 */
+	@Nullable
+	public Path getTemplateDirectory() {
+		return this.templateDirectory;
+	}
+
+	/**
+	 * Sets the directory where golden images of Cassandra's {@code data} directory should be stored, e.g. {@code
+	 * ~/.embedded-cassandra/template}. If set, the first Cassandra of a version and a configuration is started,
+	 * drained, stopped, its {@code data} directory is stored as a template and Cassandra is started again. Later
+	 * instances clone the template into their working directory and skip the initialization of system keyspaces. The
+	 * host ID and tokens are not stored and are generated on every start. Ports and addresses are not part of the
+	 * template key. Templates cannot be used if data directories are configured outside the working directory or
+	 * seeds name other hosts.
+	 *
+	 * @param templateDirectory the template directory
+	 */
+	public void setTemplateDirectory(@Nullable Path templateDirectory) {
+		this.templateDirectory = templateDirectory;
+	}
+
+	/**
+	 * Whether Cassandra's own logging is reduced to a console output or not.
+	 *
+	 * @return {@code true} if quiet logging is enabled
+	 */
+	public boolean isQuietLogging() {
+		return this.quietLogging;
+	}
+
+	/**
+	 * Sets if Cassandra's own logging should be reduced. If enabled, the distribution's {@code logback.xml} (which
+	 * writes {@code system.log} and {@code debug.log}) is replaced via {@code -Dlogback.configurationFile} with a
+	 * minimal configuration that has a console appender only, the {@code WARN} root level and {@code INFO} level for
+	 * loggers that emit startup milestones. Defaults to {@code false}.
+	 *
+	 * @param quietLogging if quiet logging should be enabled
+	 * @see #setDebugLogging(boolean)
+	 */
+	public void setQuietLogging(boolean quietLogging) {
+		this.quietLogging = quietLogging;
+	}
+
+	/**
+	 * Whether {@code DEBUG} logging is enabled in the quiet logging mode or not.
+	 *
+	 * @return {@code true} if debug logging is enabled
+	 */
+	public boolean isDebugLogging() {
+		return this.debugLogging;
+	}
+
+	/**
+	 * Sets if {@code DEBUG} logging should be enabled in the quiet logging mode. Useful for troubleshooting, all
+	 * Cassandra's messages are written into the console at {@code DEBUG} level. Defaults to {@code false}.
+	 *
+	 * @param debugLogging if debug logging should be enabled
+	 * @see #setQuietLogging(boolean)
+	 */
+	public void setDebugLogging(boolean debugLogging) {
+		this.debugLogging = debugLogging;
+	}
+
 	/**
 	 * Returns the native transport port ({@code cassandra.native_transport_port}).
 	 *
@@ -604,9 +767,19 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		if (timeout == null || timeout.toMillis() <= 0) {
 			timeout = Duration.ofSeconds(90);
 		}
-		CassandraNode node = createNode(version, workingDirectory);
+		Duration processSamplingInterval = getProcessSamplingInterval();
+		if (processSamplingInterval != null && processSamplingInterval.toMillis() <= 0) {
+			processSamplingInterval = null;
+		}
+		FileGcLog gcLog = isGcLogging() ? new FileGcLog(workingDirectory.resolve("gc.log")) : null;
+		Path flightRecording = getFlightRecording();
+		QuietLogging quietLogging = isQuietLogging() ? new QuietLogging(isDebugLogging()) : null;
+		CassandraNode node = createNode(version, workingDirectory, gcLog, flightRecording != null,
+				quietLogging != null);
+		DataTemplate dataTemplate = createDataTemplate(version, directory);
 		CassandraDatabase database = new EmbeddedCassandraDatabase(name, version, directory, workingDirectory,
-				isDaemon(), logger, timeout, getConfig(), getRackConfig(), getTopologyConfig(), node);
+				isDaemon(), logger, timeout, processSamplingInterval, gcLog, flightRecording, quietLogging,
+				getConfig(), getRackConfig(), getTopologyConfig(), node, dataTemplate);
 		EmbeddedCassandra cassandra = new EmbeddedCassandra(name, version, database);
 		if (isRegisterShutdownHook()) {
 			Runtime.getRuntime().addShutdownHook(new Thread(cassandra::stop, name + "-sh"));
@@ -614,7 +787,27 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		return cassandra;
 	}
 
-	private CassandraNode createNode(Version version, Path workingDirectory) {
+	@Nullable
+	private DataTemplate createDataTemplate(Version version, Path directory) throws IOException {
+		Path templateDirectory = getTemplateDirectory();
+		if (templateDirectory == null) {
+			return null;
+		}
+		Map<String, Object> systemProperties = new LinkedHashMap<>(getSystemProperties());
+		systemProperties.keySet().removeIf(Objects::isNull);
+		Map<String, Object> configProperties = new LinkedHashMap<>(getConfigProperties());
+		configProperties.keySet().removeIf(Objects::isNull);
+		Object url = systemProperties.get("cassandra.config");
+		Resource config = (url != null) ? new UrlResource(new URL(url.toString())) : getConfig();
+		if (config == null) {
+			config = new FileSystemResource(directory.resolve("conf/cassandra.yaml"));
+		}
+		return DataTemplate.of(templateDirectory, version, config, getRackConfig(), getTopologyConfig(),
+				configProperties, systemProperties);
+	}
+
+	private CassandraNode createNode(Version version, Path workingDirectory, @Nullable FileGcLog gcLog,
+			boolean flightRecording, boolean quietLogging) {
 		Map<String, Object> systemProperties = new LinkedHashMap<>(getSystemProperties());
 		systemProperties.keySet().removeIf(Objects::isNull);
 		Map<String, Object> environmentVariables = new LinkedHashMap<>(getEnvironmentVariables());
@@ -623,11 +816,20 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 		jvmOptions.removeIf(Objects::isNull);
 		LinkedHashMap<String, Object> configProperties = new LinkedHashMap<>(getConfigProperties());
 		configProperties.keySet().removeIf(Objects::isNull);
-		Path javaHome = Optional.ofNullable(getJavaHome())
-				.orElseGet(() -> Optional.ofNullable(System.getProperty("java.home")).map(Paths::get).orElse(null));
+		Path javaHome = getJavaHome(environmentVariables);
 		if (javaHome != null) {
 			environmentVariables.put("JAVA_HOME", javaHome);
 		}
+		if (gcLog != null) {
+			jvmOptions.addAll(FileGcLog.getJvmOptions(gcLog.getFile(), getJavaVersion(javaHome)));
+		}
+		if (flightRecording) {
+			jvmOptions.add(JmxFlightRecorder.getJvmOption(EmbeddedCassandraDatabase.FLIGHT_RECORDING,
+					workingDirectory.resolve(EmbeddedCassandraDatabase.FLIGHT_RECORDING + ".jfr")));
+		}
+		if (quietLogging) {
+			systemProperties.putIfAbsent("logback.configurationFile", workingDirectory.resolve(QuietLogging.FILE));
+		}
 		Integer port = getPort();
 		if (port != null) {
 			systemProperties.put("cassandra.native_transport_port", port);
@@ -664,6 +866,79 @@ public final class EmbeddedCassandraFactory implements CassandraFactory {
 				configProperties, isRootAllowed());
 	}
 
+	/**
+	 * Resolves the java home the node is started with: the configured one, {@code JAVA_HOME} of the node's environment
+	 * and the current JVM, in that order.
+	 */
+	@Nullable
+	private Path getJavaHome(Map<String, Object> environmentVariables) {
+		Path javaHome = getJavaHome();
+		if (javaHome != null) {
+			return javaHome;
+		}
+		Object env = environmentVariables.get("JAVA_HOME");
+		String path = (env != null && StringUtils.hasText(env.toString())) ? env.toString()
+				: System.getProperty("java.home");
+		return (path != null) ? Paths.get(path) : null;
+	}
+
+	private static int getJavaVersion(@Nullable Path javaHome) {
+		String version = null;
+		if (javaHome != null) {
+			for (Path release : Arrays.asList(javaHome.resolve("release"), javaHome.resolve("../release"))) {
+				if (Files.isRegularFile(release)) {
+					try (InputStream is = Files.newInputStream(release)) {
+						Properties properties = new Properties();
+						properties.load(is);
+						version = properties.getProperty("JAVA_VERSION");
+						break;
+					}
+					catch (IOException ex) {
+						log.debug("Java version cannot be read from '" + release + "'", ex);
+					}
+				}
+			}
+		}
+		if (version == null && javaHome != null) {
+			version = probeJavaVersion(javaHome);
+		}
+		if (version == null) {
+			version = System.getProperty("java.specification.version", "1.8");
+		}
+		String[] tokens = version.replace("\"", "").trim().split("[._\\-+]");
+		try {
+			int major = Integer.parseInt(tokens[0]);
+			return (major == 1 && tokens.length > 1) ? Integer.parseInt(tokens[1]) : major;
+		}
+		catch (NumberFormatException ex) {
+			return 8;
+		}
+	}
+
+	@Nullable
+	private static String probeJavaVersion(Path javaHome) {
+		Path java = javaHome.resolve("bin").resolve(isWindows() ? "java.exe" : "java");
+		if (!Files.isRegularFile(java)) {
+			return null;
+		}
+		AtomicReference<String> version = new AtomicReference<>();
+		try {
+			new RunProcess(javaHome, java, "-version").run(line -> {
+				Matcher matcher = JAVA_VERSION.matcher(line);
+				if (matcher.find()) {
+					version.compareAndSet(null, matcher.group(1));
+				}
+			});
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException ex) {
+			log.debug("Java version cannot be probed by '" + java + "'", ex);
+		}
+		return version.get();
+	}
+
 	private static boolean isWindows() {
 		String name = System.getProperty("os.name");
 		if (name == null) {
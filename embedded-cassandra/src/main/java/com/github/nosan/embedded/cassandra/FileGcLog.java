@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link GcLog} that parses a GC log file written either by the unified logging ({@code -Xlog:gc}, Java 9+) or by
+ * the legacy {@code -Xloggc} (Java 8) option.
+ *
+ * @author Dmytro Nosan
+ */
+class FileGcLog implements GcLog {
+
+	/**
+	 * {@code [0.512s][info][gc] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 24M->3M(256M) 5.123ms}.
+	 */
+	private static final Pattern UNIFIED = Pattern.compile("^\\[([\\d.,]+)s].*?GC\\(\\d+\\) (Pause .*?) "
+			+ "(?:(\\d+)([KMG])->)?(\\d+)([KMG])\\(\\d+[KMG]\\) ([\\d.,]+)ms");
+
+	/**
+	 * {@code 12.345: [GC (Allocation Failure)  83968K->9153K(1015808K), 0.0123456 secs]}.
+	 */
+	private static final Pattern LEGACY = Pattern.compile("^([\\d.,]+): \\[(Full GC|GC) \\((.*?)\\)\\s+"
+			+ "(?:(\\d+)K->)?(\\d+)K\\(\\d+K\\), ([\\d.,]+) secs]");
+
+	private final Path file;
+
+	/**
+	 * Constructs a new {@link FileGcLog}.
+	 *
+	 * @param file the GC log file
+	 */
+	FileGcLog(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Returns JVM options that enable GC logging into the specified file.
+	 *
+	 * @param file the GC log file
+	 * @param javaVersion the major version of the Java that runs Cassandra
+	 * @return the JVM options
+	 */
+	static List<String> getJvmOptions(Path file, int javaVersion) {
+		if (javaVersion >= 9) {
+			return Collections.singletonList(String.format("-Xlog:gc:file=%s:uptime,level,tags", file));
+		}
+		// overrides the verbose GC logging of jvm.options with a simple format
+		return Arrays.asList("-Xloggc:" + file, "-XX:+PrintGCTimeStamps", "-XX:-PrintGCDateStamps",
+				"-XX:-PrintGCDetails", "-XX:-PrintHeapAtGC", "-XX:-PrintTenuringDistribution",
+				"-XX:-PrintGCApplicationStoppedTime", "-XX:-PrintPromotionFailure", "-XX:-UseGCLogFileRotation");
+	}
+
+	@Override
+	public Path getFile() {
+		return this.file;
+	}
+
+	@Override
+	public GcSummary getSummary() throws IOException {
+		if (!Files.exists(this.file)) {
+			return parse(Collections.emptyList());
+		}
+		try (BufferedReader reader = Files.newBufferedReader(this.file, StandardCharsets.UTF_8)) {
+			List<String> lines = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+			return parse(lines);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", FileGcLog.class.getSimpleName() + "[", "]")
+				.add("file=" + this.file).toString();
+	}
+
+	/**
+	 * Parses GC log lines.
+	 *
+	 * @param lines the lines
+	 * @return the summary
+	 */
+	static GcSummary parse(List<String> lines) {
+		List<Long> pauses = new ArrayList<>();
+		int fullPauses = 0;
+		long uptime = 0;
+		long allocated = 0;
+		long lastAfter = 0;
+		for (String line : lines) {
+			Matcher unified = UNIFIED.matcher(line);
+			Matcher legacy = LEGACY.matcher(line);
+			long before;
+			long after;
+			if (unified.find()) {
+				uptime = toNanos(unified.group(1), 1_000_000_000);
+				pauses.add(toNanos(unified.group(7), 1_000_000));
+				if (unified.group(2).toLowerCase(Locale.ENGLISH).contains("full")) {
+					fullPauses++;
+				}
+				before = (unified.group(3) != null) ? toBytes(unified.group(3), unified.group(4)) : -1;
+				after = toBytes(unified.group(5), unified.group(6));
+			}
+			else if (legacy.find()) {
+				uptime = toNanos(legacy.group(1), 1_000_000_000);
+				pauses.add(toNanos(legacy.group(6), 1_000_000_000));
+				if (legacy.group(2).startsWith("Full")) {
+					fullPauses++;
+				}
+				before = (legacy.group(4) != null) ? toBytes(legacy.group(4), "K") : -1;
+				after = toBytes(legacy.group(5), "K");
+			}
+			else {
+				continue;
+			}
+			if (before >= 0) {
+				allocated += Math.max(0, before - lastAfter);
+				lastAfter = after;
+			}
+		}
+		Collections.sort(pauses);
+		long total = 0;
+		for (long pause : pauses) {
+			total += pause;
+		}
+		return new GcSummary(pauses.size(), fullPauses, Duration.ofNanos(total),
+				Duration.ofNanos(percentile(pauses, 100)), Duration.ofNanos(percentile(pauses, 50)),
+				Duration.ofNanos(percentile(pauses, 95)), Duration.ofNanos(percentile(pauses, 99)),
+				Duration.ofNanos(uptime), allocated);
+	}
+
+	private static long percentile(List<Long> sorted, int percentile) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+		return sorted.get(Math.max(0, rank - 1));
+	}
+
+	private static long toNanos(String value, long multiplier) {
+		return (long) (Double.parseDouble(value.replace(',', '.')) * multiplier);
+	}
+
+	private static long toBytes(String value, String unit) {
+		long bytes = Long.parseLong(value);
+		switch (unit) {
+			case "G":
+				return bytes * 1024 * 1024 * 1024;
+			case "M":
+				return bytes * 1024 * 1024;
+			default:
+				return bytes * 1024;
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+
+/**
+ * {@code jcmd JFR.*}-like control of Java Flight Recordings of a running {@code EmbeddedCassandra}. Commands are
+ * invoked via the {@code DiagnosticCommand} MBean over {@code JMX}, thus {@code Cassandra} must run on a Java with
+ * Flight Recorder support (Java 11+ or OpenJDK 8u262+).
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   public static void main(String[] args) {
+ *     Cassandra cassandra = new EmbeddedCassandraFactory().create();
+ *     cassandra.start();
+ *     try {
+ *       FlightRecorder recorder = FlightRecorder.of(cassandra);
+ *       recorder.start("slow-test", "profile");
+ *       // slow test
+ *       recorder.stop("slow-test", Paths.get("slow-test.jfr"));
+ *     }
+ *     finally {
+ *       cassandra.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ *
+ * @author Dmytro Nosan
+ * @see EmbeddedCassandraFactory#setFlightRecording(Path)
+ * @since 3.0.4
+ */
+public interface FlightRecorder {
+
+	/**
+	 * Returns {@link FlightRecorder} for the specified {@code EmbeddedCassandra}.
+	 *
+	 * @param cassandra the cassandra (must be created by {@link EmbeddedCassandraFactory} and be started)
+	 * @return the flight recorder
+	 * @throws IllegalArgumentException if the specified {@link Cassandra} is not an {@code EmbeddedCassandra}
+	 * @throws IllegalStateException if the specified {@link Cassandra} is not running
+	 */
+	static FlightRecorder of(Cassandra cassandra) throws IllegalArgumentException, IllegalStateException {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)) {
+			throw new IllegalArgumentException(String.format("'%s' is not an EmbeddedCassandra", cassandra));
+		}
+		return ((EmbeddedCassandra) cassandra).getFlightRecorder();
+	}
+
+	/**
+	 * Starts a new recording ({@code jcmd JFR.start}).
+	 *
+	 * @param name the name of the recording
+	 * @param settings the settings, e.g. {@code default} or {@code profile} (or null to use {@code default})
+	 * @throws CassandraException if the recording cannot be started
+	 */
+	void start(String name, @Nullable String settings) throws CassandraException;
+
+	/**
+	 * Writes data of the recording into the specified file without stopping it ({@code jcmd JFR.dump}).
+	 *
+	 * @param name the name of the recording
+	 * @param file the target file
+	 * @throws CassandraException if the recording cannot be dumped
+	 */
+	void dump(String name, Path file) throws CassandraException;
+
+	/**
+	 * Stops the recording ({@code jcmd JFR.stop}).
+	 *
+	 * @param name the name of the recording
+	 * @param file the target file (or null to discard the recording)
+	 * @throws CassandraException if the recording cannot be stopped
+	 */
+	void stop(String name, @Nullable Path file) throws CassandraException;
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+
+/**
+ * GC log of {@code Cassandra's} process. GC logging is enabled via {@link EmbeddedCassandraFactory#setGcLogging}. The
+ * summary is also logged when {@code Cassandra} is stopped.
+ *
+ * @author Dmytro Nosan
+ * @see GcSummary
+ * @since 3.0.4
+ */
+public interface GcLog {
+
+	/**
+	 * Returns {@link GcLog} for the specified {@code EmbeddedCassandra}.
+	 *
+	 * @param cassandra the cassandra (must be created by {@link EmbeddedCassandraFactory} and be started)
+	 * @return the GC log
+	 * @throws IllegalArgumentException if the specified {@link Cassandra} is not an {@code EmbeddedCassandra}
+	 * @throws IllegalStateException if the specified {@link Cassandra} is not running or GC logging is not enabled
+	 */
+	static GcLog of(Cassandra cassandra) throws IllegalArgumentException, IllegalStateException {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)) {
+			throw new IllegalArgumentException(String.format("'%s' is not an EmbeddedCassandra", cassandra));
+		}
+		return ((EmbeddedCassandra) cassandra).getGcLog();
+	}
+
+	/**
+	 * Returns the GC log file. Note! The file is located in the working directory and is deleted on stop.
+	 *
+	 * @return the GC log file
+	 */
+	Path getFile();
+
+	/**
+	 * Parses the GC log file and returns a summary of the pauses logged so far.
+	 *
+	 * @return the summary
+	 * @throws IOException if the GC log file cannot be read
+	 */
+	GcSummary getSummary() throws IOException;
+
+}
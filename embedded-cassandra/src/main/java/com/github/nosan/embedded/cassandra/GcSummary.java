@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+
+/**
+ * Summary of the garbage collection pauses of {@code Cassandra's} process.
+ *
+ * @author Dmytro Nosan
+ * @see GcLog
+ * @since 3.0.4
+ */
+public final class GcSummary {
+
+	private static final long MB = 1024 * 1024;
+
+	private final int pauses;
+
+	private final int fullPauses;
+
+	private final Duration totalPause;
+
+	private final Duration maxPause;
+
+	private final Duration p50Pause;
+
+	private final Duration p95Pause;
+
+	private final Duration p99Pause;
+
+	private final Duration uptime;
+
+	private final long allocatedBytes;
+
+	GcSummary(int pauses, int fullPauses, Duration totalPause, Duration maxPause, Duration p50Pause,
+			Duration p95Pause, Duration p99Pause, Duration uptime, long allocatedBytes) {
+		this.pauses = pauses;
+		this.fullPauses = fullPauses;
+		this.totalPause = totalPause;
+		this.maxPause = maxPause;
+		this.p50Pause = p50Pause;
+		this.p95Pause = p95Pause;
+		this.p99Pause = p99Pause;
+		this.uptime = uptime;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * Returns the number of pauses.
+	 *
+	 * @return the pauses
+	 */
+	public int getPauses() {
+		return this.pauses;
+	}
+
+	/**
+	 * Returns the number of full GC pauses.
+	 *
+	 * @return the full pauses
+	 */
+	public int getFullPauses() {
+		return this.fullPauses;
+	}
+
+	/**
+	 * Returns the sum of all pauses.
+	 *
+	 * @return the total pause time
+	 */
+	public Duration getTotalPause() {
+		return this.totalPause;
+	}
+
+	/**
+	 * Returns the longest pause.
+	 *
+	 * @return the max pause
+	 */
+	public Duration getMaxPause() {
+		return this.maxPause;
+	}
+
+	/**
+	 * Returns the median pause.
+	 *
+	 * @return the 50th percentile
+	 */
+	public Duration getP50Pause() {
+		return this.p50Pause;
+	}
+
+	/**
+	 * Returns the 95th percentile pause.
+	 *
+	 * @return the 95th percentile
+	 */
+	public Duration getP95Pause() {
+		return this.p95Pause;
+	}
+
+	/**
+	 * Returns the 99th percentile pause.
+	 *
+	 * @return the 99th percentile
+	 */
+	public Duration getP99Pause() {
+		return this.p99Pause;
+	}
+
+	/**
+	 * Returns the JVM uptime of the last logged pause.
+	 *
+	 * @return the uptime
+	 */
+	public Duration getUptime() {
+		return this.uptime;
+	}
+
+	/**
+	 * Returns the number of bytes allocated up to the last logged pause.
+	 *
+	 * @return the allocated bytes
+	 */
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	/**
+	 * Returns the allocation rate in bytes per second.
+	 *
+	 * @return the allocation rate (or 0 if unknown)
+	 */
+	public long getAllocationRate() {
+		long millis = this.uptime.toMillis();
+		return (millis > 0) ? this.allocatedBytes * 1000 / millis : 0;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", GcSummary.class.getSimpleName() + "[", "]")
+				.add("pauses=" + this.pauses)
+				.add("fullPauses=" + this.fullPauses)
+				.add("totalPause=" + this.totalPause)
+				.add("maxPause=" + this.maxPause)
+				.add("p50Pause=" + this.p50Pause)
+				.add("p95Pause=" + this.p95Pause)
+				.add("p99Pause=" + this.p99Pause)
+				.add("allocationRate=" + (getAllocationRate() / MB) + "MB/s")
+				.toString();
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+
+/**
+ * {@link FlightRecorder} that invokes {@code jfrStart}, {@code jfrDump} and {@code jfrStop} operations of the {@code
+ * DiagnosticCommand} MBean using the {@code JMX} connection of {@link JmxNodeOperations}.
+ *
+ * @author Dmytro Nosan
+ */
+class JmxFlightRecorder implements FlightRecorder {
+
+	private static final Logger log = LoggerFactory.getLogger(JmxFlightRecorder.class);
+
+	private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+	private static final String[] SIGNATURE = {String[].class.getName()};
+
+	private final JmxNodeOperations operations;
+
+	/**
+	 * Constructs a new {@link JmxFlightRecorder}.
+	 *
+	 * @param operations the node operations which {@code JMX} connection is used
+	 */
+	JmxFlightRecorder(JmxNodeOperations operations) {
+		this.operations = operations;
+	}
+
+	/**
+	 * Returns a JVM option that starts a recording together with {@code Cassandra}.
+	 *
+	 * @param name the name of the recording
+	 * @param file the file the recording is written to on exit
+	 * @return the JVM option
+	 */
+	static String getJvmOption(String name, Path file) {
+		return String.format("-XX:StartFlightRecording=name=%s,settings=profile,dumponexit=true,filename=%s", name,
+				file);
+	}
+
+	@Override
+	public void start(String name, @Nullable String settings) throws CassandraException {
+		List<String> arguments = new ArrayList<>();
+		arguments.add("name=" + requireName(name));
+		if (settings != null) {
+			arguments.add("settings=" + settings);
+		}
+		execute("jfrStart", arguments);
+	}
+
+	@Override
+	public void dump(String name, Path file) throws CassandraException {
+		Objects.requireNonNull(file, "'file' must not be null");
+		execute("jfrDump", Arrays.asList("name=" + requireName(name), "filename=" + file.toAbsolutePath()));
+	}
+
+	@Override
+	public void stop(String name, @Nullable Path file) throws CassandraException {
+		List<String> arguments = new ArrayList<>();
+		arguments.add("name=" + requireName(name));
+		if (file != null) {
+			arguments.add("filename=" + file.toAbsolutePath());
+		}
+		execute("jfrStop", arguments);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", JmxFlightRecorder.class.getSimpleName() + "[", "]")
+				.add("operations=" + this.operations).toString();
+	}
+
+	private void execute(String command, List<String> arguments) {
+		Object[] params = {arguments.toArray(new String[0])};
+		try {
+			Object result = this.operations.getConnection()
+					.invoke(new ObjectName(DIAGNOSTIC_COMMAND), command, params, SIGNATURE);
+			if (result != null && !result.toString().trim().isEmpty()) {
+				log.debug("{} {}: {}", command, arguments, result.toString().trim());
+			}
+		}
+		catch (IOException ex) {
+			this.operations.close();
+			throw new CassandraException(String.format("Command '%s' cannot be executed using %s", command, this),
+					ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException(String.format("Command '%s' cannot be executed using %s", command, this),
+					ex);
+		}
+	}
+
+	private static String requireName(String name) {
+		return Objects.requireNonNull(name, "'name' must not be null");
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+import javax.management.Attribute;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+/**
+ * {@link NodeOperations} that invokes {@code StorageServiceMBean} and {@code CompactionManagerMBean} operations over a
+ * cached {@code JMX} connection.
+ *
+ * @author Dmytro Nosan
+ */
+class JmxNodeOperations implements NodeOperations, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(JmxNodeOperations.class);
+
+	private static final String STORAGE_SERVICE = "org.apache.cassandra.db:type=StorageService";
+
+	private static final String COMPACTION_MANAGER = "org.apache.cassandra.db:type=CompactionManager";
+
+	private static final String STRING = String.class.getName();
+
+	private static final String STRING_ARRAY = String[].class.getName();
+
+	private static final Version SPLIT_OUTPUT_VERSION = Version.of("2.2");
+
+	private final Version version;
+
+	private final InetAddress address;
+
+	private final int port;
+
+	@Nullable
+	private JMXConnector connector;
+
+	/**
+	 * Constructs a new {@link JmxNodeOperations}.
+	 *
+	 * @param version Cassandra's version
+	 * @param address the JMX address
+	 * @param port the JMX port
+	 */
+	JmxNodeOperations(Version version, InetAddress address, int port) {
+		this.version = version;
+		this.address = address;
+		this.port = port;
+	}
+
+	@Override
+	public void flush(String keyspace, String... tables) throws CassandraException {
+		invoke(STORAGE_SERVICE, "forceKeyspaceFlush", new Object[]{requireKeyspace(keyspace), requireTables(tables)},
+				new String[]{STRING, STRING_ARRAY});
+	}
+
+	@Override
+	public void compact(String keyspace, String... tables) throws CassandraException {
+		if (this.version.compareTo(SPLIT_OUTPUT_VERSION) >= 0) {
+			invoke(STORAGE_SERVICE, "forceKeyspaceCompaction",
+					new Object[]{false, requireKeyspace(keyspace), requireTables(tables)},
+					new String[]{boolean.class.getName(), STRING, STRING_ARRAY});
+		}
+		else {
+			invoke(STORAGE_SERVICE, "forceKeyspaceCompaction",
+					new Object[]{requireKeyspace(keyspace), requireTables(tables)}, new String[]{STRING, STRING_ARRAY});
+		}
+	}
+
+	@Override
+	public void cleanup(String keyspace, String... tables) throws CassandraException {
+		if (this.version.compareTo(SPLIT_OUTPUT_VERSION) >= 0) {
+			invoke(STORAGE_SERVICE, "forceKeyspaceCleanup",
+					new Object[]{0, requireKeyspace(keyspace), requireTables(tables)},
+					new String[]{int.class.getName(), STRING, STRING_ARRAY});
+		}
+		else {
+			invoke(STORAGE_SERVICE, "forceKeyspaceCleanup",
+					new Object[]{requireKeyspace(keyspace), requireTables(tables)}, new String[]{STRING, STRING_ARRAY});
+		}
+	}
+
+	@Override
+	public void disableAutoCompaction(String keyspace, String... tables) throws CassandraException {
+		invoke(STORAGE_SERVICE, "disableAutoCompaction",
+				new Object[]{requireKeyspace(keyspace), requireTables(tables)}, new String[]{STRING, STRING_ARRAY});
+	}
+
+	@Override
+	public void enableAutoCompaction(String keyspace, String... tables) throws CassandraException {
+		invoke(STORAGE_SERVICE, "enableAutoCompaction",
+				new Object[]{requireKeyspace(keyspace), requireTables(tables)}, new String[]{STRING, STRING_ARRAY});
+	}
+
+	@Override
+	public void setCompactionThroughput(int throughputMbPerSec) throws CassandraException {
+		if (throughputMbPerSec < 0) {
+			throw new IllegalArgumentException("'throughputMbPerSec' must not be negative");
+		}
+		setAttribute(STORAGE_SERVICE, new Attribute("CompactionThroughputMbPerSec", throughputMbPerSec));
+	}
+
+	@Override
+	public int getCompactionThroughput() throws CassandraException {
+		return ((Number) getAttribute(STORAGE_SERVICE, "CompactionThroughputMbPerSec")).intValue();
+	}
+
+	@Override
+	public void stopCompaction(String type) throws CassandraException {
+		Objects.requireNonNull(type, "'type' must not be null");
+		invoke(COMPACTION_MANAGER, "stopCompaction", new Object[]{type}, new String[]{STRING});
+	}
+
+	@Override
+	public void drain() throws CassandraException {
+		invoke(STORAGE_SERVICE, "drain", new Object[0], new String[0]);
+	}
+
+	/**
+	 * Closes the cached {@code JMX} connection, if any.
+	 */
+	@Override
+	public synchronized void close() {
+		JMXConnector connector = this.connector;
+		this.connector = null;
+		if (connector != null) {
+			try {
+				connector.close();
+			}
+			catch (IOException ex) {
+				log.debug("JMX connection to '" + getServiceUrl() + "' cannot be closed", ex);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", JmxNodeOperations.class.getSimpleName() + "[", "]")
+				.add("url='" + getServiceUrl() + "'").toString();
+	}
+
+	/**
+	 * Returns the cached {@link MBeanServerConnection}, opening a new {@code JMX} connection if necessary.
+	 *
+	 * @return the connection
+	 * @throws IOException if the connection cannot be established
+	 */
+	synchronized MBeanServerConnection getConnection() throws IOException {
+		JMXConnector connector = this.connector;
+		if (connector == null) {
+			connector = JMXConnectorFactory.connect(new JMXServiceURL(getServiceUrl()));
+			this.connector = connector;
+		}
+		try {
+			return connector.getMBeanServerConnection();
+		}
+		catch (IOException ex) {
+			close();
+			throw ex;
+		}
+	}
+
+	private Object invoke(String name, String operation, Object[] params, String[] signature) {
+		try {
+			return getConnection().invoke(new ObjectName(name), operation, params, signature);
+		}
+		catch (IOException ex) {
+			close();
+			throw new CassandraException(String.format("Operation '%s' cannot be invoked on '%s' using %s",
+					operation, name, this), ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException(String.format("Operation '%s' cannot be invoked on '%s' using %s",
+					operation, name, this), ex);
+		}
+	}
+
+	private Object getAttribute(String name, String attribute) {
+		try {
+			return getConnection().getAttribute(new ObjectName(name), attribute);
+		}
+		catch (IOException ex) {
+			close();
+			throw new CassandraException(String.format("Attribute '%s' cannot be read from '%s' using %s",
+					attribute, name, this), ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException(String.format("Attribute '%s' cannot be read from '%s' using %s",
+					attribute, name, this), ex);
+		}
+	}
+
+	private void setAttribute(String name, Attribute attribute) {
+		try {
+			getConnection().setAttribute(new ObjectName(name), attribute);
+		}
+		catch (IOException ex) {
+			close();
+			throw new CassandraException(String.format("Attribute '%s' cannot be written to '%s' using %s",
+					attribute.getName(), name, this), ex);
+		}
+		catch (Exception ex) {
+			throw new CassandraException(String.format("Attribute '%s' cannot be written to '%s' using %s",
+					attribute.getName(), name, this), ex);
+		}
+	}
+
+	private String getServiceUrl() {
+		String host = this.address.getHostAddress();
+		if (this.address instanceof Inet6Address) {
+			host = "[" + host + "]";
+		}
+		return String.format("service:jmx:rmi:///jndi/rmi://%s:%d/jmxrmi", host, this.port);
+	}
+
+	private static String requireKeyspace(String keyspace) {
+		return Objects.requireNonNull(keyspace, "'keyspace' must not be null");
+	}
+
+	private static String[] requireTables(String[] tables) {
+		return Objects.requireNonNull(tables, "'tables' must not be null");
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+
+/**
+ * {@code nodetool}-like operations that are invoked directly on a running {@code EmbeddedCassandra} via {@code JMX}.
+ * A {@code JMX} connection is opened lazily on the first call and reused until {@code Cassandra} is stopped.
+ * <p><strong>Example:</strong>
+ * <pre>
+ * class Scratch {
+ *
+ *   public static void main(String[] args) {
+ *     Cassandra cassandra = new EmbeddedCassandraFactory().create();
+ *     cassandra.start();
+ *     try {
+ *       NodeOperations operations = NodeOperations.of(cassandra);
+ *       operations.flush("keyspace");
+ *       operations.compact("keyspace");
+ *     }
+ *     finally {
+ *       cassandra.stop();
+ *     }
+ *   }
+ *
+ * }
+ * </pre>
+ *
+ * @author Dmytro Nosan
+ * @see EmbeddedCassandraFactory#setJmxLocalPort(Integer)
+ * @since 3.0.4
+ */
+public interface NodeOperations {
+
+	/**
+	 * Returns {@link NodeOperations} for the specified {@code EmbeddedCassandra}.
+	 *
+	 * @param cassandra the cassandra (must be created by {@link EmbeddedCassandraFactory} and be started)
+	 * @return the node operations
+	 * @throws IllegalArgumentException if the specified {@link Cassandra} is not an {@code EmbeddedCassandra}
+	 * @throws IllegalStateException if the specified {@link Cassandra} is not running
+	 */
+	static NodeOperations of(Cassandra cassandra) throws IllegalArgumentException, IllegalStateException {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)) {
+			throw new IllegalArgumentException(String.format("'%s' is not an EmbeddedCassandra", cassandra));
+		}
+		return ((EmbeddedCassandra) cassandra).getNodeOperations();
+	}
+
+	/**
+	 * Flushes the tables of the keyspace ({@code nodetool flush}).
+	 *
+	 * @param keyspace the keyspace
+	 * @param tables the tables (all tables if none)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void flush(String keyspace, String... tables) throws CassandraException;
+
+	/**
+	 * Forces a major compaction on the tables of the keyspace ({@code nodetool compact}).
+	 *
+	 * @param keyspace the keyspace
+	 * @param tables the tables (all tables if none)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void compact(String keyspace, String... tables) throws CassandraException;
+
+	/**
+	 * Triggers the immediate cleanup of keys no longer belonging to this node ({@code nodetool cleanup}).
+	 *
+	 * @param keyspace the keyspace
+	 * @param tables the tables (all tables if none)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void cleanup(String keyspace, String... tables) throws CassandraException;
+
+	/**
+	 * Disables autocompaction for the tables of the keyspace ({@code nodetool disableautocompaction}).
+	 *
+	 * @param keyspace the keyspace
+	 * @param tables the tables (all tables if none)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void disableAutoCompaction(String keyspace, String... tables) throws CassandraException;
+
+	/**
+	 * Enables autocompaction for the tables of the keyspace ({@code nodetool enableautocompaction}).
+	 *
+	 * @param keyspace the keyspace
+	 * @param tables the tables (all tables if none)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void enableAutoCompaction(String keyspace, String... tables) throws CassandraException;
+
+	/**
+	 * Sets the compaction throughput ({@code nodetool setcompactionthroughput}).
+	 *
+	 * @param throughputMbPerSec the throughput in MB per second ({@code 0} to disable throttling)
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void setCompactionThroughput(int throughputMbPerSec) throws CassandraException;
+
+	/**
+	 * Returns the compaction throughput ({@code nodetool getcompactionthroughput}).
+	 *
+	 * @return the throughput in MB per second
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	int getCompactionThroughput() throws CassandraException;
+
+	/**
+	 * Stops all compactions of the given type ({@code nodetool stop}), e.g. {@code COMPACTION}, {@code CLEANUP}.
+	 *
+	 * @param type the compaction type
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void stopCompaction(String type) throws CassandraException;
+
+	/**
+	 * Drains the node ({@code nodetool drain}). Flushes memtables and stops listening for connections.
+	 *
+	 * @throws CassandraException if the operation cannot be invoked
+	 */
+	void drain() throws CassandraException;
+
+}
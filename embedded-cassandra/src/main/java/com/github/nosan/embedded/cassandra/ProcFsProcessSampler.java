@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * {@link ProcessSampler} that reads {@code /proc/<pid>/stat}, {@code /proc/<pid>/status} and {@code /proc/<pid>/io}.
+ *
+ * @author Dmytro Nosan
+ */
+class ProcFsProcessSampler implements ProcessSampler, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ProcFsProcessSampler.class);
+
+	/**
+	 * {@code USER_HZ} of most architectures, used if {@code getconf CLK_TCK} cannot be run.
+	 */
+	private static final long DEFAULT_CLOCK_TICKS_PER_SECOND = 100;
+
+	private static volatile long clockTicksPerSecond;
+
+	private final Path directory;
+
+	private final Clock clock;
+
+	private final long ticksPerSecond;
+
+	@Nullable
+	private ScheduledExecutorService executor;
+
+	private int samples;
+
+	@Nullable
+	private ProcessSample first;
+
+	@Nullable
+	private ProcessSample last;
+
+	private long maxRss = -1;
+
+	private long totalRss;
+
+	private int rssSamples;
+
+	private int maxThreads = -1;
+
+	/**
+	 * Constructs a new {@link ProcFsProcessSampler}.
+	 *
+	 * @param directory the process directory, e.g. {@code /proc/<pid>}
+	 * @param clock the clock
+	 */
+	ProcFsProcessSampler(Path directory, Clock clock) {
+		this(directory, clock, getClockTicksPerSecond());
+	}
+
+	/**
+	 * Constructs a new {@link ProcFsProcessSampler}.
+	 *
+	 * @param directory the process directory, e.g. {@code /proc/<pid>}
+	 * @param clock the clock
+	 * @param ticksPerSecond {@code USER_HZ}, the unit of the CPU times in {@code /proc/<pid>/stat}
+	 */
+	ProcFsProcessSampler(Path directory, Clock clock, long ticksPerSecond) {
+		this.directory = directory;
+		this.clock = clock;
+		this.ticksPerSecond = ticksPerSecond;
+	}
+
+	/**
+	 * Whether the {@code /proc/<pid>} directory is available for the specified pid.
+	 *
+	 * @param pid the pid
+	 * @return {@code true} if the process could be sampled
+	 */
+	static boolean isAvailable(long pid) {
+		return pid > 0 && Files.isReadable(getDirectory(pid).resolve("stat"));
+	}
+
+	/**
+	 * Returns {@code USER_HZ}, the unit of the CPU times in {@code /proc/<pid>/stat}. It is {@code 100} on most
+	 * architectures, but not on all of them, so it is read from {@code getconf CLK_TCK} once.
+	 *
+	 * @return the clock ticks per second
+	 */
+	static long getClockTicksPerSecond() {
+		long ticks = clockTicksPerSecond;
+		if (ticks <= 0) {
+			AtomicLong value = new AtomicLong(DEFAULT_CLOCK_TICKS_PER_SECOND);
+			try {
+				new RunProcess("getconf", "CLK_TCK").run(line -> {
+					long parsed = parseLong(line);
+					if (parsed > 0) {
+						value.set(parsed);
+					}
+				});
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			catch (IOException ex) {
+				log.debug("CLK_TCK cannot be read, " + DEFAULT_CLOCK_TICKS_PER_SECOND + " is used", ex);
+			}
+			ticks = value.get();
+			clockTicksPerSecond = ticks;
+		}
+		return ticks;
+	}
+
+	/**
+	 * Returns {@code /proc/<pid>} directory.
+	 *
+	 * @param pid the pid
+	 * @return the directory
+	 */
+	static Path getDirectory(long pid) {
+		return Paths.get("/proc", Long.toString(pid));
+	}
+
+	/**
+	 * Starts sampling at the given interval on a daemon thread.
+	 *
+	 * @param name the thread name
+	 * @param interval the interval
+	 */
+	synchronized void start(String name, Duration interval) {
+		if (this.executor != null) {
+			return;
+		}
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, interval.toMillis());
+		executor.scheduleAtFixedRate(() -> {
+			try {
+				sample();
+			}
+			catch (Exception ex) {
+				log.debug("Process '" + this.directory + "' cannot be sampled", ex);
+			}
+		}, 0, period, TimeUnit.MILLISECONDS);
+		this.executor = executor;
+	}
+
+	@Override
+	public ProcessSample sample() {
+		ProcessSample sample = read(this.directory, this.clock.instant(), this.ticksPerSecond);
+		record(sample);
+		return sample;
+	}
+
+	@Override
+	public synchronized ProcessSummary getSummary() {
+		ProcessSample first = this.first;
+		ProcessSample last = this.last;
+		Duration duration = (first != null && last != null) ? Duration.between(first.getTimestamp(),
+				last.getTimestamp()) : Duration.ZERO;
+		long averageRss = (this.rssSamples > 0) ? this.totalRss / this.rssSamples : -1;
+		return new ProcessSummary(this.samples, duration, this.maxRss, averageRss, this.maxThreads, last);
+	}
+
+	/**
+	 * Stops sampling.
+	 */
+	@Override
+	public synchronized void close() {
+		ScheduledExecutorService executor = this.executor;
+		this.executor = null;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private synchronized void record(ProcessSample sample) {
+		this.samples++;
+		if (this.first == null) {
+			this.first = sample;
+		}
+		this.last = sample;
+		if (sample.getRss() >= 0) {
+			this.maxRss = Math.max(this.maxRss, sample.getRss());
+			this.totalRss += sample.getRss();
+			this.rssSamples++;
+		}
+		this.maxThreads = Math.max(this.maxThreads, sample.getThreads());
+	}
+
+	/**
+	 * Reads a sample from the specified {@code /proc/<pid>} directory. Missing or unreadable files result in
+	 * {@code -1} values. The RSS is read from {@code VmRSS} of {@code status}, which is in kilobytes whatever the page
+	 * size is.
+	 *
+	 * @param directory the process directory
+	 * @param timestamp the timestamp
+	 * @param ticksPerSecond {@code USER_HZ}, the unit of the CPU times in {@code stat}
+	 * @return the sample
+	 */
+	static ProcessSample read(Path directory, Instant timestamp, long ticksPerSecond) {
+		Duration cpuTime = Duration.ZERO;
+		String stat = readFirstLine(directory.resolve("stat"));
+		if (stat != null) {
+			// the second field (comm) is in parentheses and could contain spaces
+			String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+			// fields[0] is the third field (state)
+			long ticks = parseLong(fields, 11) + parseLong(fields, 12);
+			cpuTime = Duration.ofMillis(Math.max(0, ticks) * 1000 / ticksPerSecond);
+		}
+		Map<String, String> status = readKeyValues(directory.resolve("status"));
+		Map<String, String> io = readKeyValues(directory.resolve("io"));
+		return new ProcessSample(timestamp, parseKiloBytes(status.get("VmRSS")), cpuTime,
+				(int) parseLong(status.get("Threads")), parseLong(status.get("voluntary_ctxt_switches")),
+				parseLong(status.get("nonvoluntary_ctxt_switches")), parseLong(io.get("read_bytes")),
+				parseLong(io.get("write_bytes")));
+	}
+
+	@Nullable
+	private static String readFirstLine(Path file) {
+		try {
+			List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+			return lines.isEmpty() ? null : lines.get(0);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	private static Map<String, String> readKeyValues(Path file) {
+		Map<String, String> values = new LinkedHashMap<>();
+		try {
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				int index = line.indexOf(':');
+				if (index != -1) {
+					values.put(line.substring(0, index).trim(), line.substring(index + 1).trim());
+				}
+			}
+		}
+		catch (IOException ex) {
+			log.trace("File '" + file + "' cannot be read", ex);
+		}
+		return values;
+	}
+
+	private static long parseKiloBytes(@Nullable String value) {
+		if (value == null) {
+			return -1;
+		}
+		long kb = parseLong(value.split("\\s+")[0]);
+		return (kb >= 0) ? kb * 1024 : -1;
+	}
+
+	private static long parseLong(String[] fields, int index) {
+		return (index < fields.length) ? parseLong(fields[index]) : -1;
+	}
+
+	private static long parseLong(@Nullable String value) {
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * A single resource usage sample of {@code Cassandra's} process. Counters are cumulative since the process start and
+ * {@code -1} means that the value is not available.
+ *
+ * @author Dmytro Nosan
+ * @see ProcessSampler
+ * @since 3.0.4
+ */
+public final class ProcessSample {
+
+	private final Instant timestamp;
+
+	private final long rss;
+
+	private final Duration cpuTime;
+
+	private final int threads;
+
+	private final long voluntaryContextSwitches;
+
+	private final long involuntaryContextSwitches;
+
+	private final long readBytes;
+
+	private final long writeBytes;
+
+	ProcessSample(Instant timestamp, long rss, Duration cpuTime, int threads, long voluntaryContextSwitches,
+			long involuntaryContextSwitches, long readBytes, long writeBytes) {
+		this.timestamp = timestamp;
+		this.rss = rss;
+		this.cpuTime = cpuTime;
+		this.threads = threads;
+		this.voluntaryContextSwitches = voluntaryContextSwitches;
+		this.involuntaryContextSwitches = involuntaryContextSwitches;
+		this.readBytes = readBytes;
+		this.writeBytes = writeBytes;
+	}
+
+	/**
+	 * Returns the time when this sample was taken.
+	 *
+	 * @return the timestamp
+	 */
+	public Instant getTimestamp() {
+		return this.timestamp;
+	}
+
+	/**
+	 * Returns the resident set size in bytes.
+	 *
+	 * @return the RSS (or -1 if none)
+	 */
+	public long getRss() {
+		return this.rss;
+	}
+
+	/**
+	 * Returns the CPU time (user and system) consumed by the process.
+	 *
+	 * @return the CPU time
+	 */
+	public Duration getCpuTime() {
+		return this.cpuTime;
+	}
+
+	/**
+	 * Returns the number of threads.
+	 *
+	 * @return the threads (or -1 if none)
+	 */
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/**
+	 * Returns the number of voluntary context switches.
+	 *
+	 * @return the voluntary context switches (or -1 if none)
+	 */
+	public long getVoluntaryContextSwitches() {
+		return this.voluntaryContextSwitches;
+	}
+
+	/**
+	 * Returns the number of involuntary context switches.
+	 *
+	 * @return the involuntary context switches (or -1 if none)
+	 */
+	public long getInvoluntaryContextSwitches() {
+		return this.involuntaryContextSwitches;
+	}
+
+	/**
+	 * Returns the number of bytes the process caused to be fetched from the storage layer.
+	 *
+	 * @return the read bytes (or -1 if none)
+	 */
+	public long getReadBytes() {
+		return this.readBytes;
+	}
+
+	/**
+	 * Returns the number of bytes the process caused to be sent to the storage layer.
+	 *
+	 * @return the written bytes (or -1 if none)
+	 */
+	public long getWriteBytes() {
+		return this.writeBytes;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", ProcessSample.class.getSimpleName() + "[", "]")
+				.add("timestamp=" + this.timestamp)
+				.add("rss=" + this.rss)
+				.add("cpuTime=" + this.cpuTime)
+				.add("threads=" + this.threads)
+				.add("voluntaryContextSwitches=" + this.voluntaryContextSwitches)
+				.add("involuntaryContextSwitches=" + this.involuntaryContextSwitches)
+				.add("readBytes=" + this.readBytes)
+				.add("writeBytes=" + this.writeBytes)
+				.toString();
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.util.Objects;
+
+import com.github.nosan.embedded.cassandra.api.Cassandra;
+
+/**
+ * Periodically samples resource usage (RSS, CPU time, threads, context switches and I/O) of {@code Cassandra's}
+ * process. Sampling is enabled via {@link EmbeddedCassandraFactory#setProcessSamplingInterval}. The summary is also
+ * logged when {@code Cassandra} is stopped.
+ *
+ * @author Dmytro Nosan
+ * @see ProcessSample
+ * @see ProcessSummary
+ * @since 3.0.4
+ */
+public interface ProcessSampler {
+
+	/**
+	 * Returns {@link ProcessSampler} for the specified {@code EmbeddedCassandra}.
+	 *
+	 * @param cassandra the cassandra (must be created by {@link EmbeddedCassandraFactory} and be started)
+	 * @return the process sampler
+	 * @throws IllegalArgumentException if the specified {@link Cassandra} is not an {@code EmbeddedCassandra}
+	 * @throws IllegalStateException if the specified {@link Cassandra} is not running or sampling is not enabled
+	 */
+	static ProcessSampler of(Cassandra cassandra) throws IllegalArgumentException, IllegalStateException {
+		Objects.requireNonNull(cassandra, "'cassandra' must not be null");
+		if (!(cassandra instanceof EmbeddedCassandra)) {
+			throw new IllegalArgumentException(String.format("'%s' is not an EmbeddedCassandra", cassandra));
+		}
+		return ((EmbeddedCassandra) cassandra).getProcessSampler();
+	}
+
+	/**
+	 * Takes a new sample on demand. The sample is included in the {@link #getSummary() summary}.
+	 *
+	 * @return the sample
+	 */
+	ProcessSample sample();
+
+	/**
+	 * Returns a summary of all samples taken so far.
+	 *
+	 * @return the summary
+	 */
+	ProcessSummary getSummary();
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Summary of all {@link ProcessSample samples} taken by {@link ProcessSampler}.
+ *
+ * @author Dmytro Nosan
+ * @see ProcessSampler
+ * @since 3.0.4
+ */
+public final class ProcessSummary {
+
+	private static final long MB = 1024 * 1024;
+
+	private final int samples;
+
+	private final Duration duration;
+
+	private final long maxRss;
+
+	private final long averageRss;
+
+	private final int maxThreads;
+
+	@Nullable
+	private final ProcessSample last;
+
+	ProcessSummary(int samples, Duration duration, long maxRss, long averageRss, int maxThreads,
+			@Nullable ProcessSample last) {
+		this.samples = samples;
+		this.duration = duration;
+		this.maxRss = maxRss;
+		this.averageRss = averageRss;
+		this.maxThreads = maxThreads;
+		this.last = last;
+	}
+
+	/**
+	 * Returns the number of samples.
+	 *
+	 * @return the number of samples
+	 */
+	public int getSamples() {
+		return this.samples;
+	}
+
+	/**
+	 * Returns the time between the first and the last sample.
+	 *
+	 * @return the duration
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Returns the maximum resident set size in bytes.
+	 *
+	 * @return the max RSS (or -1 if none)
+	 */
+	public long getMaxRss() {
+		return this.maxRss;
+	}
+
+	/**
+	 * Returns the average resident set size in bytes.
+	 *
+	 * @return the average RSS (or -1 if none)
+	 */
+	public long getAverageRss() {
+		return this.averageRss;
+	}
+
+	/**
+	 * Returns the maximum number of threads.
+	 *
+	 * @return the max threads (or -1 if none)
+	 */
+	public int getMaxThreads() {
+		return this.maxThreads;
+	}
+
+	/**
+	 * Returns the last sample, which holds the cumulative counters, such as CPU time, context switches and I/O.
+	 *
+	 * @return the last sample (or null if none)
+	 */
+	@Nullable
+	public ProcessSample getLast() {
+		return this.last;
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(", ", ProcessSummary.class.getSimpleName() + "[", "]")
+				.add("samples=" + this.samples)
+				.add("duration=" + this.duration)
+				.add("maxRss=" + (this.maxRss / MB) + "MB")
+				.add("averageRss=" + (this.averageRss / MB) + "MB")
+				.add("maxThreads=" + this.maxThreads);
+		ProcessSample last = this.last;
+		if (last != null) {
+			joiner.add("cpuTime=" + last.getCpuTime())
+					.add("voluntaryContextSwitches=" + last.getVoluntaryContextSwitches())
+					.add("involuntaryContextSwitches=" + last.getInvoluntaryContextSwitches())
+					.add("readBytes=" + last.getReadBytes())
+					.add("writeBytes=" + last.getWriteBytes());
+		}
+		return joiner.toString();
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Minimal {@code logback} configuration for {@code Cassandra} that replaces the distribution's {@code logback.xml}.
+ * Only a console appender is configured (no {@code system.log} or {@code debug.log}), the root level is {@code WARN}
+ * and loggers that emit readiness milestones are kept at {@code INFO}.
+ *
+ * @author Dmytro Nosan
+ */
+class QuietLogging {
+
+	/**
+	 * The configuration file, relative to the working directory.
+	 */
+	static final String FILE = "conf/logback-quiet.xml";
+
+	/**
+	 * Loggers that emit messages which are used by {@link ReadinessConsumer readiness consumers}.
+	 */
+	static final List<String> READINESS_LOGGERS = Collections.unmodifiableList(
+			Arrays.asList("org.apache.cassandra.transport", "org.apache.cassandra.thrift",
+					"org.apache.cassandra.service.CassandraDaemon", "org.apache.cassandra.service.StorageService"));
+
+	private final boolean debug;
+
+	/**
+	 * Constructs a new {@link QuietLogging}.
+	 *
+	 * @param debug whether the root level should be {@code DEBUG} instead of {@code WARN}
+	 */
+	QuietLogging(boolean debug) {
+		this.debug = debug;
+	}
+
+	/**
+	 * Returns the {@code logback} configuration.
+	 *
+	 * @return the configuration
+	 */
+	String getConfiguration() {
+		StringBuilder configuration = new StringBuilder();
+		configuration.append(String.format("<configuration scan=\"false\">%n"));
+		configuration.append(String.format("  <appender name=\"STDOUT\" class=\"%s\">%n",
+				"ch.qos.logback.core.ConsoleAppender"));
+		configuration.append(String.format("    <encoder>%n"));
+		configuration.append(String.format("      <pattern>%%-5level [%%thread] %%date{ISO8601} %%logger{0} - %%msg%%n"
+				+ "</pattern>%n"));
+		configuration.append(String.format("    </encoder>%n"));
+		configuration.append(String.format("  </appender>%n"));
+		if (!this.debug) {
+			for (String logger : READINESS_LOGGERS) {
+				configuration.append(String.format("  <logger name=\"%s\" level=\"INFO\"/>%n", logger));
+			}
+		}
+		configuration.append(String.format("  <root level=\"%s\">%n", this.debug ? "DEBUG" : "WARN"));
+		configuration.append(String.format("    <appender-ref ref=\"STDOUT\"/>%n"));
+		configuration.append(String.format("  </root>%n"));
+		configuration.append(String.format("</configuration>%n"));
+		return configuration.toString();
+	}
+
+	/**
+	 * Writes the configuration into the {@link #FILE} of the specified working directory.
+	 *
+	 * @param workingDirectory the working directory
+	 * @return the written file
+	 * @throws IOException if the configuration cannot be written
+	 */
+	Path write(Path workingDirectory) throws IOException {
+		Path file = workingDirectory.resolve(FILE);
+		Files.createDirectories(file.getParent());
+		Files.write(file, getConfiguration().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", QuietLogging.class.getSimpleName() + "[", "]").add("debug=" + this.debug)
+				.toString();
+	}
+
+}
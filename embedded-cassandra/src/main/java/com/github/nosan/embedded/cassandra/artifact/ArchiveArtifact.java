@@ -20,23 +20,26 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
+import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
-import com.github.nosan.embedded.cassandra.commons.FileLock;
 import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
-import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
 
 /**
  * An {@link Artifact} that provides a {@link Distribution} based on the specified archive resource and Cassandra's
- * version. Archive will be extracted only once into the {@code destination}.
+ * version. Archive will be extracted only once into the {@code destination}. Extracted archives are keyed by the hash
+ * of their content, so different archives of the same version do not collide.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -52,6 +55,21 @@ public final class ArchiveArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	private long maxCacheSize = ArtifactCache.UNLIMITED;
+
+	@Nullable
+	private String checksum;
+
+	@Nullable
+	private ArtifactListener listener;
+
+	private ArchiveEntryFilter entryFilter = ArchiveEntryFilter.runtimeOnly();
+
+	private boolean uncompressedLibraries;
+
+	@Nullable
+	private volatile String identity;
+
 	/**
 	 * Constructs a new {@link ArchiveArtifact} with the specified archive resource and Cassandra's version.
 	 *
@@ -114,38 +132,178 @@ public final class ArchiveArtifact implements Artifact {
 		this.destination = destination;
 	}
 
+	/**
+	 * The maximum size in bytes of all artifacts extracted into the {@code destination}. The least recently used
+	 * artifacts are deleted once the size is exceeded. Defaults to unlimited.
+	 *
+	 * @return the maximum cache size
+	 * @since 3.0.4
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximum size in bytes of all artifacts extracted into the {@code destination}.
+	 *
+	 * @param maxCacheSize the maximum cache size (must be positive)
+	 * @since 3.0.4
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		if (maxCacheSize <= 0) {
+			throw new IllegalArgumentException("'maxCacheSize' must be positive");
+		}
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * The expected {@code SHA-1}, {@code SHA-256} or {@code SHA-512} hash of the archive file. The archive is verified
+	 * while it is being extracted.
+	 *
+	 * @return the hex-encoded hash
+	 * @since 3.0.4
+	 */
+	@Nullable
+	public String getChecksum() {
+		return this.checksum;
+	}
+
+	/**
+	 * Sets the expected {@code SHA-1}, {@code SHA-256} or {@code SHA-512} hash of the archive file. The algorithm is
+	 * determined by the length of the hash.
+	 *
+	 * @param checksum the hex-encoded hash
+	 * @since 3.0.4
+	 */
+	public void setChecksum(@Nullable String checksum) {
+		this.checksum = (checksum != null) ? Checksum.of(checksum).getHash() : null;
+	}
+
+	/**
+	 * The listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @return the listener
+	 * @since 3.0.4
+	 */
+	@Nullable
+	public ArtifactListener getListener() {
+		return this.listener;
+	}
+
+	/**
+	 * Sets the listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @param listener the listener
+	 * @since 3.0.4
+	 */
+	public void setListener(@Nullable ArtifactListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * The filter that decides which entries of the archive are extracted. Defaults to
+	 * {@link ArchiveEntryFilter#runtimeOnly()}.
+	 *
+	 * @return the entry filter
+	 * @since 3.0.4
+	 */
+	public ArchiveEntryFilter getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter that decides which entries of the archive are extracted. Use {@link ArchiveEntryFilter#all()}
+	 * to extract the whole archive.
+	 *
+	 * @param entryFilter the entry filter
+	 * @since 3.0.4
+	 */
+	public void setEntryFilter(ArchiveEntryFilter entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted, so
+	 * that classes are read without being inflated on every start. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if jar files are stored uncompressed
+	 * @since 3.0.4
+	 */
+	public boolean isUncompressedLibraries() {
+		return this.uncompressedLibraries;
+	}
+
+	/**
+	 * Sets whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted.
+	 * An artifact extracted with another setting is extracted again.
+	 *
+	 * @param uncompressedLibraries {@code true} if jar files should be stored uncompressed
+	 * @since 3.0.4
+	 */
+	public void setUncompressedLibraries(boolean uncompressedLibraries) {
+		this.uncompressedLibraries = uncompressedLibraries;
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
-		Path destination = getRealDestination();
-
-		Artifact artifact = new DefaultArtifact(this.version, destination);
-
-		if (!Files.exists(destination.resolve(".extracted"))) {
-			Files.createDirectories(destination);
-			Path lockFile = destination.resolve(".lock");
-			try (FileLock fileLock = FileLock.of(lockFile)) {
-				if (!fileLock.tryLock(30, TimeUnit.SECONDS)) {
-					throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
-				}
-				if (!Files.exists(destination.resolve(".extracted"))) {
-					log.info("Extracts '{}' into '{}' directory", this.archiveResource, destination);
-					ArchiveResource archiveResource = createArchiveResource();
-					archiveResource.extract(destination);
-					Distribution distribution = artifact.getDistribution();
-					FileUtils.createIfNotExists(destination.resolve(".extracted"));
-					return distribution;
-				}
-			}
+		ArtifactStore store = new ArtifactStore(getRealDestination(), this.version, this.maxCacheSize,
+				this.entryFilter, this.uncompressedLibraries, this.listener, Duration.ofSeconds(30));
+		return store.getDistribution(getIdentity(), this::extract);
+	}
+
+	private byte[] extract(Path directory, ArtifactListener listener) throws IOException {
+		log.info("Extracts '{}' into '{}' directory", this.archiveResource, directory);
+		long startTime = System.nanoTime();
+		int threads = Runtime.getRuntime().availableProcessors();
+		ArchiveEntryFilter entryFilter = this.entryFilter;
+		Predicate<ArchiveEntry> filter = entry -> entryFilter.accept(entry.getName());
+		ArchiveResource archiveResource = (this.archiveResource instanceof ArchiveResource)
+				? (ArchiveResource) this.archiveResource : new ArchiveResource(this.archiveResource);
+		Checksum checksum = (this.checksum != null) ? Checksum.of(this.checksum) : null;
+		DigestResource hashResource = new DigestResource(archiveResource.getResource(),
+				DigestUtils.getDigest("SHA-256"));
+		DigestResource checksumResource = (checksum != null) ? new DigestResource(hashResource,
+				checksum.createMessageDigest()) : null;
+		Resource digestResource = (checksumResource != null) ? checksumResource : hashResource;
+		// the archive is digested while it is extracted, a custom archive resource still decides the format
+		archiveResource.extract(digestResource, directory, threads, filter);
+		if (checksum != null) {
+			checksum.verify(checksumResource.digest(), this.archiveResource);
 		}
+		ArtifactListeners.extracted(listener, directory, Duration.ofNanos(System.nanoTime() - startTime));
+		return hashResource.digest();
+	}
 
-		return artifact.getDistribution();
+	/**
+	 * Identifies a file by its path, length and last modification time, so that it is not read again. Other resources
+	 * are identified by the hash of their content.
+	 */
+	private String getIdentity() throws IOException {
+		Path file = getFile(this.archiveResource);
+		if (file != null) {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return String.format("%s|%d|%d", file.toAbsolutePath(), attributes.size(),
+					attributes.lastModifiedTime().toMillis());
+		}
+		String identity = this.identity;
+		if (identity == null) {
+			DigestResource hashResource = new DigestResource(this.archiveResource, DigestUtils.getDigest("SHA-256"));
+			hashResource.getInputStream().close();
+			identity = "sha256:" + DigestUtils.toHex(hashResource.digest());
+			this.identity = identity;
+		}
+		return identity;
 	}
 
-	private ArchiveResource createArchiveResource() {
-		if (this.archiveResource instanceof ArchiveResource) {
-			return ((ArchiveResource) this.archiveResource);
+	@Nullable
+	private static Path getFile(Resource resource) {
+		try {
+			Path file = resource.toPath();
+			return Files.isRegularFile(file) ? file : null;
+		}
+		catch (Exception ex) {
+			return null;
 		}
-		return new ArchiveResource(this.archiveResource);
 	}
 
 	private Path getRealDestination() {
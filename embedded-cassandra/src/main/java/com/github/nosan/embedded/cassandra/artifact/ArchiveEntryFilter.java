@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+/**
+ * Filter that decides which entries of an archive are extracted. Skipped entries are never written to disk. The
+ * {@link #getId() identifier} of the filter is a part of the cache key, an archive that has been extracted with
+ * another filter is extracted again.
+ *
+ * @author Dmytro Nosan
+ * @see RemoteArtifact#setEntryFilter(ArchiveEntryFilter)
+ * @see ArchiveArtifact#setEntryFilter(ArchiveEntryFilter)
+ * @since 3.0.4
+ */
+@FunctionalInterface
+public interface ArchiveEntryFilter {
+
+	/**
+	 * Tests whether the entry should be extracted.
+	 *
+	 * @param name the name of the archive entry, e.g. {@code apache-cassandra-3.11.6/lib/guava-18.0.jar}
+	 * @return {@code true} if the entry should be extracted
+	 */
+	boolean accept(String name);
+
+	/**
+	 * Returns the identifier of this filter. Filters that accept the same entries must have the same identifier,
+	 * otherwise an archive extracted with one of them is extracted again with another. The default implementation
+	 * returns the class name, which is not stable across JVM runs for lambdas.
+	 *
+	 * @return the identifier
+	 */
+	default String getId() {
+		return getClass().getName();
+	}
+
+	/**
+	 * Returns a filter that accepts every entry.
+	 *
+	 * @return the filter
+	 */
+	static ArchiveEntryFilter all() {
+		return new ArchiveEntryFilter() {
+
+			@Override
+			public boolean accept(String name) {
+				return true;
+			}
+
+			@Override
+			public String getId() {
+				return "all";
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a filter that accepts only what is needed to run Apache Cassandra on the current platform. It skips
+	 * {@code javadoc}, {@code doc}, {@code pylib} and {@code tools} directories, {@code lib/sigar-bin} native
+	 * libraries of other operating systems and, unless on Windows, {@code *.ps1} and {@code *.bat} scripts.
+	 *
+	 * @return the filter
+	 */
+	static ArchiveEntryFilter runtimeOnly() {
+		return RuntimeEntryFilter.INSTANCE;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+/**
+ * Format of an archive that is repacked from an extracted artifact.
+ *
+ * @author Dmytro Nosan
+ * @see RemoteArtifact#setArchiveFormat(ArchiveFormat)
+ * @since 3.0.4
+ */
+public enum ArchiveFormat {
+
+	/**
+	 * Uncompressed {@code tar}. The largest file, but nothing has to be inflated.
+	 */
+	TAR(".tar"),
+
+	/**
+	 * {@code tar} compressed with the LZ4 frame format. Smaller than {@link #TAR} and much cheaper to decompress than
+	 * {@code gzip}.
+	 */
+	TAR_LZ4(".tar.lz4");
+
+	private final String extension;
+
+	ArchiveFormat(String extension) {
+		this.extension = extension;
+	}
+
+	/**
+	 * Returns the file name extension of this format.
+	 *
+	 * @return the extension, e.g. {@code .tar}
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+
+/**
+ * Packs an extracted artifact into an archive of the given {@link ArchiveFormat}.
+ *
+ * @author Dmytro Nosan
+ */
+final class ArchivePacker {
+
+	private ArchivePacker() {
+	}
+
+	/**
+	 * Packs the specified directory into the archive. Files and directories whose top-level names start with a dot
+	 * ({@code .lock}, {@code .extracted}) are not packed. The archive is written to a temporary file first and then
+	 * moved atomically.
+	 *
+	 * @param directory the directory of an extracted artifact
+	 * @param archive the archive file
+	 * @param format the archive format
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void pack(Path directory, Path archive, ArchiveFormat format) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			files = stream.filter(path -> !path.equals(directory)).filter(path -> !isHidden(directory, path))
+					.sorted().collect(Collectors.toList());
+		}
+		Files.createDirectories(archive.getParent());
+		Path tempFile = archive.resolveSibling(archive.getFileName() + ".tmp-" + System.nanoTime());
+		try {
+			try (TarArchiveOutputStream os = new TarArchiveOutputStream(createOutputStream(tempFile, format))) {
+				os.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+				os.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+				for (Path file : files) {
+					os.putArchiveEntry(new TarArchiveEntry(file.toFile(), getName(directory, file)));
+					if (Files.isRegularFile(file)) {
+						Files.copy(file, os);
+					}
+					os.closeArchiveEntry();
+				}
+			}
+			Files.move(tempFile, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private static OutputStream createOutputStream(Path file, ArchiveFormat format) throws IOException {
+		OutputStream os = new BufferedOutputStream(Files.newOutputStream(file), 65536);
+		if (format == ArchiveFormat.TAR_LZ4) {
+			return new FramedLZ4CompressorOutputStream(os);
+		}
+		return os;
+	}
+
+	private static String getName(Path directory, Path file) {
+		String name = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+		return Files.isDirectory(file) ? name + "/" : name;
+	}
+
+	private static boolean isHidden(Path directory, Path path) {
+		return directory.relativize(path).getName(0).toString().startsWith(".");
+	}
+
+}
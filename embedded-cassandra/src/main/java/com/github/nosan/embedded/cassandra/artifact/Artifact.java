@@ -18,6 +18,10 @@ package com.github.nosan.embedded.cassandra.artifact;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
 
 import com.github.nosan.embedded.cassandra.api.Version;
 
@@ -28,6 +32,7 @@ import com.github.nosan.embedded.cassandra.api.Version;
  * @see DefaultArtifact
  * @see ArchiveArtifact
  * @see RemoteArtifact
+ * @see ClassPathArtifact
  * @since 3.0.0
  */
 @FunctionalInterface
@@ -53,6 +58,32 @@ public interface Artifact {
 		return new RemoteArtifact(version);
 	}
 
+	/**
+	 * Starts {@link #getDistribution()} of the given artifacts in the background, e.g. when a test plan starts, so that
+	 * the first Cassandra instance waits only for the remaining part of the download and extraction.
+	 *
+	 * @param artifacts the artifacts
+	 * @return the futures of the distributions in the order of the artifacts
+	 * @see #prefetch(Collection)
+	 * @since 3.0.4
+	 */
+	static List<Future<Distribution>> prefetch(Artifact... artifacts) {
+		return prefetch(Arrays.asList(artifacts));
+	}
+
+	/**
+	 * Starts {@link #getDistribution()} of the given artifacts in the background, each on its own daemon thread. A
+	 * concurrent {@link #getDistribution()} of the same artifact, e.g. {@code Artifact.ofVersion("3.11.6")}, waits for
+	 * the prefetch instead of downloading it again. A failure is reported through the returned future.
+	 *
+	 * @param artifacts the artifacts
+	 * @return the futures of the distributions in the order of the artifacts
+	 * @since 3.0.4
+	 */
+	static List<Future<Distribution>> prefetch(Collection<? extends Artifact> artifacts) {
+		return ArtifactPrefetcher.prefetch(artifacts);
+	}
+
 	/**
 	 * Returns the {@link Distribution}.
 	 *
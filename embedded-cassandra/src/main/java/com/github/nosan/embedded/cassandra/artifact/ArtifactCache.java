@@ -0,0 +1,364 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Size-bounded cache of extracted artifacts ({@code remote/<version>/<hash>}, {@code local/<version>/<hash>} and
+ * {@code classpath/<version>/<hash>} directories). Every use of an artifact is recorded, the least recently used
+ * artifacts are evicted once the cache exceeds its maximum size. Artifacts are guarded by the {@code .lock} file of
+ * their version directory, the same lock is held while an artifact of the version is extracted, resolved or evicted,
+ * so artifacts that are being extracted or resolved are never evicted. The lock file itself is never deleted, an
+ * evicted artifact is renamed first and then deleted. Files that are hard-linked by several artifacts and
+ * {@code blobs} are counted once, an eviction frees only the files that are not linked by any other artifact. Blobs
+ * that are no longer linked by any artifact are deleted after an eviction.
+ *
+ * @author Dmytro Nosan
+ */
+final class ArtifactCache {
+
+	/**
+	 * The size of the cache is not limited.
+	 */
+	static final long UNLIMITED = Long.MAX_VALUE;
+
+	private static final Logger log = LoggerFactory.getLogger(ArtifactCache.class);
+
+	private static final String LAST_USED = ".last-used";
+
+	private static final String EXTRACTED = ".extracted";
+
+	private static final Set<Path> CLEANED = ConcurrentHashMap.newKeySet();
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	/**
+	 * Constructs a new {@link ArtifactCache}.
+	 *
+	 * @param directory the cache directory ({@code .embedded-cassandra/artifact})
+	 * @param maxSize the maximum size of the cache in bytes
+	 */
+	ArtifactCache(Path directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Resolves the distribution of the extracted artifact and records its use. A shared lock of the version directory
+	 * is held meanwhile, so the artifact cannot be evicted or replaced by another process, while other readers are not
+	 * blocked. If an artifact of the version is being extracted or evicted, the method waits until the lock is
+	 * released.
+	 *
+	 * @param artifact the directory of the extracted artifact
+	 * @param version the version of the artifact
+	 * @param lockTimeout the maximum time to wait for the lock of the version directory
+	 * @return the distribution, or {@code null} if the artifact has been evicted or is damaged
+	 * @throws IOException if an I/O error occurs
+	 * @throws IllegalStateException if the lock cannot be acquired within the timeout
+	 */
+	@Nullable
+	Artifact.Distribution resolve(Path artifact, Version version, Duration lockTimeout) throws IOException {
+		FileLock fileLock;
+		try {
+			fileLock = FileLock.of(getLockFile(artifact));
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		Artifact.Distribution distribution;
+		try {
+			if (!fileLock.tryLockShared(lockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new IllegalStateException(
+						"File lock cannot be acquired for a file '" + getLockFile(artifact) + "'");
+			}
+			if (!Files.exists(artifact.resolve(EXTRACTED))) {
+				return null;
+			}
+			if (!ExtractionManifest.validate(artifact)) {
+				log.warn("Artifact '{}' is damaged and will be extracted again", artifact);
+				return null;
+			}
+			distribution = new DefaultArtifact(version, artifact).getDistribution();
+			touch(artifact);
+		}
+		finally {
+			fileLock.close();
+		}
+		if (this.maxSize != UNLIMITED) {
+			// the lock of the version must not be held, otherwise other artifacts of the version cannot be evicted
+			evict(artifact);
+		}
+		return distribution;
+	}
+
+	/**
+	 * Records the use of the artifact and evicts the least recently used artifacts if the cache is too large.
+	 *
+	 * @param artifact the directory of the used artifact
+	 * @throws IOException if an I/O error occurs
+	 */
+	void use(Path artifact) throws IOException {
+		touch(artifact);
+		if (this.maxSize != UNLIMITED) {
+			evict(artifact);
+		}
+	}
+
+	/**
+	 * Deletes artifacts that previous versions of this library extracted directly into their version directory
+	 * ({@code <version>/.extracted} and {@code <version>/apache-cassandra-*}). Such artifacts are not keyed, so they
+	 * are never used again. The cache directory is cleaned once, a version that is locked by another process is
+	 * skipped.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	void deleteLegacyArtifacts() throws IOException {
+		if (!CLEANED.add(this.directory.toAbsolutePath().normalize())) {
+			return;
+		}
+		for (String name : new String[]{"remote", "local", "classpath"}) {
+			for (Path version : listDirectories(this.directory.resolve(name))) {
+				if (Files.exists(version.resolve(EXTRACTED))) {
+					deleteLegacy(version);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the lock file that guards the artifact: the {@code .lock} file of its version directory.
+	 *
+	 * @param artifact the directory of the artifact
+	 * @return the lock file
+	 */
+	static Path getLockFile(Path artifact) {
+		return artifact.getParent().resolve(".lock");
+	}
+
+	private static void touch(Path artifact) throws IOException {
+		Files.setLastModifiedTime(FileUtils.createIfNotExists(artifact.resolve(LAST_USED)),
+				FileTime.fromMillis(System.currentTimeMillis()));
+	}
+
+	private void evict(Path used) throws IOException {
+		Path lockFile = this.directory.resolve(".lock");
+		try (FileLock fileLock = FileLock.of(lockFile)) {
+			if (!fileLock.tryLock(30, TimeUnit.SECONDS)) {
+				log.warn("File lock cannot be acquired for a file '{}', the cache is not evicted", lockFile);
+				return;
+			}
+			List<Entry> entries = getEntries();
+			Map<Object, Long> sizes = new HashMap<>();
+			Map<Object, Integer> links = new HashMap<>();
+			for (Entry entry : entries) {
+				sizes.putAll(entry.files);
+				entry.files.keySet().forEach(key -> links.merge(key, 1, Integer::sum));
+			}
+			long unlinked = 0;
+			for (Map.Entry<Object, Long> blob : getFiles(this.directory.resolve("blobs")).entrySet()) {
+				if (sizes.putIfAbsent(blob.getKey(), blob.getValue()) == null) {
+					unlinked += blob.getValue();
+				}
+			}
+			long size = 0;
+			for (long fileSize : sizes.values()) {
+				size += fileSize;
+			}
+			boolean prune = false;
+			if (size > this.maxSize && unlinked > 0) {
+				// blobs that are no longer linked by any artifact
+				size -= unlinked;
+				prune = true;
+			}
+			entries.sort(Comparator.comparing(entry -> entry.lastUsed));
+			for (Entry entry : entries) {
+				if (size <= this.maxSize) {
+					break;
+				}
+				if (!entry.directory.equals(used) && delete(entry.directory)) {
+					long freed = 0;
+					for (Object key : entry.files.keySet()) {
+						if (links.merge(key, -1, Integer::sum) == 0) {
+							freed += sizes.get(key);
+						}
+					}
+					log.info("Evicted '{}' ({} bytes) from the artifact cache", entry.directory, freed);
+					size -= freed;
+					prune = true;
+				}
+			}
+			if (prune) {
+				new BlobStore(this.directory.resolve("blobs")).prune();
+			}
+		}
+	}
+
+	private List<Entry> getEntries() throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		for (String name : new String[]{"remote", "local", "classpath"}) {
+			for (Path version : listDirectories(this.directory.resolve(name))) {
+				for (Path artifact : listDirectories(version)) {
+					addEntry(entries, artifact);
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static void addEntry(List<Entry> entries, Path artifact) throws IOException {
+		if (!Files.exists(artifact.resolve(EXTRACTED))) {
+			return;
+		}
+		Path lastUsed = artifact.resolve(LAST_USED);
+		FileTime time = Files.exists(lastUsed) ? Files.getLastModifiedTime(lastUsed)
+				: Files.getLastModifiedTime(artifact.resolve(EXTRACTED));
+		entries.add(new Entry(artifact, time, getFiles(artifact)));
+	}
+
+	private static void deleteLegacy(Path version) throws IOException {
+		List<Path> tombstones = new ArrayList<>();
+		try (FileLock fileLock = FileLock.of(version.resolve(".lock"))) {
+			if (!fileLock.tryLock(0, TimeUnit.SECONDS) || !Files.exists(version.resolve(EXTRACTED))) {
+				return;
+			}
+			Files.delete(version.resolve(EXTRACTED));
+			for (Path directory : listDirectories(version)) {
+				if (!isHash(directory.getFileName().toString())) {
+					Path tombstone = version.resolve(".evicted-" + directory.getFileName() + "-" + System.nanoTime());
+					Files.move(directory, tombstone, StandardCopyOption.ATOMIC_MOVE);
+					tombstones.add(tombstone);
+				}
+			}
+		}
+		for (Path tombstone : tombstones) {
+			FileUtils.delete(tombstone);
+		}
+		log.info("Deleted the artifact of a previous layout from '{}'", version);
+	}
+
+	private static boolean isHash(String name) {
+		if (name.length() != 16) {
+			return false;
+		}
+		for (char c : name.toCharArray()) {
+			if (Character.digit(c, 16) == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean delete(Path artifact) throws IOException {
+		Path tombstone = artifact.resolveSibling(".evicted-" + artifact.getFileName() + "-" + System.nanoTime());
+		try (FileLock fileLock = FileLock.of(getLockFile(artifact))) {
+			if (!fileLock.tryLock(0, TimeUnit.SECONDS)) {
+				return false;
+			}
+			if (!Files.exists(artifact.resolve(EXTRACTED))) {
+				// evicted or being replaced by another process
+				return false;
+			}
+			// the artifact is no longer complete once the marker is gone
+			Files.delete(artifact.resolve(EXTRACTED));
+			Files.move(artifact, tombstone, StandardCopyOption.ATOMIC_MOVE);
+		}
+		FileUtils.delete(tombstone);
+		return true;
+	}
+
+	private static List<Path> listDirectories(Path directory) throws IOException {
+		List<Path> files = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			try (Stream<Path> stream = Files.list(directory)) {
+				// .index, .download, temporary and evicted directories are skipped
+				stream.filter(Files::isDirectory).filter(file -> !file.getFileName().toString().startsWith("."))
+						.forEach(files::add);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Returns the sizes of the regular files of the directory keyed by their {@link BasicFileAttributes#fileKey()
+	 * file keys}, so that hard links of the same file are counted once. Files without a key are keyed by their path.
+	 */
+	private static Map<Object, Long> getFiles(Path directory) throws IOException {
+		Map<Object, Long> files = new HashMap<>();
+		if (!Files.isDirectory(directory)) {
+			return files;
+		}
+		try (Stream<Path> stream = Files.walk(directory)) {
+			stream.forEach(file -> {
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+					if (attributes.isRegularFile()) {
+						Object key = attributes.fileKey();
+						files.put((key != null) ? key : file.toAbsolutePath(), attributes.size());
+					}
+				}
+				catch (IOException ex) {
+					// the file has been deleted concurrently
+				}
+			});
+		}
+		return files;
+	}
+
+	private static final class Entry {
+
+		private final Path directory;
+
+		private final FileTime lastUsed;
+
+		private final Map<Object, Long> files;
+
+		Entry(Path directory, FileTime lastUsed, Map<Object, Long> files) {
+			this.directory = directory;
+			this.lastUsed = lastUsed;
+			this.files = files;
+		}
+
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Listener that is notified about how an {@link Artifact} acquires Apache Cassandra: the time spent waiting for the
+ * artifact lock, the progress and throughput of a download, and the throughput of an extraction. All methods do
+ * nothing by default. Download progress can be reported from several threads, but never concurrently.
+ *
+ * @author Dmytro Nosan
+ * @see RemoteArtifact#setListener(ArtifactListener)
+ * @see ArchiveArtifact#setListener(ArtifactListener)
+ * @since 3.0.4
+ */
+public interface ArtifactListener {
+
+	/**
+	 * Invoked when the lock to the artifact directory has been acquired.
+	 *
+	 * @param lockFile the lock file
+	 * @param waitTime the time spent waiting for the lock
+	 */
+	default void onLockAcquired(Path lockFile, Duration waitTime) {
+	}
+
+	/**
+	 * Invoked when the download from the chosen mirror is started.
+	 *
+	 * @param url the URL of the archive
+	 */
+	default void onDownloadStarted(URL url) {
+	}
+
+	/**
+	 * Invoked when a chunk of bytes has been downloaded.
+	 *
+	 * @param url the URL of the archive
+	 * @param readBytes the number of bytes downloaded so far
+	 * @param totalBytes the total number of bytes
+	 * @param bytesPerSecond the average throughput since the download has been started
+	 */
+	default void onDownloadProgress(URL url, long readBytes, long totalBytes, double bytesPerSecond) {
+	}
+
+	/**
+	 * Invoked when the download is finished.
+	 *
+	 * @param url the URL of the archive
+	 * @param totalBytes the total number of bytes
+	 * @param elapsed the time spent downloading
+	 */
+	default void onDownloadFinished(URL url, long totalBytes, Duration elapsed) {
+	}
+
+	/**
+	 * Invoked when the archive cannot be downloaded, extracted or verified. The next mirror is tried, if any.
+	 *
+	 * @param url the URL of the archive
+	 * @param ex the failure
+	 */
+	default void onDownloadFailed(URL url, Exception ex) {
+	}
+
+	/**
+	 * Invoked when the archive has been extracted.
+	 *
+	 * @param directory the directory the archive has been extracted into
+	 * @param entries the number of extracted files and directories
+	 * @param bytes the number of extracted bytes
+	 * @param elapsed the time spent extracting
+	 */
+	default void onExtracted(Path directory, long entries, long bytes, Duration elapsed) {
+	}
+
+}
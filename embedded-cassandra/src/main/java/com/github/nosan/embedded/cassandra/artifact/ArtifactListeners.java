@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Utility methods to notify an {@link ArtifactListener}.
+ *
+ * @author Dmytro Nosan
+ */
+final class ArtifactListeners {
+
+	private static final ArtifactListener NONE = new ArtifactListener() {
+
+	};
+
+	private ArtifactListeners() {
+	}
+
+	/**
+	 * Returns the specified listener or a listener that does nothing.
+	 *
+	 * @param listener the listener
+	 * @return the listener
+	 */
+	static ArtifactListener of(@Nullable ArtifactListener listener) {
+		return (listener != null) ? listener : NONE;
+	}
+
+	/**
+	 * Notifies the listener that the lock has been acquired.
+	 *
+	 * @param listener the listener
+	 * @param lockFile the lock file
+	 * @param startTime the {@link System#nanoTime()} when the lock was requested
+	 */
+	static void lockAcquired(ArtifactListener listener, Path lockFile, long startTime) {
+		listener.onLockAcquired(lockFile, Duration.ofNanos(System.nanoTime() - startTime));
+	}
+
+	/**
+	 * Notifies the listener that an archive has been extracted into the specified directory. Files and directories
+	 * whose top-level names start with a dot ({@code .lock}, {@code .download}) are not counted.
+	 *
+	 * @param listener the listener
+	 * @param directory the directory
+	 * @param elapsed the time spent extracting
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void extracted(ArtifactListener listener, Path directory, Duration elapsed) throws IOException {
+		if (listener == NONE) {
+			return;
+		}
+		long[] entries = new long[1];
+		long[] bytes = new long[1];
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+				if (dir.equals(directory)) {
+					return FileVisitResult.CONTINUE;
+				}
+				if (isHidden(dir)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				entries[0]++;
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+				if (!isHidden(file)) {
+					entries[0]++;
+					bytes[0] += attributes.size();
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			private boolean isHidden(Path path) {
+				return directory.equals(path.getParent()) && path.getFileName().toString().startsWith(".");
+			}
+
+		});
+		listener.onExtracted(directory, entries[0], bytes[0], elapsed);
+	}
+
+}
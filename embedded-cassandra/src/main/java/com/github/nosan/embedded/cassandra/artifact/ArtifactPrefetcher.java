@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.artifact.Artifact.Distribution;
+
+/**
+ * Resolves {@link Distribution distributions} on background daemon threads, so that a download and extraction start
+ * before the first Cassandra instance needs them. A concurrent {@link Artifact#getDistribution()} of the same artifact
+ * waits for the prefetch on the file lock of the artifact instead of downloading it again.
+ *
+ * @author Dmytro Nosan
+ * @see Artifact#prefetch(Collection)
+ */
+final class ArtifactPrefetcher {
+
+	private static final Logger log = LoggerFactory.getLogger(ArtifactPrefetcher.class);
+
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new PrefetchThreadFactory());
+
+	private ArtifactPrefetcher() {
+	}
+
+	/**
+	 * Starts resolving distributions of the given artifacts, each on its own thread.
+	 *
+	 * @param artifacts the artifacts
+	 * @return the futures of the distributions in the order of the artifacts
+	 */
+	static List<Future<Distribution>> prefetch(Collection<? extends Artifact> artifacts) {
+		Objects.requireNonNull(artifacts, "Artifacts must not be null");
+		List<Future<Distribution>> futures = new ArrayList<>(artifacts.size());
+		for (Artifact artifact : artifacts) {
+			Objects.requireNonNull(artifact, "Artifact must not be null");
+			futures.add(EXECUTOR.submit(() -> {
+				try {
+					return artifact.getDistribution();
+				}
+				catch (Exception ex) {
+					log.warn("Artifact '{}' cannot be prefetched", artifact, ex);
+					throw ex;
+				}
+			}));
+		}
+		return futures;
+	}
+
+	private static final class PrefetchThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "artifact-prefetch-" + this.threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Extracted artifacts of one version ({@code remote/<version>}, {@code local/<version>} or {@code
+ * classpath/<version>}), keyed by the hash of their content. An artifact is extracted into a temporary directory,
+ * validated, linked to the blob store and then moved to {@code <version>/<hash>} atomically. The {@code .index}
+ * directory maps an identity of the source that is cheap to compute, e.g. the path, the size and the modification time
+ * of a file, to the hash of its content, so that the source is not read again. The {@code .lock} file of the version
+ * directory is held exclusively while an artifact is extracted, it is the same lock that {@link ArtifactCache} holds
+ * while an artifact is resolved or evicted.
+ *
+ * @author Dmytro Nosan
+ */
+final class ArtifactStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ArtifactStore.class);
+
+	private static final int HASH_LENGTH = 16;
+
+	private static final String EXTRACTED = ".extracted";
+
+	private final Path directory;
+
+	private final Version version;
+
+	private final ArtifactCache cache;
+
+	private final ArtifactListener listener;
+
+	private final boolean uncompressedLibraries;
+
+	private final String variant;
+
+	private final Duration lockTimeout;
+
+	/**
+	 * Constructs a new {@link ArtifactStore}.
+	 *
+	 * @param directory the directory of the version, e.g. {@code .embedded-cassandra/artifact/local/3.11.6}
+	 * @param version the version
+	 * @param maxCacheSize the maximum size of the artifact cache in bytes
+	 * @param entryFilter the filter the source is extracted with
+	 * @param uncompressedLibraries whether {@code lib/*.jar} files are stored uncompressed
+	 * @param listener the listener, if any
+	 * @param lockTimeout the maximum time to wait for the lock of the version directory
+	 */
+	ArtifactStore(Path directory, Version version, long maxCacheSize, ArchiveEntryFilter entryFilter,
+			boolean uncompressedLibraries, @Nullable ArtifactListener listener, Duration lockTimeout) {
+		this.directory = directory;
+		this.version = version;
+		this.cache = new ArtifactCache(getCacheDirectory(), maxCacheSize);
+		this.uncompressedLibraries = uncompressedLibraries;
+		this.variant = entryFilter.getId() + (uncompressedLibraries ? "+stored" : "");
+		this.listener = ArtifactListeners.of(listener);
+		this.lockTimeout = lockTimeout;
+	}
+
+	/**
+	 * Resolves the distribution of the source with the specified identity, the source is extracted if it has not
+	 * been extracted yet or the extracted artifact is damaged.
+	 *
+	 * @param identity the identity of the source
+	 * @param extractor the extractor of the source
+	 * @return the distribution
+	 * @throws IOException if an I/O error occurs
+	 */
+	Artifact.Distribution getDistribution(String identity, Extractor extractor) throws IOException {
+		this.cache.deleteLegacyArtifacts();
+		for (; ; ) {
+			Path artifact = find(identity);
+			if (artifact != null) {
+				Artifact.Distribution distribution = this.cache.resolve(artifact, this.version, this.lockTimeout);
+				if (distribution != null) {
+					return distribution;
+				}
+			}
+			extractLocked(identity, extractor);
+		}
+	}
+
+	private void extractLocked(String identity, Extractor extractor) throws IOException {
+		Files.createDirectories(this.directory);
+		Path lockFile = this.directory.resolve(".lock");
+		try (FileLock fileLock = FileLock.of(lockFile)) {
+			log.info("Acquires a lock to the file '{}' ...", lockFile);
+			long lockTime = System.nanoTime();
+			if (!fileLock.tryLock(this.lockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
+			}
+			ArtifactListeners.lockAcquired(this.listener, lockFile, lockTime);
+			log.info("The lock to the file '{}' was acquired", lockFile);
+			Path artifact = find(identity);
+			if (artifact != null && !ExtractionManifest.validate(artifact)) {
+				// the damaged artifact is replaced
+				Files.delete(artifact.resolve(EXTRACTED));
+				artifact = null;
+			}
+			if (artifact == null) {
+				extract(identity, extractor);
+			}
+		}
+	}
+
+	@Nullable
+	private Path find(String identity) throws IOException {
+		Path indexFile = getIndexFile(identity);
+		if (Files.exists(indexFile)) {
+			String hash = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8).trim();
+			if (Files.exists(this.directory.resolve(hash).resolve(EXTRACTED))) {
+				return this.directory.resolve(hash);
+			}
+		}
+		return null;
+	}
+
+	private void extract(String identity, Extractor extractor) throws IOException {
+		Path tempDirectory = Files.createTempDirectory(this.directory, ".extract-");
+		try {
+			String hash = getHash(extractor.extract(tempDirectory, this.listener));
+			Path artifact = this.directory.resolve(hash);
+			// the same content might have been extracted under another identity
+			if (!Files.exists(artifact.resolve(EXTRACTED))) {
+				FileUtils.delete(artifact);
+				new DefaultArtifact(this.version, tempDirectory).getDistribution();
+				if (this.uncompressedLibraries) {
+					LibraryRepacker.store(tempDirectory);
+				}
+				extractor.extracted(tempDirectory);
+				new BlobStore(getCacheDirectory().resolve("blobs")).deduplicate(tempDirectory);
+				ExtractionManifest.write(tempDirectory);
+				FileUtils.createIfNotExists(tempDirectory.resolve(EXTRACTED));
+				Files.move(tempDirectory, artifact, StandardCopyOption.ATOMIC_MOVE);
+			}
+			Path indexFile = getIndexFile(identity);
+			Files.createDirectories(indexFile.getParent());
+			Files.write(indexFile, hash.getBytes(StandardCharsets.UTF_8));
+		}
+		finally {
+			FileUtils.delete(tempDirectory);
+		}
+	}
+
+	private Path getIndexFile(String identity) {
+		byte[] digest = DigestUtils.getDigest("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+		return this.directory.resolve(".index").resolve(getHash(digest));
+	}
+
+	private String getHash(byte[] digest) {
+		// the same source extracted with another variant is another artifact
+		MessageDigest messageDigest = DigestUtils.getDigest("SHA-256");
+		messageDigest.update(digest);
+		messageDigest.update(this.variant.getBytes(StandardCharsets.UTF_8));
+		return DigestUtils.toHex(messageDigest.digest()).substring(0, HASH_LENGTH);
+	}
+
+	private Path getCacheDirectory() {
+		return this.directory.getParent().getParent();
+	}
+
+	/**
+	 * Extracts the source of an artifact.
+	 */
+	@FunctionalInterface
+	interface Extractor {
+
+		/**
+		 * Extracts the source into the specified directory.
+		 *
+		 * @param directory the directory
+		 * @param listener the listener to notify about the extraction
+		 * @return the {@code SHA-256} digest of the source
+		 * @throws IOException if an I/O error occurs
+		 */
+		byte[] extract(Path directory, ArtifactListener listener) throws IOException;
+
+		/**
+		 * Invoked once the extracted artifact has been validated, before it is linked to the blob store.
+		 *
+		 * @param directory the directory
+		 * @throws IOException if an I/O error occurs
+		 */
+		default void extracted(Path directory) throws IOException {
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+
+/**
+ * Content-addressable store of extracted files ({@code .embedded-cassandra/artifact/blobs/<hash>}). Identical files
+ * of different artifacts, e.g. {@code lib/*.jar} of patch releases, are replaced with hard links to the same blob.
+ * Extracted artifacts are never modified in place (they are copied into a working directory), so sharing their files
+ * is safe. If the file system does not support hard links, files are left as they are.
+ *
+ * @author Dmytro Nosan
+ */
+final class BlobStore {
+
+	/**
+	 * Files smaller than this are not worth a link.
+	 */
+	private static final long MIN_SIZE = 4096;
+
+	private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+	private final Path directory;
+
+	/**
+	 * Constructs a new {@link BlobStore}.
+	 *
+	 * @param directory the blobs directory
+	 */
+	BlobStore(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Replaces every file of the specified directory that has the same content as a blob with a hard link to the
+	 * blob, other files become new blobs.
+	 *
+	 * @param artifact the directory of an extracted artifact
+	 * @throws IOException if an I/O error occurs
+	 */
+	void deduplicate(Path artifact) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(artifact)) {
+			files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		long saved = 0;
+		for (Path file : files) {
+			long size = Files.size(file);
+			if (size < MIN_SIZE) {
+				continue;
+			}
+			try {
+				if (link(file, size)) {
+					saved += size;
+				}
+			}
+			catch (UnsupportedOperationException | IOException ex) {
+				log.debug("Files of '" + artifact + "' cannot be linked to blobs in '" + this.directory + "'", ex);
+				return;
+			}
+		}
+		if (saved > 0) {
+			log.info("{} bytes of '{}' are shared with other artifacts", saved, artifact);
+		}
+	}
+
+	/**
+	 * Deletes blobs that are no longer linked by any artifact.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	void prune() throws IOException {
+		if (!Files.isDirectory(this.directory)) {
+			return;
+		}
+		List<Path> blobs = new ArrayList<>();
+		try (Stream<Path> stream = Files.walk(this.directory)) {
+			stream.filter(Files::isRegularFile).forEach(blobs::add);
+		}
+		for (Path blob : blobs) {
+			try {
+				if (((Number) Files.getAttribute(blob, "unix:nlink")).intValue() <= 1) {
+					Files.deleteIfExists(blob);
+				}
+			}
+			catch (UnsupportedOperationException | IllegalArgumentException ex) {
+				return;
+			}
+		}
+	}
+
+	private boolean link(Path file, long size) throws IOException {
+		String hash = hash(file);
+		Path blob = this.directory.resolve(hash.substring(0, 2)).resolve(hash);
+		Files.createDirectories(blob.getParent());
+		if (!Files.exists(blob) || Files.size(blob) != size) {
+			// a new or damaged blob, the file becomes the blob
+			Path tempBlob = blob.resolveSibling(hash + ".tmp-" + System.nanoTime());
+			Files.createLink(tempBlob, file);
+			Files.move(tempBlob, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return false;
+		}
+		if (Files.isSameFile(blob, file)) {
+			return false;
+		}
+		Path tempFile = file.resolveSibling(file.getFileName() + ".tmp-link");
+		try {
+			Files.createLink(tempFile, blob);
+		}
+		catch (FileAlreadyExistsException ex) {
+			Files.delete(tempFile);
+			Files.createLink(tempFile, blob);
+		}
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return true;
+	}
+
+	private static String hash(Path file) throws IOException {
+		MessageDigest messageDigest = DigestUtils.getDigest("SHA-256");
+		try (InputStream is = Files.newInputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				messageDigest.update(buffer, 0, read);
+			}
+		}
+		return DigestUtils.toHex(messageDigest.digest());
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+
+/**
+ * Expected {@code SHA-1}, {@code SHA-256} or {@code SHA-512} hash of an archive.
+ *
+ * @author Dmytro Nosan
+ */
+final class Checksum {
+
+	private static final Pattern HEX = Pattern.compile("[0-9a-f]+");
+
+	private final String algorithm;
+
+	private final String hash;
+
+	private Checksum(String algorithm, String hash) {
+		this.algorithm = algorithm;
+		this.hash = hash;
+	}
+
+	/**
+	 * Creates a {@link Checksum} from the hex-encoded hash. The algorithm is determined by the length of the hash.
+	 *
+	 * @param hash the hash
+	 * @return the checksum
+	 * @throws IllegalArgumentException if the hash is neither {@code SHA-1}, {@code SHA-256} nor {@code SHA-512}
+	 */
+	static Checksum of(String hash) throws IllegalArgumentException {
+		Objects.requireNonNull(hash, "'hash' must not be null");
+		String value = hash.trim().toLowerCase(Locale.ENGLISH);
+		if (HEX.matcher(value).matches()) {
+			if (value.length() == 40) {
+				return new Checksum("SHA-1", value);
+			}
+			if (value.length() == 64) {
+				return new Checksum("SHA-256", value);
+			}
+			if (value.length() == 128) {
+				return new Checksum("SHA-512", value);
+			}
+		}
+		throw new IllegalArgumentException("'" + hash + "' is neither SHA-1, SHA-256 nor SHA-512 hash");
+	}
+
+	/**
+	 * Parses the content of a {@code .sha1}, {@code .sha256} or {@code .sha512} file ({@code <hash>} or {@code <hash>
+	 * <filename>}).
+	 *
+	 * @param content the content of the file
+	 * @param algorithm the expected algorithm
+	 * @return the checksum, or {@code null} if the content does not contain a hash of the algorithm
+	 */
+	@Nullable
+	static Checksum parse(String content, String algorithm) {
+		String[] tokens = content.trim().split("\\s+");
+		if (tokens.length == 0) {
+			return null;
+		}
+		try {
+			Checksum checksum = of(tokens[0]);
+			return checksum.algorithm.equals(algorithm) ? checksum : null;
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the algorithm.
+	 *
+	 * @return the algorithm
+	 */
+	String getAlgorithm() {
+		return this.algorithm;
+	}
+
+	/**
+	 * Returns the hex-encoded hash.
+	 *
+	 * @return the hash
+	 */
+	String getHash() {
+		return this.hash;
+	}
+
+	/**
+	 * Creates a new {@link MessageDigest} for the algorithm.
+	 *
+	 * @return the message digest
+	 */
+	MessageDigest createMessageDigest() {
+		return DigestUtils.getDigest(this.algorithm);
+	}
+
+	/**
+	 * Verifies that the specified digest matches this checksum.
+	 *
+	 * @param digest the digest
+	 * @param source the source of the digest
+	 * @throws IOException if the digest does not match
+	 */
+	void verify(byte[] digest, Object source) throws IOException {
+		String actual = DigestUtils.toHex(digest);
+		if (!this.hash.equals(actual)) {
+			throw new IOException(String.format("%s checksum mismatch for '%s'. Expected '%s' but was '%s'",
+					this.algorithm, source, this.hash, actual));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", Checksum.class.getSimpleName() + "[", "]")
+				.add("algorithm='" + this.algorithm + "'").add("hash='" + this.hash + "'").toString();
+	}
+
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.compress.archivers.EntryStreamOffsets;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+
+/**
+ * An {@link Artifact} that provides a {@link Distribution} bundled on the classpath as a pre-exploded directory, e.g.
+ * {@code apache-cassandra-3.11.6/bin}, {@code apache-cassandra-3.11.6/conf} and {@code apache-cassandra-3.11.6/lib}
+ * inside a jar file. Such a jar can be shipped as a regular Maven dependency for offline builds.
+ * <p>
+ * A directory on the classpath is used as it is. A jar file is extracted only once into the {@code destination}, keyed
+ * by the hash of the jar file. Stored (uncompressed) entries are copied straight from the jar file by
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, compressed entries are inflated.
+ *
+ * @author Dmytro Nosan
+ * @since 3.0.4
+ */
+public final class ClassPathArtifact implements Artifact {
+
+	private static final Logger log = LoggerFactory.getLogger(ClassPathArtifact.class);
+
+	private final Version version;
+
+	private final String location;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+	@Nullable
+	private Path destination;
+
+	private long maxCacheSize = ArtifactCache.UNLIMITED;
+
+	@Nullable
+	private ArtifactListener listener;
+
+	private ArchiveEntryFilter entryFilter = ArchiveEntryFilter.runtimeOnly();
+
+	private boolean uncompressedLibraries;
+
+	/**
+	 * Constructs a new {@link ClassPathArtifact} with the specified location of the distribution and Cassandra's
+	 * version.
+	 *
+	 * @param version Cassandra's version
+	 * @param location the classpath directory of the distribution, e.g. {@code apache-cassandra-3.11.6}
+	 */
+	public ClassPathArtifact(Version version, String location) {
+		this(version, location, null);
+	}
+
+	/**
+	 * Constructs a new {@link ClassPathArtifact} with the specified location of the distribution and Cassandra's
+	 * version.
+	 *
+	 * @param version Cassandra's version
+	 * @param location the classpath directory of the distribution, e.g. {@code apache-cassandra-3.11.6}
+	 * @param classLoader the class loader used to find the distribution
+	 */
+	public ClassPathArtifact(Version version, String location, @Nullable ClassLoader classLoader) {
+		Objects.requireNonNull(location, "'location' must not be null");
+		String path = location.replace('\\', '/').replaceAll("/+", "/").trim();
+		path = path.startsWith("/") ? path.substring(1) : path;
+		path = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+		if (path.isEmpty()) {
+			throw new IllegalArgumentException("'location' must not be empty");
+		}
+		this.version = Objects.requireNonNull(version, "'version' must not be null");
+		this.location = path;
+		this.classLoader = (classLoader != null) ? classLoader : getClass().getClassLoader();
+	}
+
+	/**
+	 * Returns Cassandra's version.
+	 *
+	 * @return the version
+	 */
+	public Version getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Returns the classpath directory of the distribution.
+	 *
+	 * @return the location
+	 */
+	public String getLocation() {
+		return this.location;
+	}
+
+	/**
+	 * Directory used to extract a jar file. Defaults to {@code user.home}
+	 *
+	 * @return the directory
+	 */
+	@Nullable
+	public Path getDestination() {
+		return this.destination;
+	}
+
+	/**
+	 * Sets directory to extract a jar file.
+	 *
+	 * @param destination the path to the directory
+	 */
+	public void setDestination(@Nullable Path destination) {
+		this.destination = destination;
+	}
+
+	/**
+	 * The maximum size in bytes of all artifacts extracted into the {@code destination}. The least recently used
+	 * artifacts are deleted once the size is exceeded. Defaults to unlimited.
+	 *
+	 * @return the maximum cache size
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximum size in bytes of all artifacts extracted into the {@code destination}.
+	 *
+	 * @param maxCacheSize the maximum cache size (must be positive)
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		if (maxCacheSize <= 0) {
+			throw new IllegalArgumentException("'maxCacheSize' must be positive");
+		}
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * The listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @return the listener
+	 */
+	@Nullable
+	public ArtifactListener getListener() {
+		return this.listener;
+	}
+
+	/**
+	 * Sets the listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @param listener the listener
+	 */
+	public void setListener(@Nullable ArtifactListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * The filter that decides which entries of the jar file are extracted. Defaults to
+	 * {@link ArchiveEntryFilter#runtimeOnly()}. Entry names start with the last segment of the {@code location}, e.g.
+	 * {@code apache-cassandra-3.11.6/lib/guava-18.0.jar}.
+	 *
+	 * @return the entry filter
+	 */
+	public ArchiveEntryFilter getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter that decides which entries of the jar file are extracted. Use {@link ArchiveEntryFilter#all()}
+	 * to extract the whole distribution.
+	 *
+	 * @param entryFilter the entry filter
+	 */
+	public void setEntryFilter(ArchiveEntryFilter entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted, so
+	 * that classes are read without being inflated on every start. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if jar files are stored uncompressed
+	 */
+	public boolean isUncompressedLibraries() {
+		return this.uncompressedLibraries;
+	}
+
+	/**
+	 * Sets whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted.
+	 * An artifact extracted with another setting is extracted again.
+	 *
+	 * @param uncompressedLibraries {@code true} if jar files should be stored uncompressed
+	 */
+	public void setUncompressedLibraries(boolean uncompressedLibraries) {
+		this.uncompressedLibraries = uncompressedLibraries;
+	}
+
+	@Override
+	public Distribution getDistribution() throws IOException {
+		URL url = getURL();
+		if ("file".equals(url.getProtocol())) {
+			// conf/cassandra.yaml
+			Path directory = toPath(url).getParent().getParent();
+			return new DefaultArtifact(this.version, directory).getDistribution();
+		}
+		if (!"jar".equals(url.getProtocol())) {
+			throw new IllegalStateException(String.format("'%s' is neither a directory nor a jar file", url));
+		}
+		Path jarFile = getJarFile(url);
+		ArtifactStore store = new ArtifactStore(getRealDestination(), this.version, this.maxCacheSize,
+				this.entryFilter, this.uncompressedLibraries, this.listener, Duration.ofSeconds(30));
+		return store.getDistribution(getIdentity(jarFile),
+				(directory, listener) -> extract(jarFile, directory, listener));
+	}
+
+	private byte[] extract(Path jarFile, Path directory, ArtifactListener listener) throws IOException {
+		log.info("Extracts '{}' from '{}' into '{}' directory", this.location, jarFile, directory);
+		long startTime = System.nanoTime();
+		byte[] digest = digest(jarFile);
+		String prefix = this.location + "/";
+		int index = this.location.lastIndexOf('/');
+		String name = (index != -1) ? this.location.substring(index + 1) : this.location;
+		Path root = directory.resolve(name).normalize();
+		try (ZipFile zipFile = new ZipFile(jarFile.toFile()); FileChannel channel = FileChannel.open(jarFile)) {
+			for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+				if (!entry.getName().startsWith(prefix) || !this.entryFilter.accept(
+						name + "/" + entry.getName().substring(prefix.length()))) {
+					continue;
+				}
+				Path path = root.resolve(entry.getName().substring(prefix.length())).normalize();
+				if (!path.startsWith(root)) {
+					throw new IOException(String.format("Entry '%s' is outside of '%s'", entry.getName(), prefix));
+				}
+				if (entry.isDirectory()) {
+					Files.createDirectories(path);
+					continue;
+				}
+				Files.createDirectories(path.getParent());
+				if (entry.getMethod() == ZipMethod.STORED.getCode()
+						&& entry.getDataOffset() != EntryStreamOffsets.OFFSET_UNKNOWN) {
+					transfer(channel, entry.getDataOffset(), entry.getSize(), path);
+				}
+				else {
+					try (InputStream is = zipFile.getInputStream(entry)) {
+						Files.copy(is, path, StandardCopyOption.REPLACE_EXISTING);
+					}
+				}
+			}
+		}
+		ArtifactListeners.extracted(listener, directory, Duration.ofNanos(System.nanoTime() - startTime));
+		return digest;
+	}
+
+	private static void transfer(FileChannel source, long position, long size, Path file) throws IOException {
+		try (FileChannel target = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			long transferred = 0;
+			while (transferred < size) {
+				long count = source.transferTo(position + transferred, size - transferred, target);
+				if (count <= 0) {
+					throw new IOException(String.format("Unexpected end of '%s'", file));
+				}
+				transferred += count;
+			}
+		}
+	}
+
+	private URL getURL() throws FileNotFoundException {
+		String path = this.location + "/conf/cassandra.yaml";
+		ClassLoader classLoader = this.classLoader;
+		URL url = (classLoader != null) ? classLoader.getResource(path) : ClassLoader.getSystemResource(path);
+		if (url == null) {
+			throw new FileNotFoundException(
+					String.format("Apache Cassandra distribution '%s' is not found on the classpath", this.location));
+		}
+		return url;
+	}
+
+	private static Path getJarFile(URL url) throws IOException {
+		URL jarFileUrl = ((JarURLConnection) url.openConnection()).getJarFileURL();
+		if (!"file".equals(jarFileUrl.getProtocol())) {
+			throw new IllegalStateException(String.format("'%s' is not a file", jarFileUrl));
+		}
+		return toPath(jarFileUrl);
+	}
+
+	private static Path toPath(URL url) {
+		try {
+			return Paths.get(url.toURI());
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Identifies the jar file without reading it: the path, the size and the last modification time.
+	 */
+	private static String getIdentity(Path jarFile) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(jarFile, BasicFileAttributes.class);
+		return String.format("%s|%d|%d", jarFile.toAbsolutePath(), attributes.size(),
+				attributes.lastModifiedTime().toMillis());
+	}
+
+	private static byte[] digest(Path jarFile) throws IOException {
+		MessageDigest digest = DigestUtils.getDigest("SHA-256");
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		try (FileChannel channel = FileChannel.open(jarFile)) {
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		return digest.digest();
+	}
+
+	private Path getRealDestination() {
+		Path destination = this.destination;
+		if (destination == null) {
+			destination = Optional.ofNullable(System.getProperty("user.home")).map(Paths::get).orElse(null);
+		}
+		if (destination == null) {
+			throw new IllegalStateException("'destination' must not be null");
+		}
+		return destination.resolve(".embedded-cassandra/artifact/classpath/" + this.version);
+	}
+
+}
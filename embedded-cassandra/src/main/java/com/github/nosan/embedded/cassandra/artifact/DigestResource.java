@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.StringJoiner;
+
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+/**
+ * {@link Resource} that updates a {@link MessageDigest} with every byte read from its stream. The stream is read to
+ * the end on close, so that the digest covers the whole resource even if the consumer stops before the end (e.g.
+ * archive trailers).
+ *
+ * @author Dmytro Nosan
+ */
+final class DigestResource implements Resource {
+
+	private final Resource resource;
+
+	private final MessageDigest messageDigest;
+
+	/**
+	 * Constructs a new {@link DigestResource}.
+	 *
+	 * @param resource the underlying resource
+	 * @param messageDigest the digest to update
+	 */
+	DigestResource(Resource resource, MessageDigest messageDigest) {
+		this.resource = resource;
+		this.messageDigest = messageDigest;
+	}
+
+	@Override
+	public String getFileName() {
+		return this.resource.getFileName();
+	}
+
+	@Override
+	public boolean exists() {
+		return this.resource.exists();
+	}
+
+	@Override
+	public URL toURL() throws IOException {
+		return this.resource.toURL();
+	}
+
+	/**
+	 * The digest is computed only while the resource is read as a stream, so the resource must not be accessed
+	 * through the file system, e.g. by a random access archive extraction.
+	 *
+	 * @return nothing
+	 * @throws FileSystemNotFoundException always
+	 */
+	@Override
+	public Path toPath() throws FileSystemNotFoundException {
+		throw new FileSystemNotFoundException("'" + this + "' can be read only as a stream");
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		this.messageDigest.reset();
+		return new DigestInputStream(this.resource.getInputStream(), this.messageDigest) {
+
+			// bytes read again after a reset would be digested twice, consumers buffer the stream themselves
+			@Override
+			public boolean markSupported() {
+				return false;
+			}
+
+			@Override
+			public synchronized void mark(int readlimit) {
+			}
+
+			@Override
+			public synchronized void reset() throws IOException {
+				throw new IOException("mark/reset not supported");
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+				long skipped = 0;
+				int read;
+				while (skipped < n && (read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped))) != -1) {
+					skipped += read;
+				}
+				return skipped;
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					byte[] buffer = new byte[8192];
+					while (read(buffer) != -1) {
+						// the rest of the stream is read to complete the digest
+					}
+				}
+				finally {
+					super.close();
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Completes the digest of the last read stream.
+	 *
+	 * @return the digest
+	 */
+	byte[] digest() {
+		return this.messageDigest.digest();
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", DigestResource.class.getSimpleName() + "[", "]")
+				.add("resource=" + this.resource).add("algorithm='" + this.messageDigest.getAlgorithm() + "'")
+				.toString();
+	}
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Sidecar state of a partially downloaded file. Keeps the URL, the validators ({@code ETag} and {@code
+ * Last-Modified}), the length of the file and the bytes written for every segment, so that an interrupted download
+ * can be resumed using {@code Range} requests.
+ *
+ * @author Dmytro Nosan
+ */
+final class DownloadState {
+
+	private static final Logger log = LoggerFactory.getLogger(DownloadState.class);
+
+	private final Path file;
+
+	private final String url;
+
+	@Nullable
+	private final String etag;
+
+	@Nullable
+	private final String lastModified;
+
+	private final long length;
+
+	private final List<Segment> segments;
+
+	private DownloadState(Path file, String url, @Nullable String etag, @Nullable String lastModified, long length,
+			List<Segment> segments) {
+		this.file = file;
+		this.url = url;
+		this.etag = etag;
+		this.lastModified = lastModified;
+		this.length = length;
+		this.segments = Collections.unmodifiableList(segments);
+	}
+
+	/**
+	 * Creates a new {@link DownloadState} with the specified number of equal segments.
+	 *
+	 * @param file the state file
+	 * @param url the URL
+	 * @param etag the ETag (or null)
+	 * @param lastModified the Last-Modified (or null)
+	 * @param length the length of the downloaded file
+	 * @param segments the number of segments
+	 * @return the state
+	 */
+	static DownloadState create(Path file, URL url, @Nullable String etag, @Nullable String lastModified, long length,
+			int segments) {
+		long segmentSize = (length + segments - 1) / segments;
+		List<Segment> result = new ArrayList<>();
+		for (long start = 0; start < length; start += segmentSize) {
+			result.add(new Segment(start, Math.min(length, start + segmentSize) - 1, 0));
+		}
+		return new DownloadState(file, url.toString(), etag, lastModified, length, result);
+	}
+
+	/**
+	 * Loads the {@link DownloadState} from the specified file.
+	 *
+	 * @param file the state file
+	 * @return the state, or {@code null} if the file does not exist or cannot be read
+	 */
+	@Nullable
+	static DownloadState load(Path file) {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (InputStream is = Files.newInputStream(file)) {
+			Properties properties = new Properties();
+			properties.load(is);
+			List<Segment> segments = new ArrayList<>();
+			int count = Integer.parseInt(properties.getProperty("segments"));
+			for (int i = 0; i < count; i++) {
+				String[] values = properties.getProperty("segment." + i).split(",");
+				segments.add(new Segment(Long.parseLong(values[0]), Long.parseLong(values[1]),
+						Long.parseLong(values[2])));
+			}
+			return new DownloadState(file, Objects.requireNonNull(properties.getProperty("url")),
+					properties.getProperty("etag"), properties.getProperty("last-modified"),
+					Long.parseLong(properties.getProperty("length")), segments);
+		}
+		catch (Exception ex) {
+			log.debug("Download state '" + file + "' cannot be read", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Whether this state belongs to the same version of the file or not.
+	 *
+	 * @param url the URL
+	 * @param etag the ETag (or null)
+	 * @param lastModified the Last-Modified (or null)
+	 * @param length the length of the file
+	 * @return {@code true} if the download can be resumed
+	 */
+	boolean matches(URL url, @Nullable String etag, @Nullable String lastModified, long length) {
+		if (etag == null && lastModified == null) {
+			return false;
+		}
+		return this.url.equals(url.toString()) && Objects.equals(this.etag, etag) && Objects
+				.equals(this.lastModified, lastModified) && this.length == length;
+	}
+
+	/**
+	 * Returns the URL.
+	 *
+	 * @return the URL
+	 */
+	String getUrl() {
+		return this.url;
+	}
+
+	/**
+	 * Returns the length of the file.
+	 *
+	 * @return the length
+	 */
+	long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the segments.
+	 *
+	 * @return the segments
+	 */
+	List<Segment> getSegments() {
+		return this.segments;
+	}
+
+	/**
+	 * Returns the number of bytes written for all segments.
+	 *
+	 * @return the written bytes
+	 */
+	long getWritten() {
+		long written = 0;
+		for (Segment segment : this.segments) {
+			written += segment.getWritten();
+		}
+		return written;
+	}
+
+	/**
+	 * Atomically saves this state into the file.
+	 *
+	 * @throws IOException if the state cannot be saved
+	 */
+	synchronized void save() throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("url", this.url);
+		if (this.etag != null) {
+			properties.setProperty("etag", this.etag);
+		}
+		if (this.lastModified != null) {
+			properties.setProperty("last-modified", this.lastModified);
+		}
+		properties.setProperty("length", Long.toString(this.length));
+		properties.setProperty("segments", Integer.toString(this.segments.size()));
+		for (int i = 0; i < this.segments.size(); i++) {
+			Segment segment = this.segments.get(i);
+			properties.setProperty("segment." + i,
+					String.format("%d,%d,%d", segment.getStart(), segment.getEnd(), segment.getWritten()));
+		}
+		Path tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+		try (OutputStream os = Files.newOutputStream(tempFile)) {
+			properties.store(os, null);
+		}
+		Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Deletes the state file.
+	 *
+	 * @throws IOException if the state file cannot be deleted
+	 */
+	void delete() throws IOException {
+		Files.deleteIfExists(this.file);
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", DownloadState.class.getSimpleName() + "[", "]").add("url='" + this.url + "'")
+				.add("length=" + this.length).add("written=" + getWritten()).toString();
+	}
+
+	/**
+	 * Byte range of the file.
+	 */
+	static final class Segment {
+
+		private final long start;
+
+		private final long end;
+
+		private final AtomicLong written;
+
+		Segment(long start, long end, long written) {
+			this.start = start;
+			this.end = end;
+			this.written = new AtomicLong(written);
+		}
+
+		long getStart() {
+			return this.start;
+		}
+
+		long getEnd() {
+			return this.end;
+		}
+
+		long getWritten() {
+			return this.written.get();
+		}
+
+		long getRemaining() {
+			return this.end - this.start + 1 - this.written.get();
+		}
+
+		long getPosition() {
+			return this.start + this.written.get();
+		}
+
+		void addWritten(long written) {
+			this.written.addAndGet(written);
+		}
+
+	}
+
+}
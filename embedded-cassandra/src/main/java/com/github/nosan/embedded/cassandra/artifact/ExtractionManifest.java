@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The list of files of an extracted artifact ({@code .manifest}) with their sizes and modification times. It is written
+ * once the artifact has been extracted and is used to detect a damaged artifact, e.g. files deleted by a temporary
+ * files reaper, by comparing file attributes only. Files are checked in parallel.
+ *
+ * @author Dmytro Nosan
+ */
+final class ExtractionManifest {
+
+	private static final String MANIFEST = ".manifest";
+
+	private static final Logger log = LoggerFactory.getLogger(ExtractionManifest.class);
+
+	private ExtractionManifest() {
+	}
+
+	/**
+	 * Writes the manifest of the extracted artifact. Files and directories whose top-level names start with a dot are
+	 * not listed.
+	 *
+	 * @param artifact the directory of the extracted artifact
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void write(Path artifact) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(artifact)) {
+			files = stream.filter(Files::isRegularFile)
+					.filter(file -> !artifact.relativize(file).getName(0).toString().startsWith("."))
+					.collect(Collectors.toList());
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(artifact.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+			for (Path file : files) {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				String name = artifact.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+				writer.write(String.format("%d\t%d\t%s%n", attributes.size(), attributes.lastModifiedTime().toMillis(),
+						name));
+			}
+		}
+	}
+
+	/**
+	 * Checks that every file of the manifest still exists and has the same size and modification time. An artifact
+	 * without a manifest, e.g. one extracted by an older version, is considered valid.
+	 *
+	 * @param artifact the directory of the extracted artifact
+	 * @return {@code true} if the artifact is valid
+	 * @throws IOException if the manifest cannot be read
+	 */
+	static boolean validate(Path artifact) throws IOException {
+		Path manifest = artifact.resolve(MANIFEST);
+		if (!Files.exists(manifest)) {
+			return true;
+		}
+		List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+		return lines.parallelStream().filter(line -> !line.isEmpty()).allMatch(line -> isValid(artifact, line));
+	}
+
+	private static boolean isValid(Path artifact, String line) {
+		String[] values = line.split("\t", 3);
+		if (values.length != 3) {
+			log.warn("Manifest of '{}' is damaged", artifact);
+			return false;
+		}
+		Path file = artifact.resolve(values[2]);
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			if (attributes.size() == Long.parseLong(values[0])
+					&& attributes.lastModifiedTime().toMillis() == Long.parseLong(values[1])) {
+				return true;
+			}
+			log.warn("File '{}' has been modified", file);
+			return false;
+		}
+		catch (IOException | NumberFormatException ex) {
+			log.warn("File '{}' is missing or cannot be read", file);
+			return false;
+		}
+	}
+
+}
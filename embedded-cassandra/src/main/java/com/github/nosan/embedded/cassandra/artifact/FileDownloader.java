@@ -0,0 +1,572 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
+
+/**
+ * Downloads a file into a directory. If the server supports byte ranges ({@code Accept-Ranges: bytes}), the file is
+ * split into ranges that are fetched concurrently and written at their positions into a preallocated file, otherwise
+ * the response is streamed directly to the consumer without a temporary file. Ranged downloads can be resumed.
+ *
+ * @author Dmytro Nosan
+ */
+class FileDownloader {
+
+	/**
+	 * The minimum size of a range, smaller files are not split.
+	 */
+	static final long MIN_RANGE_SIZE = 1024 * 1024;
+
+	private static final Logger log = LoggerFactory.getLogger(FileDownloader.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final long SAVE_INTERVAL = 1024 * 1024;
+
+	private static final int MAX_FETCH_SIZE = 64 * 1024;
+
+	private final Duration readTimeout;
+
+	private final Duration connectTimeout;
+
+	@Nullable
+	private final Proxy proxy;
+
+	private final int connections;
+
+	/**
+	 * Constructs a new {@link FileDownloader}.
+	 *
+	 * @param readTimeout the read timeout
+	 * @param connectTimeout the connect timeout
+	 * @param proxy the proxy (or null)
+	 * @param connections the maximum number of concurrent connections
+	 */
+	FileDownloader(Duration readTimeout, Duration connectTimeout, @Nullable Proxy proxy, int connections) {
+		this.readTimeout = readTimeout;
+		this.connectTimeout = connectTimeout;
+		this.proxy = proxy;
+		this.connections = connections;
+	}
+
+	/**
+	 * Downloads the specified URL into the specified directory. A partially downloaded file is kept in the directory
+	 * together with its {@link DownloadState state}, so that the next invocation resumes the download if the server
+	 * supports byte ranges and the file has not been changed.
+	 * <p>
+	 * If the server does not support byte ranges, the download can be neither split nor resumed, so the file is not
+	 * stored at all: the returned resource streams the response body directly to its single reader, e.g. the archive
+	 * extraction, overlapping network and disk I/O. Such a resource can be read only once and fails if the stream
+	 * ends prematurely.
+	 *
+	 * @param url the URL
+	 * @param directory the directory to download the file into
+	 * @param progressListener the listener to notify about the progress
+	 * @return the downloaded file or the response stream
+	 * @throws IOException if the file cannot be downloaded
+	 */
+	Resource download(URL url, Path directory, ProgressListener progressListener) throws IOException {
+		return download(url, connect(url, null), null, directory, progressListener);
+	}
+
+	/**
+	 * Downloads the specified URL into the specified directory using the already opened connection. See
+	 * {@link #download(URL, Path, ProgressListener)}.
+	 *
+	 * @param url the URL
+	 * @param connection the opened connection to the URL
+	 * @param inputStream the response stream of the connection, if some bytes of it have already been read, the
+	 * stream must replay them
+	 * @param directory the directory to download the file into
+	 * @param progressListener the listener to notify about the progress
+	 * @return the downloaded file or the response stream
+	 * @throws IOException if the file cannot be downloaded
+	 */
+	Resource download(URL url, URLConnection connection, @Nullable InputStream inputStream, Path directory,
+			ProgressListener progressListener) throws IOException {
+		String fileName = getFileName(url);
+		Path file = directory.resolve(fileName);
+		Path partFile = directory.resolve(fileName + ".part");
+		Path stateFile = directory.resolve(fileName + ".state");
+		Files.createDirectories(directory);
+		long totalSize = connection.getContentLengthLong();
+		Progress progress = new Progress(progressListener, totalSize);
+		progressListener.start();
+		if (isRangeSupported(connection, totalSize)) {
+			HttpURLConnection httpConnection = (HttpURLConnection) connection;
+			String etag = connection.getHeaderField("ETag");
+			String lastModified = connection.getHeaderField("Last-Modified");
+			DownloadState state = DownloadState.load(stateFile);
+			boolean resume = state != null && state.matches(url, etag, lastModified, totalSize)
+					&& Files.exists(partFile) && Files.size(partFile) == totalSize;
+			if (!resume) {
+				state = DownloadState.create(stateFile, url, etag, lastModified, totalSize, getSegments(totalSize));
+			}
+			try {
+				if (resume) {
+					httpConnection.disconnect();
+					log.info("Resuming download of '{}' from {} of {} bytes", url, state.getWritten(), totalSize);
+					progress.update(state.getWritten());
+					downloadSegments(null, false, httpConnection.getURL(), partFile, state, progress);
+				}
+				else if (inputStream != null) {
+					// the first bytes have already been read, every range is requested
+					httpConnection.disconnect();
+					downloadSegments(null, true, httpConnection.getURL(), partFile, state, progress);
+				}
+				else {
+					downloadSegments(httpConnection, true, httpConnection.getURL(), partFile, state, progress);
+				}
+			}
+			catch (RangeNotSupportedException ex) {
+				log.debug("Byte ranges are not supported by '" + url + "', using a single stream", ex);
+				state.delete();
+				Files.deleteIfExists(partFile);
+				progress.reset();
+				return new StreamResource(url, fileName, connect(url, null), null, progress);
+			}
+			state.delete();
+		}
+		else {
+			Files.deleteIfExists(stateFile);
+			Files.deleteIfExists(partFile);
+			return new StreamResource(url, fileName, connection, inputStream, progress);
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			throw new ClosedByInterruptException();
+		}
+		Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+		progressListener.finish();
+		return new FileSystemResource(file);
+	}
+
+	/**
+	 * Tests whether the download of the specified URL into the specified directory can be resumed, i.e. a partially
+	 * downloaded file of the URL is kept in the directory.
+	 *
+	 * @param url the URL
+	 * @param directory the directory
+	 * @return {@code true} if the download can be resumed
+	 */
+	boolean isResumable(URL url, Path directory) {
+		String fileName = getFileName(url);
+		DownloadState state = DownloadState.load(directory.resolve(fileName + ".state"));
+		return state != null && state.getUrl().equals(url.toString())
+				&& Files.exists(directory.resolve(fileName + ".part"));
+	}
+
+	/**
+	 * Opens a connection to the specified URL, following redirects.
+	 *
+	 * @param url the URL
+	 * @return the connection
+	 * @throws IOException if the connection cannot be opened or the response status is invalid
+	 */
+	URLConnection open(URL url) throws IOException {
+		return connect(url, null);
+	}
+
+	/**
+	 * Reads the content of a small text file, e.g. {@code .sha512}.
+	 *
+	 * @param url the URL
+	 * @return the content, or {@code null} if the file cannot be read
+	 */
+	@Nullable
+	String fetch(URL url) {
+		try {
+			URLConnection connection = connect(url, null);
+			try (InputStream is = connection.getInputStream()) {
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				int read;
+				while ((read = is.read(buffer)) != -1 && os.size() < MAX_FETCH_SIZE) {
+					os.write(buffer, 0, read);
+				}
+				return new String(os.toByteArray(), StandardCharsets.UTF_8);
+			}
+		}
+		catch (IOException ex) {
+			log.debug("'" + url + "' cannot be read", ex);
+			return null;
+		}
+	}
+
+	private static boolean isRangeSupported(URLConnection connection, long totalSize) {
+		return totalSize > 0 && connection instanceof HttpURLConnection && "bytes"
+				.equalsIgnoreCase(connection.getHeaderField("Accept-Ranges"));
+	}
+
+	private int getSegments(long totalSize) {
+		return (int) Math.max(1, Math.min(this.connections, totalSize / MIN_RANGE_SIZE));
+	}
+
+	private void downloadSegments(@Nullable HttpURLConnection connection, boolean allocate, URL target, Path file,
+			DownloadState state, Progress progress) throws IOException {
+		List<DownloadState.Segment> segments = new ArrayList<>();
+		for (DownloadState.Segment segment : state.getSegments()) {
+			if (segment.getRemaining() > 0) {
+				segments.add(segment);
+			}
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			if (allocate) {
+				channel.truncate(0);
+				channel.write(ByteBuffer.allocate(1), state.getLength() - 1);
+			}
+			ExecutorService executor = (segments.size() > 1) ? Executors.newFixedThreadPool(segments.size() - 1,
+					runnable -> {
+						Thread thread = new Thread(runnable, "download-" + target.getHost());
+						thread.setDaemon(true);
+						return thread;
+					}) : null;
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 1; i < segments.size(); i++) {
+					DownloadState.Segment segment = segments.get(i);
+					futures.add(executor.submit(() -> {
+						downloadSegment(null, target, channel, segment, state, progress);
+						return null;
+					}));
+				}
+				if (!segments.isEmpty()) {
+					// the first segment is read from the already opened connection, if any
+					downloadSegment(connection, target, channel, segments.get(0), state, progress);
+				}
+				for (Future<?> future : futures) {
+					await(future);
+				}
+			}
+			finally {
+				if (executor != null) {
+					executor.shutdownNow();
+				}
+				try {
+					state.save();
+				}
+				catch (IOException ex) {
+					log.debug("Download state '" + state + "' cannot be saved", ex);
+				}
+			}
+		}
+	}
+
+	private void downloadSegment(@Nullable HttpURLConnection connection, URL target, FileChannel channel,
+			DownloadState.Segment segment, DownloadState state, Progress progress) throws IOException {
+		HttpURLConnection rangeConnection = connection;
+		if (rangeConnection == null) {
+			rangeConnection = (HttpURLConnection) connect(target,
+					String.format("bytes=%d-%d", segment.getPosition(), segment.getEnd()));
+		}
+		try {
+			copy(rangeConnection.getInputStream(), channel, segment, state, progress);
+		}
+		finally {
+			rangeConnection.disconnect();
+		}
+	}
+
+	private URLConnection connect(URL url, @Nullable String range) throws IOException {
+		int maxRedirects = 10;
+		URL target = url;
+		for (; ; ) {
+			URLConnection connection = connect(target, this.readTimeout, this.connectTimeout, this.proxy);
+			if (range != null) {
+				connection.setRequestProperty("Range", range);
+			}
+			if (connection instanceof HttpURLConnection) {
+				HttpURLConnection httpConnection = (HttpURLConnection) connection;
+				httpConnection.setInstanceFollowRedirects(false);
+				int status = httpConnection.getResponseCode();
+				if (status >= 300 && status <= 307 && status != 306 && status != 304) {
+					if (maxRedirects < 0) {
+						throw new IOException("Too many redirects for URL '" + url + "'");
+					}
+					String location = httpConnection.getHeaderField("Location");
+					if (location != null) {
+						httpConnection.disconnect();
+						maxRedirects--;
+						target = new URL(url, location);
+						continue;
+					}
+				}
+				if (range != null && status == HttpURLConnection.HTTP_OK) {
+					httpConnection.disconnect();
+					throw new RangeNotSupportedException("Range '" + range + "' is ignored by URL '" + url + "'");
+				}
+				if (status == HttpURLConnection.HTTP_OK
+						|| (range != null && status == HttpURLConnection.HTTP_PARTIAL)) {
+					return connection;
+				}
+				throw new IOException("HTTP Status '" + status + "' is invalid for URL '" + url + "'");
+			}
+			return connection;
+		}
+	}
+
+	private static void copy(InputStream is, FileChannel channel, DownloadState.Segment segment, DownloadState state,
+			Progress progress) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long unsaved = 0;
+		while (segment.getRemaining() > 0) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new ClosedByInterruptException();
+			}
+			int read = is.read(buffer, 0, (int) Math.min(buffer.length, segment.getRemaining()));
+			if (read == -1) {
+				throw new IOException(String.format("Premature end of stream at %d of the range %d-%d",
+						segment.getPosition(), segment.getStart(), segment.getEnd()));
+			}
+			ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+			long position = segment.getPosition();
+			while (source.hasRemaining()) {
+				channel.write(source, position + source.position());
+			}
+			segment.addWritten(read);
+			progress.update(read);
+			unsaved += read;
+			if (unsaved >= SAVE_INTERVAL) {
+				unsaved = 0;
+				state.save();
+			}
+		}
+	}
+
+	private static void await(Future<?> future) throws IOException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ClosedByInterruptException();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	private static URLConnection connect(URL url, Duration readTimeout, Duration connectTimeout,
+			@Nullable Proxy proxy) throws IOException {
+		URLConnection connection = (proxy != null) ? url.openConnection(proxy) : url.openConnection();
+		connection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
+		connection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
+		return connection;
+	}
+
+	private static String getFileName(URL url) {
+		String fileName = new UrlResource(url).getFileName();
+		if (!StringUtils.hasText(fileName)) {
+			throw new IllegalArgumentException(
+					String.format("There is no way to determine a file name from a '%s'", url));
+		}
+		return fileName;
+	}
+
+	private static final class Progress {
+
+		private final ProgressListener listener;
+
+		private final long totalBytes;
+
+		private final AtomicLong readBytes = new AtomicLong();
+
+		Progress(ProgressListener listener, long totalBytes) {
+			this.listener = listener;
+			this.totalBytes = totalBytes;
+		}
+
+		void update(long read) {
+			long readBytes = this.readBytes.addAndGet(read);
+			if (this.totalBytes > 0 && readBytes > 0) {
+				synchronized (this.listener) {
+					this.listener.update(readBytes, this.totalBytes);
+				}
+			}
+		}
+
+		void reset() {
+			this.readBytes.set(0);
+		}
+
+		long getTotalBytes() {
+			return this.totalBytes;
+		}
+
+		void finish() {
+			synchronized (this.listener) {
+				this.listener.finish();
+			}
+		}
+
+	}
+
+	private static final class StreamResource implements Resource {
+
+		private final URL url;
+
+		private final String fileName;
+
+		private final URLConnection connection;
+
+		@Nullable
+		private final InputStream inputStream;
+
+		private final Progress progress;
+
+		private final AtomicBoolean opened = new AtomicBoolean();
+
+		StreamResource(URL url, String fileName, URLConnection connection, @Nullable InputStream inputStream,
+				Progress progress) {
+			this.url = url;
+			this.fileName = fileName;
+			this.connection = connection;
+			this.inputStream = inputStream;
+			this.progress = progress;
+		}
+
+		@Override
+		public String getFileName() {
+			return this.fileName;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public URL toURL() {
+			return this.url;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			if (!this.opened.compareAndSet(false, true)) {
+				throw new IllegalStateException("'" + this.url + "' has already been read");
+			}
+			InputStream inputStream = (this.inputStream != null) ? this.inputStream : this.connection.getInputStream();
+			return new BufferedInputStream(new FilterInputStream(inputStream) {
+
+				private long readBytes;
+
+				private boolean finished;
+
+				@Override
+				public int read() throws IOException {
+					byte[] b = new byte[1];
+					return (read(b, 0, 1) != -1) ? (b[0] & 0xFF) : -1;
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					if (Thread.currentThread().isInterrupted()) {
+						throw new ClosedByInterruptException();
+					}
+					int read = super.read(b, off, len);
+					if (read == -1) {
+						finish();
+					}
+					else {
+						this.readBytes += read;
+						StreamResource.this.progress.update(read);
+					}
+					return read;
+				}
+
+				@Override
+				public long skip(long n) throws IOException {
+					byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+					long skipped = 0;
+					int read;
+					while (skipped < n && (read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped))) != -1) {
+						skipped += read;
+					}
+					return skipped;
+				}
+
+				private void finish() throws IOException {
+					long totalBytes = StreamResource.this.progress.getTotalBytes();
+					if (totalBytes > 0 && this.readBytes != totalBytes) {
+						throw new IOException(String.format("Premature end of stream at %d of %d bytes for URL '%s'",
+								this.readBytes, totalBytes, StreamResource.this.url));
+					}
+					if (!this.finished) {
+						this.finished = true;
+						StreamResource.this.progress.finish();
+					}
+				}
+
+			}, BUFFER_SIZE);
+		}
+
+		@Override
+		public String toString() {
+			return new StringJoiner(", ", StreamResource.class.getSimpleName() + "[", "]")
+					.add("url=" + this.url).toString();
+		}
+
+	}
+
+	private static final class RangeNotSupportedException extends IOException {
+
+		RangeNotSupportedException(String message) {
+			super(message);
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.apache.commons.compress.utils.IOUtils;
+
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+/**
+ * Rewrites {@code lib/*.jar} files of an extracted artifact with stored (uncompressed) entries, so that Cassandra
+ * reads classes without inflating them. Jar files are rewritten in parallel, the order and content of their entries
+ * are kept, so signed jar files remain valid.
+ *
+ * @author Dmytro Nosan
+ */
+final class LibraryRepacker {
+
+	private LibraryRepacker() {
+	}
+
+	/**
+	 * Rewrites all {@code lib/*.jar} files inside the directory that have compressed entries.
+	 *
+	 * @param directory the directory of the extracted artifact
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void store(Path directory) throws IOException {
+		List<Path> jars;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			jars = stream.filter(LibraryRepacker::isLibrary).collect(Collectors.toList());
+		}
+		try {
+			jars.parallelStream().forEach(jar -> {
+				try {
+					storeJar(jar);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private static boolean isLibrary(Path file) {
+		Path parent = file.getParent();
+		return parent != null && parent.getFileName() != null && parent.getFileName().toString().equals("lib")
+				&& file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file);
+	}
+
+	private static void storeJar(Path jar) throws IOException {
+		Path tempFile = jar.resolveSibling("." + jar.getFileName() + ".tmp");
+		try {
+			try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+				List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntriesInPhysicalOrder());
+				if (entries.stream().allMatch(entry -> entry.getMethod() == ZipMethod.STORED.getCode())) {
+					return;
+				}
+				// a seekable output writes sizes and checksums of stored entries after their data
+				try (ZipArchiveOutputStream os = new ZipArchiveOutputStream(tempFile.toFile())) {
+					for (ZipArchiveEntry entry : entries) {
+						ZipArchiveEntry storedEntry = new ZipArchiveEntry(entry.getName());
+						storedEntry.setMethod(ZipMethod.STORED.getCode());
+						storedEntry.setTime(entry.getTime());
+						storedEntry.setComment(entry.getComment());
+						storedEntry.setExternalAttributes(entry.getExternalAttributes());
+						storedEntry.setExtra(entry.getExtra());
+						os.putArchiveEntry(storedEntry);
+						if (!entry.isDirectory()) {
+							try (InputStream is = zipFile.getInputStream(entry)) {
+								IOUtils.copy(is, os);
+							}
+						}
+						os.closeArchiveEntry();
+					}
+				}
+			}
+			Files.move(tempFile, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			FileUtils.delete(tempFile);
+		}
+	}
+
+}
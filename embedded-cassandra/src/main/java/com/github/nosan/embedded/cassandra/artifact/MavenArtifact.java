@@ -0,0 +1,256 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+
+/**
+ * An {@link Artifact} that resolves an archive ({@code org.apache.cassandra:apache-cassandra:tar.gz:bin}) from a
+ * Maven-layout repository on disk, e.g. {@code ~/.m2/repository}, and then extracts it as {@link ArchiveArtifact}
+ * does. The archive is verified against the {@code .sha512}, {@code .sha256} or {@code .sha1} file next to it, if
+ * any. The network is never used.
+ *
+ * @author Dmytro Nosan
+ * @since 3.0.4
+ */
+public final class MavenArtifact implements Artifact {
+
+	private static final Logger log = LoggerFactory.getLogger(MavenArtifact.class);
+
+	private static final String[] ALGORITHMS = {"SHA-512", "SHA-256", "SHA-1"};
+
+	private final Version version;
+
+	@Nullable
+	private Path repository;
+
+	@Nullable
+	private Path destination;
+
+	private long maxCacheSize = ArtifactCache.UNLIMITED;
+
+	@Nullable
+	private ArtifactListener listener;
+
+	private ArchiveEntryFilter entryFilter = ArchiveEntryFilter.runtimeOnly();
+
+	private boolean uncompressedLibraries;
+
+	/**
+	 * Constructs a new {@link MavenArtifact} with the specified version.
+	 *
+	 * @param version the version
+	 */
+	public MavenArtifact(Version version) {
+		this.version = Objects.requireNonNull(version, "'version' must not be null");
+	}
+
+	/**
+	 * Returns Cassandra's version.
+	 *
+	 * @return the version
+	 */
+	public Version getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * The Maven repository directory. Defaults to {@code maven.repo.local} or {@code ${user.home}/.m2/repository}.
+	 *
+	 * @return the repository directory
+	 */
+	@Nullable
+	public Path getRepository() {
+		return this.repository;
+	}
+
+	/**
+	 * Sets the Maven repository directory.
+	 *
+	 * @param repository the repository directory
+	 */
+	public void setRepository(@Nullable Path repository) {
+		this.repository = repository;
+	}
+
+	/**
+	 * Directory used to extract an archive file. Defaults to {@code user.home}
+	 *
+	 * @return the destination directory
+	 */
+	@Nullable
+	public Path getDestination() {
+		return this.destination;
+	}
+
+	/**
+	 * Sets directory to extract an archive file.
+	 *
+	 * @param destination the path to the directory
+	 */
+	public void setDestination(@Nullable Path destination) {
+		this.destination = destination;
+	}
+
+	/**
+	 * The maximum size in bytes of all artifacts extracted into the {@code destination}. Defaults to unlimited.
+	 *
+	 * @return the maximum cache size
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximum size in bytes of all artifacts extracted into the {@code destination}.
+	 *
+	 * @param maxCacheSize the maximum cache size (must be positive)
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		if (maxCacheSize <= 0) {
+			throw new IllegalArgumentException("'maxCacheSize' must be positive");
+		}
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * The listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @return the listener
+	 */
+	@Nullable
+	public ArtifactListener getListener() {
+		return this.listener;
+	}
+
+	/**
+	 * Sets the listener that is notified about the lock wait time and the extraction throughput.
+	 *
+	 * @param listener the listener
+	 */
+	public void setListener(@Nullable ArtifactListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * The filter that decides which entries of the archive are extracted. Defaults to
+	 * {@link ArchiveEntryFilter#runtimeOnly()}.
+	 *
+	 * @return the entry filter
+	 */
+	public ArchiveEntryFilter getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter that decides which entries of the archive are extracted. Use {@link ArchiveEntryFilter#all()}
+	 * to extract the whole archive.
+	 *
+	 * @param entryFilter the entry filter
+	 */
+	public void setEntryFilter(ArchiveEntryFilter entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted, so
+	 * that classes are read without being inflated on every start. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if jar files are stored uncompressed
+	 */
+	public boolean isUncompressedLibraries() {
+		return this.uncompressedLibraries;
+	}
+
+	/**
+	 * Sets whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted.
+	 * An artifact extracted with another setting is extracted again.
+	 *
+	 * @param uncompressedLibraries {@code true} if jar files should be stored uncompressed
+	 */
+	public void setUncompressedLibraries(boolean uncompressedLibraries) {
+		this.uncompressedLibraries = uncompressedLibraries;
+	}
+
+	@Override
+	public Distribution getDistribution() throws IOException {
+		Path archive = getRealRepository().resolve(String.format(
+				"org/apache/cassandra/apache-cassandra/%1$s/apache-cassandra-%1$s-bin.tar.gz", this.version));
+		if (!Files.isRegularFile(archive)) {
+			throw new IllegalStateException(String.format("'%s' does not exist", archive));
+		}
+		ArchiveArtifact artifact = new ArchiveArtifact(this.version, new FileSystemResource(archive), this.destination);
+		artifact.setMaxCacheSize(this.maxCacheSize);
+		artifact.setListener(this.listener);
+		artifact.setEntryFilter(this.entryFilter);
+		artifact.setUncompressedLibraries(this.uncompressedLibraries);
+		Checksum checksum = getChecksum(archive);
+		if (checksum != null) {
+			artifact.setChecksum(checksum.getHash());
+		}
+		else {
+			log.warn("There is no checksum for '{}', the archive file is not verified", archive);
+		}
+		return artifact.getDistribution();
+	}
+
+	@Nullable
+	private static Checksum getChecksum(Path archive) throws IOException {
+		for (String algorithm : ALGORITHMS) {
+			String extension = algorithm.replace("-", "").toLowerCase(Locale.ENGLISH);
+			Path file = archive.resolveSibling(archive.getFileName() + "." + extension);
+			if (Files.isRegularFile(file)) {
+				Checksum checksum = Checksum.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+						algorithm);
+				if (checksum != null) {
+					return checksum;
+				}
+			}
+		}
+		return null;
+	}
+
+	private Path getRealRepository() {
+		Path repository = this.repository;
+		if (repository == null) {
+			repository = Optional.ofNullable(System.getProperty("maven.repo.local")).map(Paths::get).orElse(null);
+		}
+		if (repository == null) {
+			repository = Optional.ofNullable(System.getProperty("user.home")).map(Paths::get)
+					.map(home -> home.resolve(".m2/repository")).orElse(null);
+		}
+		if (repository == null) {
+			throw new IllegalStateException("'repository' must not be null");
+		}
+		return repository;
+	}
+
+}
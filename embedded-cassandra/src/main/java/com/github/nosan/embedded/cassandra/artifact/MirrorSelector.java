@@ -0,0 +1,356 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+/**
+ * Chooses the mirror to download an archive from using hedged requests. The first mirror is requested; if it does
+ * not deliver a byte within the hedge delay, the next mirror is requested as well, and so on. If only the first
+ * mirror was requested, it is chosen as soon as its first byte arrives. Otherwise, every requested mirror that
+ * delivers bytes is measured for a short window, the one with the best throughput is chosen and the other requests
+ * are cancelled. The latency of every mirror is recorded in {@link MirrorStats} to order future attempts.
+ * <p>
+ * The response of the chosen mirror is kept open together with the bytes read while probing, so that the archive is
+ * streamed from it without another request if the mirror does not support byte ranges. Mirrors are not probed at all
+ * if a partially downloaded file of one of them can be resumed, the order of the mirrors would not matter anyway.
+ *
+ * @author Dmytro Nosan
+ */
+final class MirrorSelector {
+
+	private static final Logger log = LoggerFactory.getLogger(MirrorSelector.class);
+
+	private static final int MAX_HEAD_SIZE = 4 * 1024 * 1024;
+
+	private final FileDownloader downloader;
+
+	private final MirrorStats stats;
+
+	private final Duration hedgeDelay;
+
+	private final Duration window;
+
+	private final Object monitor = new Object();
+
+	@Nullable
+	private Probe chosen;
+
+	/**
+	 * Constructs a new {@link MirrorSelector}.
+	 *
+	 * @param downloader the downloader used to open connections
+	 * @param stats the mirror statistics
+	 * @param hedgeDelay the time to wait for a byte before requesting the next mirror
+	 * @param window the time to measure the throughput of competing mirrors
+	 */
+	MirrorSelector(FileDownloader downloader, MirrorStats stats, Duration hedgeDelay, Duration window) {
+		this.downloader = downloader;
+		this.stats = stats;
+		this.hedgeDelay = hedgeDelay;
+		this.window = window;
+	}
+
+	/**
+	 * Orders the specified URLs, the chosen mirror goes first, the others follow in the order of their statistics.
+	 *
+	 * @param urls the URLs
+	 * @param directory the directory the archive is downloaded into
+	 * @return the ordered URLs
+	 */
+	List<URL> select(List<URL> urls, Path directory) {
+		List<URL> ordered = this.stats.order(urls, this.hedgeDelay.toMillis());
+		if (ordered.size() < 2) {
+			return ordered;
+		}
+		for (URL url : ordered) {
+			if (this.downloader.isResumable(url, directory)) {
+				log.info("Download from '{}' is resumed, mirrors are not probed", url);
+				List<URL> result = new ArrayList<>(ordered);
+				result.remove(url);
+				result.add(0, url);
+				return result;
+			}
+		}
+		ExecutorService executor = Executors.newCachedThreadPool(new ProbeThreadFactory());
+		List<Probe> probes = new ArrayList<>();
+		try {
+			Probe first = race(ordered, probes, executor);
+			if (first == null) {
+				return ordered;
+			}
+			Probe best = first;
+			if (probes.size() > 1) {
+				awaitWindow(first, probes);
+				for (Probe probe : probes) {
+					if (probe.throughput > best.throughput) {
+						best = probe;
+					}
+				}
+			}
+			for (Probe probe : probes) {
+				if (probe.latency >= 0) {
+					this.stats.recordLatency(probe.url, probe.latency);
+				}
+				else if (probe.done) {
+					this.stats.recordFailure(probe.url);
+				}
+			}
+			if (probes.size() > 1) {
+				log.info("Mirror '{}' is chosen out of {} requested mirrors", best.url, probes.size());
+			}
+			List<URL> result = new ArrayList<>(ordered);
+			result.remove(best.url);
+			result.add(0, best.url);
+			best.stop();
+			this.chosen = best;
+			return result;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return ordered;
+		}
+		finally {
+			for (Probe probe : probes) {
+				if (probe != this.chosen) {
+					probe.cancel();
+				}
+			}
+			executor.shutdown();
+			this.stats.save();
+		}
+	}
+
+	/**
+	 * Downloads the specified URL by {@link FileDownloader}. The response of the chosen mirror is reused if the URL
+	 * is the chosen one, otherwise it is cancelled.
+	 *
+	 * @param url the URL
+	 * @param directory the directory to download the file into
+	 * @param progressListener the listener to notify about the progress
+	 * @return the downloaded file or the response stream
+	 * @throws IOException if the file cannot be downloaded
+	 */
+	Resource download(URL url, Path directory, ProgressListener progressListener) throws IOException {
+		Probe chosen = this.chosen;
+		this.chosen = null;
+		InputStream inputStream = (chosen != null) ? chosen.take(url) : null;
+		if (chosen != null && inputStream != null) {
+			log.debug("The response of '{}' is reused", url);
+			return this.downloader.download(url, chosen.connection, inputStream, directory, progressListener);
+		}
+		return this.downloader.download(url, directory, progressListener);
+	}
+
+	@Nullable
+	private Probe race(List<URL> urls, List<Probe> probes, ExecutorService executor) throws InterruptedException {
+		long hedgeDelay = this.hedgeDelay.toNanos();
+		synchronized (this.monitor) {
+			long deadline = 0;
+			for (; ; ) {
+				for (Probe probe : probes) {
+					if (probe.latency >= 0) {
+						return probe;
+					}
+				}
+				boolean failed = probes.stream().allMatch(probe -> probe.done);
+				if (probes.size() < urls.size() && (failed || System.nanoTime() - deadline >= 0)) {
+					Probe probe = new Probe(urls.get(probes.size()));
+					probes.add(probe);
+					executor.execute(probe);
+					deadline = System.nanoTime() + hedgeDelay;
+					continue;
+				}
+				if (failed) {
+					return null;
+				}
+				long wait = (probes.size() < urls.size()) ? deadline - System.nanoTime() : hedgeDelay;
+				TimeUnit.NANOSECONDS.timedWait(this.monitor, Math.max(wait, 1));
+			}
+		}
+	}
+
+	private void awaitWindow(Probe first, List<Probe> probes) throws InterruptedException {
+		long end = first.firstByteTime + this.window.toNanos() * 2;
+		synchronized (this.monitor) {
+			long wait;
+			while (!probes.stream().allMatch(probe -> probe.done) && (wait = end - System.nanoTime()) > 0) {
+				TimeUnit.NANOSECONDS.timedWait(this.monitor, wait);
+			}
+		}
+	}
+
+	private final class Probe implements Runnable {
+
+		private final URL url;
+
+		private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		@Nullable
+		private volatile URLConnection connection;
+
+		@Nullable
+		private volatile InputStream inputStream;
+
+		private volatile long firstByteTime;
+
+		private volatile long latency = -1;
+
+		private volatile double throughput = -1;
+
+		private volatile boolean done;
+
+		private volatile boolean stopped;
+
+		private volatile boolean cancelled;
+
+		Probe(URL url) {
+			this.url = url;
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			boolean open = false;
+			try {
+				URLConnection connection = MirrorSelector.this.downloader.open(this.url);
+				this.connection = connection;
+				InputStream is = connection.getInputStream();
+				byte[] buffer = new byte[8192];
+				int read = is.read(buffer);
+				if (read == -1) {
+					is.close();
+					return;
+				}
+				this.firstByteTime = System.nanoTime();
+				this.latency = TimeUnit.NANOSECONDS.toMillis(this.firstByteTime - start);
+				signal();
+				this.head.write(buffer, 0, read);
+				long end = this.firstByteTime + MirrorSelector.this.window.toNanos();
+				while (!this.stopped && !this.cancelled && System.nanoTime() < end && this.head.size() < MAX_HEAD_SIZE
+						&& (read = is.read(buffer)) != -1) {
+					this.head.write(buffer, 0, read);
+				}
+				long elapsed = Math.max(System.nanoTime() - this.firstByteTime, 1);
+				this.throughput = this.head.size() * 1e9 / elapsed;
+				// the response is kept open, the archive might be streamed from it
+				this.inputStream = is;
+				open = true;
+			}
+			catch (Exception ex) {
+				if (!this.cancelled) {
+					log.debug("Mirror '" + this.url + "' cannot be probed", ex);
+				}
+			}
+			finally {
+				this.done = true;
+				if (!open) {
+					cancel();
+				}
+				this.finished.countDown();
+				signal();
+			}
+		}
+
+		/**
+		 * Stops measuring the throughput, the response is kept open.
+		 */
+		void stop() {
+			this.stopped = true;
+		}
+
+		/**
+		 * Takes the response of this probe, the bytes read while probing are read again.
+		 *
+		 * @param url the URL to download
+		 * @return the response stream, or {@code null} if the URL is another one or the response is not available
+		 * @throws IOException if the current thread is interrupted
+		 */
+		@Nullable
+		InputStream take(URL url) throws IOException {
+			try {
+				this.finished.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				cancel();
+				throw new ClosedByInterruptException();
+			}
+			InputStream inputStream = this.inputStream;
+			if (inputStream == null || !this.url.toString().equals(url.toString())) {
+				cancel();
+				return null;
+			}
+			return new SequenceInputStream(new ByteArrayInputStream(this.head.toByteArray()), inputStream);
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			URLConnection connection = this.connection;
+			if (connection instanceof HttpURLConnection) {
+				((HttpURLConnection) connection).disconnect();
+			}
+		}
+
+		private void signal() {
+			synchronized (MirrorSelector.this.monitor) {
+				MirrorSelector.this.monitor.notifyAll();
+			}
+		}
+
+	}
+
+	private static final class ProbeThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "mirror-probe-" + this.threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
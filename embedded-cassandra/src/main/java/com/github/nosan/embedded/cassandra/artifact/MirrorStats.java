@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * Per-mirror latency and failure statistics, persisted in the artifact cache directory ({@code mirrors.properties})
+ * and used to order download attempts. A mirror is identified by the host and port of its URL.
+ *
+ * @author Dmytro Nosan
+ */
+final class MirrorStats {
+
+	/**
+	 * Weight of a new latency sample in the moving average.
+	 */
+	private static final double ALPHA = 0.3;
+
+	private static final Logger log = LoggerFactory.getLogger(MirrorStats.class);
+
+	private final Path file;
+
+	private final Properties properties;
+
+	private MirrorStats(Path file, Properties properties) {
+		this.file = file;
+		this.properties = properties;
+	}
+
+	/**
+	 * Loads the statistics from the specified file.
+	 *
+	 * @param file the statistics file
+	 * @return the statistics, empty if the file does not exist or cannot be read
+	 */
+	static MirrorStats load(Path file) {
+		Properties properties = new Properties();
+		if (Files.exists(file)) {
+			try (InputStream is = Files.newInputStream(file)) {
+				properties.load(is);
+			}
+			catch (IOException ex) {
+				log.debug("Mirror statistics '" + file + "' cannot be read", ex);
+			}
+		}
+		return new MirrorStats(file, properties);
+	}
+
+	/**
+	 * Orders the URLs by their statistics: mirrors that failed last time go last, the others are ordered by their
+	 * latency. Mirrors without statistics are ranked as if their latency was the specified one. The original order is
+	 * kept for equal mirrors.
+	 *
+	 * @param urls the URLs
+	 * @param defaultLatency the latency (millis) of an unknown mirror
+	 * @return the ordered URLs
+	 */
+	synchronized List<URL> order(List<URL> urls, long defaultLatency) {
+		List<URL> result = new ArrayList<>(urls);
+		result.sort(Comparator.comparingInt((URL url) -> getFailures(url))
+				.thenComparingDouble(url -> getLatency(url, defaultLatency)));
+		return result;
+	}
+
+	/**
+	 * Records the time to the first byte of the mirror.
+	 *
+	 * @param url the URL of the mirror
+	 * @param latency the latency in millis
+	 */
+	synchronized void recordLatency(URL url, long latency) {
+		String key = getKey(url);
+		Double previous = getDouble(key + ".latency");
+		double average = (previous != null) ? ALPHA * latency + (1 - ALPHA) * previous : latency;
+		this.properties.setProperty(key + ".latency", Long.toString(Math.round(average)));
+		this.properties.remove(key + ".failures");
+	}
+
+	/**
+	 * Records a failure of the mirror.
+	 *
+	 * @param url the URL of the mirror
+	 */
+	synchronized void recordFailure(URL url) {
+		String key = getKey(url);
+		this.properties.setProperty(key + ".failures", Integer.toString(getFailures(url) + 1));
+	}
+
+	/**
+	 * Atomically saves the statistics. Failures are only logged.
+	 */
+	synchronized void save() {
+		try {
+			Files.createDirectories(this.file.getParent());
+			Path tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp-" + System.nanoTime());
+			try {
+				try (OutputStream os = Files.newOutputStream(tempFile)) {
+					this.properties.store(os, "Apache Cassandra mirrors");
+				}
+				Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+		catch (IOException ex) {
+			log.debug("Mirror statistics '" + this.file + "' cannot be saved", ex);
+		}
+	}
+
+	private int getFailures(URL url) {
+		Double failures = getDouble(getKey(url) + ".failures");
+		return (failures != null) ? failures.intValue() : 0;
+	}
+
+	private double getLatency(URL url, long defaultLatency) {
+		Double latency = getDouble(getKey(url) + ".latency");
+		return (latency != null) ? latency : defaultLatency;
+	}
+
+	@Nullable
+	private Double getDouble(String key) {
+		String value = this.properties.getProperty(key);
+		try {
+			return (value != null) ? Double.valueOf(value) : null;
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private static String getKey(URL url) {
+		int port = (url.getPort() != -1) ? url.getPort() : url.getDefaultPort();
+		return url.getHost() + ":" + port;
+	}
+
+}
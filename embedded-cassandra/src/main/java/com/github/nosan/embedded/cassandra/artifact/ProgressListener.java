@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+/**
+ * Listener that is notified about the download progress.
+ *
+ * @author Dmytro Nosan
+ */
+interface ProgressListener {
+
+	/**
+	 * Invoked when the download is started.
+	 */
+	void start();
+
+	/**
+	 * Invoked when a chunk of bytes has been downloaded.
+	 *
+	 * @param readBytes the number of bytes downloaded so far
+	 * @param totalBytes the total number of bytes
+	 */
+	void update(long readBytes, long totalBytes);
+
+	/**
+	 * Invoked when the download is finished.
+	 */
+	void finish();
+
+}
@@ -17,12 +17,8 @@
 package com.github.nosan.embedded.cassandra.artifact;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -30,26 +26,28 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.nosan.embedded.cassandra.annotations.Nullable;
 import com.github.nosan.embedded.cassandra.api.Version;
-import com.github.nosan.embedded.cassandra.commons.FileLock;
 import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
 import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
-import com.github.nosan.embedded.cassandra.commons.io.UrlResource;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
 import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
-import com.github.nosan.embedded.cassandra.commons.util.StringUtils;
 
 /**
  * An {@link Artifact} that downloads an archive from the {@code Internet} and then extracts it to the {@code
- * destination} directory. Archive will be extracted and downloaded only once.
+ * destination} directory. Archive will be extracted and downloaded only once. An interrupted download is resumed on
+ * the next attempt if the server supports byte ranges, otherwise the archive is extracted straight from the response
+ * stream without a temporary file. The archive is verified against its {@code SHA-512} or {@code
+ * SHA-256} checksum while it is being extracted, a mismatch falls through to the next URL.
  *
  * @author Dmytro Nosan
  * @since 3.0.0
@@ -72,6 +70,27 @@ public final class RemoteArtifact implements Artifact {
 	@Nullable
 	private Path destination;
 
+	private int connections = 4;
+
+	@Nullable
+	private String checksum;
+
+	private long maxCacheSize = ArtifactCache.UNLIMITED;
+
+	private Duration hedgeDelay = Duration.ofSeconds(1);
+
+	@Nullable
+	private ArtifactListener listener;
+
+	private ArchiveEntryFilter entryFilter = ArchiveEntryFilter.runtimeOnly();
+
+	private boolean uncompressedLibraries;
+
+	@Nullable
+	private Path archiveDirectory;
+
+	private ArchiveFormat archiveFormat = ArchiveFormat.TAR;
+
 	/**
 	 * Constructs a new {@link RemoteArtifact} with the specified version.
 	 *
@@ -204,31 +223,216 @@ public final class RemoteArtifact implements Artifact {
 		this.connectTimeout = Objects.requireNonNull(connectTimeout, "'connectTimeout' must not be null");
 	}
 
+	/**
+	 * The maximum number of concurrent connections used to download an archive file. If the server supports byte
+	 * ranges, the archive file is split into ranges that are downloaded concurrently. Defaults to {@code 4}.
+	 *
+	 * @return the number of connections
+	 * @since 3.0.4
+	 */
+	public int getConnections() {
+		return this.connections;
+	}
+
+	/**
+	 * Sets the maximum number of concurrent connections used to download an archive file. {@code 1} disables ranged
+	 * downloads.
+	 *
+	 * @param connections the number of connections (must be positive)
+	 * @since 3.0.4
+	 */
+	public void setConnections(int connections) {
+		if (connections <= 0) {
+			throw new IllegalArgumentException("'connections' must be positive");
+		}
+		this.connections = connections;
+	}
+
+	/**
+	 * The expected {@code SHA-1}, {@code SHA-256} or {@code SHA-512} hash of the archive file. If not set, the hash is
+	 * read from the {@code .sha512} or {@code .sha256} file next to the archive file, if any.
+	 *
+	 * @return the hex-encoded hash
+	 * @since 3.0.4
+	 */
+	@Nullable
+	public String getChecksum() {
+		return this.checksum;
+	}
+
+	/**
+	 * Sets the expected {@code SHA-1}, {@code SHA-256} or {@code SHA-512} hash of the archive file. The algorithm is
+	 * determined by the length of the hash.
+	 *
+	 * @param checksum the hex-encoded hash
+	 * @since 3.0.4
+	 */
+	public void setChecksum(@Nullable String checksum) {
+		this.checksum = (checksum != null) ? Checksum.of(checksum).getHash() : null;
+	}
+
+	/**
+	 * The maximum size in bytes of all artifacts extracted into the {@code destination}. The least recently used
+	 * artifacts are deleted once the size is exceeded. Defaults to unlimited.
+	 *
+	 * @return the maximum cache size
+	 * @since 3.0.4
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Sets the maximum size in bytes of all artifacts extracted into the {@code destination}.
+	 *
+	 * @param maxCacheSize the maximum cache size (must be positive)
+	 * @since 3.0.4
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		if (maxCacheSize <= 0) {
+			throw new IllegalArgumentException("'maxCacheSize' must be positive");
+		}
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * The time to wait for the first byte of a mirror before the next mirror is requested as well. Mirrors are
+	 * ordered by their latency recorded in the previous downloads. Defaults to 1 second.
+	 *
+	 * @return the hedge delay
+	 * @since 3.0.4
+	 */
+	public Duration getHedgeDelay() {
+		return this.hedgeDelay;
+	}
+
+	/**
+	 * Sets the time to wait for the first byte of a mirror before the next mirror is requested as well.
+	 *
+	 * @param hedgeDelay the hedge delay
+	 * @since 3.0.4
+	 */
+	public void setHedgeDelay(Duration hedgeDelay) {
+		this.hedgeDelay = Objects.requireNonNull(hedgeDelay, "'hedgeDelay' must not be null");
+	}
+
+	/**
+	 * The listener that is notified about the lock wait time, the download progress and throughput, the chosen
+	 * mirror and the extraction throughput.
+	 *
+	 * @return the listener
+	 * @since 3.0.4
+	 */
+	@Nullable
+	public ArtifactListener getListener() {
+		return this.listener;
+	}
+
+	/**
+	 * Sets the listener that is notified about the lock wait time, the download progress and throughput, the chosen
+	 * mirror and the extraction throughput.
+	 *
+	 * @param listener the listener
+	 * @since 3.0.4
+	 */
+	public void setListener(@Nullable ArtifactListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * The filter that decides which entries of the archive are extracted. Defaults to
+	 * {@link ArchiveEntryFilter#runtimeOnly()}.
+	 *
+	 * @return the entry filter
+	 * @since 3.0.4
+	 */
+	public ArchiveEntryFilter getEntryFilter() {
+		return this.entryFilter;
+	}
+
+	/**
+	 * Sets the filter that decides which entries of the archive are extracted. Use {@link ArchiveEntryFilter#all()}
+	 * to extract the whole archive.
+	 *
+	 * @param entryFilter the entry filter
+	 * @since 3.0.4
+	 */
+	public void setEntryFilter(ArchiveEntryFilter entryFilter) {
+		this.entryFilter = Objects.requireNonNull(entryFilter, "'entryFilter' must not be null");
+	}
+
+	/**
+	 * Whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted, so
+	 * that classes are read without being inflated on every start. Defaults to {@code false}.
+	 *
+	 * @return {@code true} if jar files are stored uncompressed
+	 * @since 3.0.4
+	 */
+	public boolean isUncompressedLibraries() {
+		return this.uncompressedLibraries;
+	}
+
+	/**
+	 * Sets whether {@code lib/*.jar} files are rewritten with uncompressed entries once the artifact is extracted.
+	 * An artifact extracted with another setting is extracted again.
+	 *
+	 * @param uncompressedLibraries {@code true} if jar files should be stored uncompressed
+	 * @since 3.0.4
+	 */
+	public void setUncompressedLibraries(boolean uncompressedLibraries) {
+		this.uncompressedLibraries = uncompressedLibraries;
+	}
+
+	/**
+	 * The directory where an extracted artifact is kept repacked as {@code apache-cassandra-<version>-bin.tar} (see
+	 * {@link #getArchiveFormat()}). If the repacked archive already exists, it is extracted instead of downloading
+	 * and inflating the original archive. This is useful when {@code destination} does not survive, e.g. an ephemeral
+	 * workspace, but a small directory can be cached. The repacked archive contains only the entries accepted by the
+	 * {@link #getEntryFilter() entry filter}, it can also be used by {@link ArchiveArtifact}. Defaults to none.
+	 *
+	 * @return the archive directory
+	 * @since 3.0.4
+	 */
+	@Nullable
+	public Path getArchiveDirectory() {
+		return this.archiveDirectory;
+	}
+
+	/**
+	 * Sets the directory where an extracted artifact is kept repacked.
+	 *
+	 * @param archiveDirectory the archive directory
+	 * @since 3.0.4
+	 */
+	public void setArchiveDirectory(@Nullable Path archiveDirectory) {
+		this.archiveDirectory = archiveDirectory;
+	}
+
+	/**
+	 * The format of the repacked archive. Defaults to {@link ArchiveFormat#TAR}.
+	 *
+	 * @return the archive format
+	 * @since 3.0.4
+	 */
+	public ArchiveFormat getArchiveFormat() {
+		return this.archiveFormat;
+	}
+
+	/**
+	 * Sets the format of the repacked archive.
+	 *
+	 * @param archiveFormat the archive format
+	 * @since 3.0.4
+	 */
+	public void setArchiveFormat(ArchiveFormat archiveFormat) {
+		this.archiveFormat = Objects.requireNonNull(archiveFormat, "'archiveFormat' must not be null");
+	}
+
 	@Override
 	public Distribution getDistribution() throws IOException {
-		Path destination = getRealDestination();
-		Artifact artifact = new DefaultArtifact(this.version, destination);
-		if (!Files.exists(destination.resolve(".extracted"))) {
-			Files.createDirectories(destination);
-			Path lockFile = destination.resolve(".lock");
-			try (FileLock fileLock = FileLock.of(lockFile)) {
-				log.info("Acquires a lock to the file '{}' ...", lockFile);
-				if (!fileLock.tryLock(2, TimeUnit.MINUTES)) {
-					throw new IllegalStateException("File lock cannot be acquired for a file '" + lockFile + "'");
-				}
-				log.info("The lock to the file '{}' was acquired", lockFile);
-				if (!Files.exists(destination.resolve(".extracted"))) {
-					Resource resource = download();
-					log.info("Extracts '{}' into '{}' directory", resource, destination);
-					ArchiveResource archiveResource = new ArchiveResource(resource);
-					archiveResource.extract(destination);
-					Distribution distribution = artifact.getDistribution();
-					FileUtils.createIfNotExists(destination.resolve(".extracted"));
-					return distribution;
-				}
-			}
-		}
-		return artifact.getDistribution();
+		ArtifactStore store = new ArtifactStore(getRealDestination(), this.version, this.maxCacheSize,
+				this.entryFilter, this.uncompressedLibraries, this.listener, Duration.ofMinutes(2));
+		return store.getDistribution(this.version.toString(), new RemoteExtractor());
 	}
 
 	private Path getRealDestination() {
@@ -242,18 +446,77 @@ public final class RemoteArtifact implements Artifact {
 		return destination.resolve(".embedded-cassandra/artifact/remote/" + this.version);
 	}
 
-	private Resource download() throws IOException {
+	@Nullable
+	private Path getArchive() {
+		Path archiveDirectory = this.archiveDirectory;
+		if (archiveDirectory == null) {
+			return null;
+		}
+		return archiveDirectory.resolve(
+				String.format("apache-cassandra-%s-bin%s", this.version, this.archiveFormat.getExtension()));
+	}
+
+	@Nullable
+	private byte[] extractArchive(Path archive, Path directory, ArtifactListener listener) throws IOException {
+		if (!Files.isRegularFile(archive)) {
+			return null;
+		}
+		try {
+			byte[] digest = extract(new FileSystemResource(archive), null, directory, listener);
+			new DefaultArtifact(this.version, directory).getDistribution();
+			return digest;
+		}
+		catch (ClosedByInterruptException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			log.warn("Archive '" + archive + "' cannot be extracted, Apache Cassandra is downloaded instead", ex);
+			Files.deleteIfExists(archive);
+			clean(directory);
+			return null;
+		}
+	}
+
+	private void repack(Path directory, Path archive) {
+		try {
+			ArchivePacker.pack(directory, archive, this.archiveFormat);
+			log.info("Apache Cassandra '{}' is repacked into '{}'", this.version, archive);
+		}
+		catch (IOException ex) {
+			log.warn("Apache Cassandra '" + this.version + "' cannot be repacked into '" + archive + "'", ex);
+		}
+	}
+
+	private byte[] downloadAndExtract(Path downloads, Path directory, Path cacheDirectory, ArtifactListener listener)
+			throws IOException {
 		List<Exception> exceptions = new ArrayList<>();
 		List<URL> urls = this.urlFactory.create(this.version);
-		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy);
-		for (URL url : urls) {
+		FileDownloader downloader = new FileDownloader(this.readTimeout, this.connectTimeout, this.proxy,
+				this.connections);
+		MirrorStats stats = MirrorStats.load(cacheDirectory.resolve("mirrors.properties"));
+		MirrorSelector selector = new MirrorSelector(downloader, stats, this.hedgeDelay, Duration.ofSeconds(1));
+		for (URL url : selector.select(urls, downloads)) {
 			try {
-				return downloader.download(url, new DefaultProgressListener(url, this.version));
+				Resource resource = selector.download(url, downloads,
+						new DefaultProgressListener(url, this.version, listener));
+				try {
+					return extract(resource, getChecksum(downloader, url), directory, listener);
+				}
+				catch (Exception ex) {
+					if (resource instanceof FileSystemResource) {
+						Files.deleteIfExists(resource.toPath());
+					}
+					clean(directory);
+					throw ex;
+				}
 			}
 			catch (ClosedByInterruptException ex) {
 				throw ex;
 			}
 			catch (Exception ex) {
+				listener.onDownloadFailed(url, ex);
+				stats.recordFailure(url);
+				stats.save();
 				exceptions.add(ex);
 			}
 		}
@@ -262,13 +525,79 @@ public final class RemoteArtifact implements Artifact {
 		throw ex;
 	}
 
-	private interface ProgressListener {
+	@Nullable
+	private Checksum getChecksum(FileDownloader downloader, URL url) throws IOException {
+		if (this.checksum != null) {
+			return Checksum.of(this.checksum);
+		}
+		for (String algorithm : new String[]{"SHA-512", "SHA-256"}) {
+			URL checksumUrl = new URL(url + "." + algorithm.replace("-", "").toLowerCase(Locale.ENGLISH));
+			String content = downloader.fetch(checksumUrl);
+			Checksum checksum = (content != null) ? Checksum.parse(content, algorithm) : null;
+			if (checksum != null) {
+				return checksum;
+			}
+		}
+		log.warn("There is no checksum for '{}', the archive file is not verified", url);
+		return null;
+	}
 
-		void start();
+	private byte[] extract(Resource resource, @Nullable Checksum checksum, Path directory, ArtifactListener listener)
+			throws IOException {
+		log.info("Extracts '{}' into '{}' directory", resource, directory);
+		int threads = Runtime.getRuntime().availableProcessors();
+		ArchiveEntryFilter entryFilter = this.entryFilter;
+		long startTime = System.nanoTime();
+		// the archive file is read only once, digests are computed while the archive file is being extracted
+		DigestResource hashResource = new DigestResource(resource, DigestUtils.getDigest("SHA-256"));
+		DigestResource checksumResource = (checksum != null) ? new DigestResource(hashResource,
+				checksum.createMessageDigest()) : null;
+		new ArchiveResource((checksumResource != null) ? checksumResource : hashResource).extract(directory, threads,
+				entry -> entryFilter.accept(entry.getName()));
+		if (checksum != null) {
+			checksum.verify(checksumResource.digest(), resource);
+			log.info("{} checksum of '{}' is verified", checksum.getAlgorithm(), resource);
+		}
+		ArtifactListeners.extracted(listener, directory, Duration.ofNanos(System.nanoTime() - startTime));
+		return hashResource.digest();
+	}
+
+	private static void clean(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				FileUtils.delete(file);
+			}
+		}
+	}
 
-		void update(long readBytes, long totalBytes);
+	/**
+	 * Extracts the archive repacked into the {@code archiveDirectory}, if any, otherwise downloads the archive. The
+	 * {@code .download} directory of the version is kept until the archive is extracted, so that an interrupted
+	 * download is resumed.
+	 */
+	private final class RemoteExtractor implements ArtifactStore.Extractor {
+
+		@Override
+		public byte[] extract(Path directory, ArtifactListener listener) throws IOException {
+			Path versionDirectory = directory.getParent();
+			Path downloads = versionDirectory.resolve(".download");
+			Path archive = getArchive();
+			byte[] digest = (archive != null) ? extractArchive(archive, directory, listener) : null;
+			if (digest == null) {
+				digest = downloadAndExtract(downloads, directory, versionDirectory.getParent().getParent(), listener);
+			}
+			new DefaultArtifact(RemoteArtifact.this.version, directory).getDistribution();
+			FileUtils.delete(downloads);
+			return digest;
+		}
 
-		void finish();
+		@Override
+		public void extracted(Path directory) {
+			Path archive = getArchive();
+			if (archive != null && !Files.exists(archive)) {
+				repack(directory, archive);
+			}
+		}
 
 	}
 
@@ -280,123 +609,45 @@ public final class RemoteArtifact implements Artifact {
 
 		private final Version version;
 
+		private final ArtifactListener listener;
+
+		private long startTime;
+
+		private long readBytes;
+
 		private long lastPercent;
 
-		DefaultProgressListener(URL url, Version version) {
+		DefaultProgressListener(URL url, Version version, ArtifactListener listener) {
 			this.url = url;
 			this.version = version;
+			this.listener = listener;
 		}
 
 		@Override
 		public void start() {
+			this.startTime = System.nanoTime();
 			log.info("Downloading Apache Cassandra '{}' from '{}'", this.version, this.url);
+			this.listener.onDownloadStarted(this.url);
 		}
 
 		@Override
 		public void update(long readBytes, long totalBytes) {
+			this.readBytes = readBytes;
+			double bytesPerSecond = readBytes * 1e9 / Math.max(System.nanoTime() - this.startTime, 1);
 			long percent = readBytes * 100 / totalBytes;
 			if (percent - this.lastPercent >= 10) {
 				this.lastPercent = percent;
-				log.info("Downloaded {}MB / {}MB  {}%", (readBytes / MB), (totalBytes / MB), percent);
+				log.info("Downloaded {}MB / {}MB  {}%  {}KB/s", (readBytes / MB), (totalBytes / MB), percent,
+						Math.round(bytesPerSecond / 1024));
 			}
+			this.listener.onDownloadProgress(this.url, readBytes, totalBytes, bytesPerSecond);
 		}
 
 		@Override
 		public void finish() {
 			log.info("Apache Cassandra '{}' is downloaded from '{}'", this.version, this.url);
-		}
-
-	}
-
-	private static final class FileDownloader {
-
-		private final Duration readTimeout;
-
-		private final Duration connectTimeout;
-
-		@Nullable
-		private final Proxy proxy;
-
-		FileDownloader(Duration readTimeout, Duration connectTimeout, @Nullable Proxy proxy) {
-			this.readTimeout = readTimeout;
-			this.connectTimeout = connectTimeout;
-			this.proxy = proxy;
-		}
-
-		Resource download(URL url, ProgressListener progressListener) throws IOException {
-			URLConnection connection = connect(url);
-			try (InputStream is = connection.getInputStream()) {
-				long totalSize = connection.getContentLengthLong();
-				Path tempFile = createTempFile(url);
-				progressListener.start();
-				try (OutputStream os = Files.newOutputStream(tempFile)) {
-					byte[] buffer = new byte[8192];
-					long readBytes = 0;
-					int read;
-					while ((read = is.read(buffer)) != -1) {
-						os.write(buffer, 0, read);
-						readBytes += read;
-						if (totalSize > 0 && readBytes > 0) {
-							progressListener.update(readBytes, totalSize);
-						}
-					}
-				}
-				if (Thread.interrupted()) {
-					throw new ClosedByInterruptException();
-				}
-				progressListener.finish();
-				return new FileSystemResource(tempFile);
-			}
-		}
-
-		private URLConnection connect(URL url) throws IOException {
-			int maxRedirects = 10;
-			URL target = url;
-			for (; ; ) {
-				URLConnection connection = connect(target, this.readTimeout, this.connectTimeout, this.proxy);
-				if (connection instanceof HttpURLConnection) {
-					HttpURLConnection httpConnection = (HttpURLConnection) connection;
-					httpConnection.setInstanceFollowRedirects(false);
-					int status = httpConnection.getResponseCode();
-					if (status >= 300 && status <= 307 && status != 306 && status != 304) {
-						if (maxRedirects < 0) {
-							throw new IOException("Too many redirects for URL '" + url + "'");
-						}
-						String location = httpConnection.getHeaderField("Location");
-						if (location != null) {
-							httpConnection.disconnect();
-							maxRedirects--;
-							target = new URL(url, location);
-							continue;
-						}
-					}
-					if (status == HttpURLConnection.HTTP_OK) {
-						return connection;
-					}
-					throw new IOException("HTTP Status '" + status + "' is invalid for URL '" + url + "'");
-				}
-				return connection;
-			}
-
-		}
-
-		private static URLConnection connect(URL url, Duration readTimeout, Duration connectTimeout,
-				@Nullable Proxy proxy) throws IOException {
-			URLConnection connection = (proxy != null) ? url.openConnection(proxy) : url.openConnection();
-			connection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
-			connection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
-			return connection;
-		}
-
-		private static Path createTempFile(URL url) throws IOException {
-			String fileName = new UrlResource(url).getFileName();
-			if (!StringUtils.hasText(fileName)) {
-				throw new IllegalArgumentException(
-						String.format("There is no way to determine a file name from a '%s'", url));
-			}
-			Path tempFile = Files.createTempFile("", "-" + fileName);
-			tempFile.toFile().deleteOnExit();
-			return tempFile;
+			this.listener.onDownloadFinished(this.url, this.readBytes,
+					Duration.ofNanos(System.nanoTime() - this.startTime));
 		}
 
 	}
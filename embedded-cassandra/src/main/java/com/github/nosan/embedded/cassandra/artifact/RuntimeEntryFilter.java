@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.github.nosan.embedded.cassandra.annotations.Nullable;
+
+/**
+ * {@link ArchiveEntryFilter} that accepts only the entries needed to run Apache Cassandra on the given operating
+ * system. Entries are matched either right below the root directory of the archive or right below the archive
+ * itself, so that archives without a root directory are trimmed as well.
+ *
+ * @author Dmytro Nosan
+ * @see ArchiveEntryFilter#runtimeOnly()
+ */
+final class RuntimeEntryFilter implements ArchiveEntryFilter {
+
+	static final RuntimeEntryFilter INSTANCE = new RuntimeEntryFilter(System.getProperty("os.name"));
+
+	private static final Set<String> EXCLUDED_DIRECTORIES = Collections.unmodifiableSet(
+			new HashSet<>(Arrays.asList("javadoc", "doc", "pylib", "tools")));
+
+	private final boolean windows;
+
+	@Nullable
+	private final String platform;
+
+	/**
+	 * Constructs a new {@link RuntimeEntryFilter}.
+	 *
+	 * @param osName the name of the operating system
+	 */
+	RuntimeEntryFilter(@Nullable String osName) {
+		String name = (osName != null) ? osName.toLowerCase(Locale.ENGLISH) : "";
+		this.windows = name.contains("windows");
+		this.platform = getSigarPlatform(name);
+	}
+
+	@Override
+	public boolean accept(String name) {
+		String path = name.startsWith("./") ? name.substring(2) : name;
+		String[] segments = path.split("/");
+		int directories = path.endsWith("/") ? segments.length : segments.length - 1;
+		for (int i = 0; i < Math.min(2, directories); i++) {
+			if (EXCLUDED_DIRECTORIES.contains(segments[i].toLowerCase(Locale.ENGLISH))) {
+				return false;
+			}
+		}
+		if (directories == segments.length) {
+			return true;
+		}
+		String fileName = segments[segments.length - 1].toLowerCase(Locale.ENGLISH);
+		if (!this.windows && (fileName.endsWith(".ps1") || fileName.endsWith(".bat"))) {
+			return false;
+		}
+		if (this.platform != null && segments.length >= 3 && segments[segments.length - 2].equals("sigar-bin")
+				&& segments[segments.length - 3].equals("lib")) {
+			return fileName.contains(this.platform);
+		}
+		return true;
+	}
+
+	@Override
+	public String getId() {
+		return "runtime" + (this.windows ? "-windows" : "") + ((this.platform != null) ? "-" + this.platform : "");
+	}
+
+	@Nullable
+	private static String getSigarPlatform(String name) {
+		if (name.contains("windows")) {
+			return "winnt";
+		}
+		if (name.contains("mac") || name.contains("darwin")) {
+			return "macosx";
+		}
+		if (name.contains("linux")) {
+			return "linux";
+		}
+		if (name.contains("freebsd")) {
+			return "freebsd";
+		}
+		if (name.contains("sunos") || name.contains("solaris")) {
+			return "solaris";
+		}
+		if (name.contains("aix")) {
+			return "aix";
+		}
+		if (name.contains("hp-ux")) {
+			return "hpux";
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DataTemplate}.
+ *
+ * @author Dmytro Nosan
+ */
+class DataTemplateTests {
+
+	private static final Version VERSION = Version.of("3.11.6");
+
+	@Test
+	void templateKey(@TempDir Path temporaryFolder) throws Exception {
+		Resource config = createConfig(temporaryFolder, "cluster_name: 'Test Cluster'\nnative_transport_port: 9042");
+		Map<String, Object> properties = new LinkedHashMap<>();
+		DataTemplate template = create(temporaryFolder, config, properties);
+		assertThat(template.getDirectory().getParent()).isEqualTo(temporaryFolder.resolve("templates/3.11.6"));
+		properties.put("native_transport_port", 0);
+		properties.put("rpc_address", "127.0.0.1");
+		assertThat(create(temporaryFolder, config, properties).getDirectory()).isEqualTo(template.getDirectory());
+		properties.put("cluster_name", "My Cluster");
+		assertThat(create(temporaryFolder, config, properties).getDirectory()).isNotEqualTo(template.getDirectory());
+	}
+
+	@Test
+	void externalDataDirectory(@TempDir Path temporaryFolder) throws Exception {
+		Resource config = createConfig(temporaryFolder, "data_file_directories:\n  - /var/lib/cassandra");
+		assertThat(create(temporaryFolder, config, Collections.emptyMap())).isNull();
+	}
+
+	@Test
+	void seedsOfOtherHosts(@TempDir Path temporaryFolder) throws Exception {
+		String seedProvider = "seed_provider:\n  - class_name: org.apache.cassandra.locator.SimpleSeedProvider\n"
+				+ "    parameters:\n      - seeds: \"%s\"";
+		Resource config = createConfig(temporaryFolder, String.format(seedProvider, "127.0.0.1, localhost:7000"));
+		assertThat(create(temporaryFolder, config, Collections.emptyMap())).isNotNull();
+		config = createConfig(temporaryFolder, String.format(seedProvider, "127.0.0.1,192.0.2.1"));
+		assertThat(create(temporaryFolder, config, Collections.emptyMap())).isNull();
+	}
+
+	@Test
+	void storeAndRestore(@TempDir Path temporaryFolder) throws Exception {
+		Resource config = createConfig(temporaryFolder, "cluster_name: 'Test Cluster'");
+		DataTemplate template = create(temporaryFolder, config, Collections.emptyMap());
+		Path workingDirectory = temporaryFolder.resolve("working-1");
+		assertThat(template.restore(workingDirectory)).isFalse();
+		write(workingDirectory.resolve("data/data/system_schema/tables-afddfb9d/md-1-big-Data.db"), "sstable");
+		write(workingDirectory.resolve("data/data/system/local-7ad54392/md-1-big-Data.db"), "local");
+		write(workingDirectory.resolve("data/data/system/peers-37f71aca/md-1-big-Data.db"), "peers");
+		write(workingDirectory.resolve("data/saved_caches/KeyCache-e.db"), "cache");
+		write(workingDirectory.resolve("data/commitlog/CommitLog-6-1.log"), "commitlog");
+		template.store(workingDirectory);
+		// the first stored template is kept
+		template.store(workingDirectory);
+		Path target = temporaryFolder.resolve("working-2");
+		Files.createDirectories(target.resolve("data/hints"));
+		assertThat(template.restore(target)).isTrue();
+		assertThat(target.resolve("data/hints")).doesNotExist();
+		assertThat(target.resolve("data/data/system_schema/tables-afddfb9d/md-1-big-Data.db")).hasContent("sstable");
+		assertThat(target.resolve("data/data/system")).isDirectory();
+		assertThat(target.resolve("data/data/system/local-7ad54392")).doesNotExist();
+		assertThat(target.resolve("data/data/system/peers-37f71aca")).doesNotExist();
+		assertThat(target.resolve("data/commitlog")).isDirectory();
+		assertThat(target.resolve("data/commitlog/CommitLog-6-1.log")).doesNotExist();
+		assertThat(target.resolve("data/saved_caches/KeyCache-e.db")).hasContent("cache");
+		assertThat(Files.isSameFile(target.resolve("data/data/system_schema/tables-afddfb9d/md-1-big-Data.db"),
+				template.getDirectory().resolve("data/system_schema/tables-afddfb9d/md-1-big-Data.db"))).isTrue();
+		assertThat(Files.isSameFile(target.resolve("data/saved_caches/KeyCache-e.db"),
+				template.getDirectory().resolve("saved_caches/KeyCache-e.db"))).isFalse();
+	}
+
+	private static DataTemplate create(Path temporaryFolder, Resource config, Map<String, Object> configProperties)
+			throws Exception {
+		return DataTemplate.of(temporaryFolder.resolve("templates"), VERSION, config, null, null, configProperties,
+				Collections.emptyMap());
+	}
+
+	private static void write(Path file, String content) throws Exception {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Resource createConfig(Path temporaryFolder, String content) throws Exception {
+		Path config = Files.createTempFile(temporaryFolder, "", "-cassandra.yaml");
+		Files.write(config, content.getBytes(StandardCharsets.UTF_8));
+		return new FileSystemResource(config);
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EmbeddedCassandraDatabase}.
+ *
+ * @author Dmytro Nosan
+ */
+class EmbeddedCassandraDatabaseTests {
+
+	private static final Version VERSION = Version.of("3.11.6");
+
+	private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+	private final List<String> events = new CopyOnWriteArrayList<>();
+
+	private final StorageService storageService = new StorageService(this.events);
+
+	private Registry registry;
+
+	private JMXConnectorServer connectorServer;
+
+	private int port;
+
+	private Path temporaryFolder;
+
+	@BeforeEach
+	void setUp(@TempDir Path temporaryFolder) throws Exception {
+		this.temporaryFolder = temporaryFolder;
+		try (ServerSocket ss = new ServerSocket(0)) {
+			this.port = ss.getLocalPort();
+		}
+		this.registry = LocateRegistry.createRegistry(this.port);
+		this.server.registerMBean(new StandardMBean(this.storageService, StorageServiceMBean.class),
+				new ObjectName("org.apache.cassandra.db:type=StorageService"));
+		JMXServiceURL url = new JMXServiceURL(
+				String.format("service:jmx:rmi:///jndi/rmi://127.0.0.1:%d/jmxrmi", this.port));
+		this.connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(url, null, this.server);
+		this.connectorServer.start();
+		write(this.temporaryFolder.resolve("cassandra/data/data/system_schema/tables-afddfb9d/md-1-big-Data.db"));
+		write(this.temporaryFolder.resolve("cassandra/data/data/system/local-7ad54392/md-1-big-Data.db"));
+		write(this.temporaryFolder.resolve("cassandra/data/commitlog/CommitLog-6-1.log"));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.connectorServer.stop();
+		UnicastRemoteObject.unexportObject(this.registry, true);
+	}
+
+	@Test
+	void storeTemplate() throws Exception {
+		DataTemplate template = createTemplate();
+		EmbeddedCassandraDatabase database = createDatabase("first", template);
+		database.start();
+		assertThat(this.events).containsExactly("start", "drain", "stop", "start");
+		assertThat(database.getNodeOperations()).isNotNull();
+		assertThat(database.getFlightRecorder()).isNotNull();
+		assertThat(template.getDirectory().resolve("data/system_schema/tables-afddfb9d/md-1-big-Data.db"))
+				.exists();
+		assertThat(template.getDirectory().resolve("data/system/local-7ad54392")).doesNotExist();
+		assertThat(template.getDirectory().resolve("commitlog/CommitLog-6-1.log")).doesNotExist();
+		database.stop();
+		this.events.clear();
+		EmbeddedCassandraDatabase clone = createDatabase("second", template);
+		clone.start();
+		assertThat(this.events).containsExactly("start");
+		assertThat(this.temporaryFolder.resolve("second/data/data/system/local-7ad54392")).doesNotExist();
+		clone.stop();
+	}
+
+	@Test
+	void keepRunningWhenNotDrained() throws Exception {
+		this.storageService.fail = true;
+		DataTemplate template = createTemplate();
+		EmbeddedCassandraDatabase database = createDatabase("first", template);
+		database.start();
+		assertThat(this.events).containsExactly("start", "drain");
+		assertThat(database.getNodeOperations()).isNotNull();
+		assertThat(database.getFlightRecorder()).isNotNull();
+		assertThat(template.getDirectory()).doesNotExist();
+		database.stop();
+		assertThat(this.events).containsExactly("start", "drain", "stop");
+	}
+
+	@Test
+	void restartWhenNotStored() throws Exception {
+		DataTemplate template = createTemplate();
+		// the template directory cannot be created
+		write(template.getDirectory().getParent());
+		EmbeddedCassandraDatabase database = createDatabase("first", template);
+		database.start();
+		assertThat(this.events).containsExactly("start", "drain", "stop", "start");
+		assertThat(database.getNodeOperations()).isNotNull();
+		assertThat(database.getFlightRecorder()).isNotNull();
+		assertThat(Files.isDirectory(template.getDirectory())).isFalse();
+		database.stop();
+	}
+
+	private DataTemplate createTemplate() throws Exception {
+		Path config = this.temporaryFolder.resolve("cassandra.yaml");
+		Files.write(config, "cluster_name: 'Test Cluster'".getBytes(StandardCharsets.UTF_8));
+		return DataTemplate.of(this.temporaryFolder.resolve("templates"), VERSION, new FileSystemResource(config),
+				null, null, Collections.emptyMap(), Collections.emptyMap());
+	}
+
+	private EmbeddedCassandraDatabase createDatabase(String name, DataTemplate template) {
+		return new EmbeddedCassandraDatabase(name, VERSION, this.temporaryFolder.resolve("cassandra"),
+				this.temporaryFolder.resolve(name), true, LoggerFactory.getLogger(name), Duration.ofSeconds(10),
+				null, null, null, null, null, null, null, new TestCassandraNode(this.events, this.port), template);
+	}
+
+	private static void write(Path file) throws Exception {
+		Files.createDirectories(file.getParent());
+		Files.write(file, file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	public interface StorageServiceMBean {
+
+		void drain();
+
+	}
+
+	static final class StorageService implements StorageServiceMBean {
+
+		private final List<String> events;
+
+		private volatile boolean fail;
+
+		StorageService(List<String> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void drain() {
+			this.events.add("drain");
+			if (this.fail) {
+				throw new IllegalStateException("Node is being drained");
+			}
+		}
+
+	}
+
+	static final class TestCassandraNode implements CassandraNode {
+
+		private final List<String> events;
+
+		private final int jmxPort;
+
+		private volatile boolean alive;
+
+		TestCassandraNode(List<String> events, int jmxPort) {
+			this.events = events;
+			this.jmxPort = jmxPort;
+		}
+
+		@Override
+		public void start() {
+			this.events.add("start");
+			this.alive = true;
+		}
+
+		@Override
+		public void stop() {
+			this.events.add("stop");
+			this.alive = false;
+		}
+
+		@Override
+		public boolean isAlive() {
+			return this.alive;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			String output = String.format("Starting listening for CQL clients on localhost/127.0.0.1:9042"
+					+ " (unencrypted)%nNot starting RPC server as requested%n");
+			return new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public int getJmxPort() {
+			return this.jmxPort;
+		}
+
+		@Override
+		public long getPid() {
+			return -1;
+		}
+
+	}
+
+}
@@ -21,8 +21,11 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -92,6 +95,45 @@ class EmbeddedCassandraFactoryTests {
 
 	}
 
+	@Test
+	void testDefaultJavaHome(@TempDir Path temporaryFolder) {
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("3.11.6"), temporaryFolder));
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat(node).hasFieldOrPropertyWithValue("environmentVariables",
+				Collections.singletonMap("JAVA_HOME", Paths.get(System.getProperty("java.home"))));
+	}
+
+	@Test
+	void testJavaHomeEnvironmentVariable(@TempDir Path temporaryFolder) throws IOException {
+		Path javaHome = Files.createDirectory(temporaryFolder.resolve("jdk"));
+		Files.write(javaHome.resolve("release"), Collections.singletonList("JAVA_VERSION=\"1.8.0_252\""));
+		this.cassandraFactory.getEnvironmentVariables().put("JAVA_HOME", javaHome);
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("3.11.6"), temporaryFolder));
+		this.cassandraFactory.setGcLogging(true);
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat(node).hasFieldOrPropertyWithValue("environmentVariables",
+				Collections.singletonMap("JAVA_HOME", javaHome));
+		assertThat((List<String>) ReflectionTestUtils.getField(node, "jvmOptions"))
+				.anyMatch(option -> option.startsWith("-Xloggc:"));
+	}
+
+	@Test
+	@DisabledOnOs(OS.WINDOWS)
+	void testJavaHomeWithoutRelease(@TempDir Path temporaryFolder) throws IOException {
+		Path java = Files.createDirectories(temporaryFolder.resolve("jdk/bin")).resolve("java");
+		Files.write(java, Arrays.asList("#!/bin/sh", "echo 'openjdk version \"1.8.0_252\"' >&2"));
+		assertThat(java.toFile().setExecutable(true)).isTrue();
+		this.cassandraFactory.setJavaHome(temporaryFolder.resolve("jdk"));
+		this.cassandraFactory.setArtifact(() -> new DefaultDistribution(Version.of("3.11.6"), temporaryFolder));
+		this.cassandraFactory.setGcLogging(true);
+		Cassandra cassandra = this.cassandraFactory.create();
+		Object node = ReflectionTestUtils.getField(ReflectionTestUtils.getField(cassandra, "database"), "node");
+		assertThat((List<String>) ReflectionTestUtils.getField(node, "jvmOptions"))
+				.anyMatch(option -> option.startsWith("-Xloggc:"));
+	}
+
 	@Test
 	void testLogger() {
 		Logger mylogger = LoggerFactory.getLogger("mylogger");
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FileGcLog}.
+ *
+ * @author Dmytro Nosan
+ */
+class FileGcLogTests {
+
+	@Test
+	void parseUnified() {
+		GcSummary summary = FileGcLog.parse(Arrays.asList(
+				"[0.010s][info][gc] Using G1",
+				"[1.000s][info][gc] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 24M->4M(256M) 5.000ms",
+				"[1.500s][info][gc,start] GC(1) Pause Young (Normal) (G1 Evacuation Pause)",
+				"[1.510s][info][gc] GC(1) Pause Young (Normal) (G1 Evacuation Pause) 30M->6M(256M) 10.000ms",
+				"[2.000s][info][gc] GC(2) Pause Full (System.gc()) 16M->2M(256M) 50.000ms",
+				"[2.100s][info][gc] GC(3) Pause Remark 10M->10M(256M) 1.000ms"));
+		assertThat(summary.getPauses()).isEqualTo(4);
+		assertThat(summary.getFullPauses()).isEqualTo(1);
+		assertThat(summary.getTotalPause()).isEqualTo(Duration.ofMillis(66));
+		assertThat(summary.getMaxPause()).isEqualTo(Duration.ofMillis(50));
+		assertThat(summary.getP50Pause()).isEqualTo(Duration.ofMillis(5));
+		assertThat(summary.getP99Pause()).isEqualTo(Duration.ofMillis(50));
+		assertThat(summary.getUptime()).isEqualTo(Duration.ofMillis(2100));
+		// 24M + (30M - 4M) + (16M - 6M) + (10M - 2M)
+		assertThat(summary.getAllocatedBytes()).isEqualTo(68L * 1024 * 1024);
+	}
+
+	@Test
+	void parseLegacy() {
+		GcSummary summary = FileGcLog.parse(Arrays.asList(
+				"OpenJDK 64-Bit Server VM (25.252-b09)",
+				"1.000: [GC (Allocation Failure)  8192K->1024K(1015808K), 0.0100000 secs]",
+				"2.000: [Full GC (System.gc())  4096K->512K(1015808K), 0.1000000 secs]"));
+		assertThat(summary.getPauses()).isEqualTo(2);
+		assertThat(summary.getFullPauses()).isEqualTo(1);
+		assertThat(summary.getMaxPause()).isEqualTo(Duration.ofMillis(100));
+		assertThat(summary.getP50Pause()).isEqualTo(Duration.ofMillis(10));
+		assertThat(summary.getAllocatedBytes()).isEqualTo((8192L + 3072L) * 1024);
+		assertThat(summary.getAllocationRate()).isEqualTo((8192L + 3072L) * 1024 / 2);
+	}
+
+	@Test
+	void noFile(@TempDir Path directory) throws Exception {
+		GcSummary summary = new FileGcLog(directory.resolve("gc.log")).getSummary();
+		assertThat(summary.getPauses()).isZero();
+		assertThat(summary.getMaxPause()).isEqualTo(Duration.ZERO);
+		assertThat(summary.getAllocationRate()).isZero();
+	}
+
+	@Test
+	void readFile(@TempDir Path directory) throws Exception {
+		Path file = directory.resolve("gc.log");
+		Files.write(file, Arrays.asList("[0.500s][info][gc] GC(0) Pause Young (Normal) (G1 Evacuation Pause) "
+				+ "12M->2M(128M) 2,500ms"));
+		GcSummary summary = new FileGcLog(file).getSummary();
+		assertThat(summary.getPauses()).isEqualTo(1);
+		assertThat(summary.getMaxPause()).isEqualTo(Duration.ofMillis(2).plusNanos(500_000));
+		assertThat(summary.toString()).contains("pauses=1", "allocationRate=24MB/s");
+	}
+
+	@Test
+	void jvmOptions(@TempDir Path directory) {
+		Path file = directory.resolve("gc.log");
+		assertThat(FileGcLog.getJvmOptions(file, 11)).containsExactly("-Xlog:gc:file=" + file + ":uptime,level,tags");
+		assertThat(FileGcLog.getJvmOptions(file, 8)).contains("-Xloggc:" + file, "-XX:+PrintGCTimeStamps",
+				"-XX:-PrintGCDetails");
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JmxFlightRecorder}.
+ *
+ * @author Dmytro Nosan
+ */
+class JmxFlightRecorderTests {
+
+	private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+	private final DiagnosticCommand diagnosticCommand = new DiagnosticCommand();
+
+	private Registry registry;
+
+	private JMXConnectorServer connectorServer;
+
+	private int port;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		try (ServerSocket ss = new ServerSocket(0)) {
+			this.port = ss.getLocalPort();
+		}
+		this.registry = LocateRegistry.createRegistry(this.port);
+		this.server.registerMBean(new StandardMBean(this.diagnosticCommand, DiagnosticCommandMBean.class),
+				new ObjectName("com.sun.management:type=DiagnosticCommand"));
+		JMXServiceURL url = new JMXServiceURL(
+				String.format("service:jmx:rmi:///jndi/rmi://127.0.0.1:%d/jmxrmi", this.port));
+		this.connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(url, null, this.server);
+		this.connectorServer.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.connectorServer.stop();
+		UnicastRemoteObject.unexportObject(this.registry, true);
+	}
+
+	@Test
+	void startDumpStop() {
+		Path file = Paths.get("test.jfr");
+		try (JmxNodeOperations operations = createOperations()) {
+			JmxFlightRecorder recorder = new JmxFlightRecorder(operations);
+			recorder.start("test", "profile");
+			recorder.dump("test", file);
+			recorder.stop("test", file);
+			recorder.start("other", null);
+			recorder.stop("other", null);
+		}
+		assertThat(this.diagnosticCommand.invocations).containsExactly("jfrStart [name=test, settings=profile]",
+				"jfrDump [name=test, filename=" + file.toAbsolutePath() + "]",
+				"jfrStop [name=test, filename=" + file.toAbsolutePath() + "]", "jfrStart [name=other]",
+				"jfrStop [name=other]");
+	}
+
+	@Test
+	void failWhenCommandFails() {
+		try (JmxNodeOperations operations = createOperations()) {
+			JmxFlightRecorder recorder = new JmxFlightRecorder(operations);
+			assertThatThrownBy(() -> recorder.start("fail", null)).isInstanceOf(CassandraException.class)
+					.hasMessageContaining("Command 'jfrStart' cannot be executed");
+		}
+	}
+
+	@Test
+	void jvmOption() {
+		Path file = Paths.get("recording.jfr");
+		assertThat(JmxFlightRecorder.getJvmOption("test", file)).isEqualTo(
+				"-XX:StartFlightRecording=name=test,settings=profile,dumponexit=true,filename=recording.jfr");
+	}
+
+	private JmxNodeOperations createOperations() {
+		return new JmxNodeOperations(Version.of("3.11.6"), InetAddress.getLoopbackAddress(), this.port);
+	}
+
+	public interface DiagnosticCommandMBean {
+
+		String jfrStart(String[] arguments);
+
+		String jfrDump(String[] arguments);
+
+		String jfrStop(String[] arguments);
+
+	}
+
+	static final class DiagnosticCommand implements DiagnosticCommandMBean {
+
+		private final List<String> invocations = new ArrayList<>();
+
+		@Override
+		public String jfrStart(String[] arguments) {
+			if (Arrays.asList(arguments).contains("name=fail")) {
+				throw new IllegalStateException("Flight Recorder is not available");
+			}
+			this.invocations.add("jfrStart " + Arrays.toString(arguments));
+			return "Started recording";
+		}
+
+		@Override
+		public String jfrDump(String[] arguments) {
+			this.invocations.add("jfrDump " + Arrays.toString(arguments));
+			return "";
+		}
+
+		@Override
+		public String jfrStop(String[] arguments) {
+			this.invocations.add("jfrStop " + Arrays.toString(arguments));
+			return "";
+		}
+
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.CassandraException;
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link JmxNodeOperations}.
+ *
+ * @author Dmytro Nosan
+ */
+class JmxNodeOperationsTests {
+
+	private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+	private final StorageService storageService = new StorageService();
+
+	private final CompactionManager compactionManager = new CompactionManager();
+
+	private Registry registry;
+
+	private JMXConnectorServer connectorServer;
+
+	private int port;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		try (ServerSocket ss = new ServerSocket(0)) {
+			this.port = ss.getLocalPort();
+		}
+		this.registry = LocateRegistry.createRegistry(this.port);
+		this.server.registerMBean(new StandardMBean(this.storageService, StorageServiceMBean.class),
+				new ObjectName("org.apache.cassandra.db:type=StorageService"));
+		this.server.registerMBean(new StandardMBean(this.compactionManager, CompactionManagerMBean.class),
+				new ObjectName("org.apache.cassandra.db:type=CompactionManager"));
+		JMXServiceURL url = new JMXServiceURL(
+				String.format("service:jmx:rmi:///jndi/rmi://127.0.0.1:%d/jmxrmi", this.port));
+		this.connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(url, null, this.server);
+		this.connectorServer.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.connectorServer.stop();
+		UnicastRemoteObject.unexportObject(this.registry, true);
+	}
+
+	@Test
+	void invokeStorageServiceOperations() {
+		try (JmxNodeOperations operations = createOperations("3.11.6")) {
+			operations.flush("test", "users");
+			operations.compact("test");
+			operations.cleanup("test", "users", "roles");
+			operations.disableAutoCompaction("test");
+			operations.enableAutoCompaction("test", "users");
+			operations.setCompactionThroughput(64);
+			assertThat(operations.getCompactionThroughput()).isEqualTo(64);
+			operations.drain();
+		}
+		assertThat(this.storageService.invocations).containsExactly("forceKeyspaceFlush test [users]",
+				"forceKeyspaceCompaction false test []", "forceKeyspaceCleanup 0 test [users, roles]",
+				"disableAutoCompaction test []", "enableAutoCompaction test [users]", "drain");
+	}
+
+	@Test
+	void invokeLegacyStorageServiceOperations() {
+		try (JmxNodeOperations operations = createOperations("2.1.20")) {
+			operations.compact("test", "users");
+			operations.cleanup("test");
+		}
+		assertThat(this.storageService.invocations).containsExactly("forceKeyspaceCompaction test [users]",
+				"forceKeyspaceCleanup test []");
+	}
+
+	@Test
+	void invokeCompactionManagerOperations() {
+		try (JmxNodeOperations operations = createOperations("3.11.6")) {
+			operations.stopCompaction("COMPACTION");
+		}
+		assertThat(this.compactionManager.invocations).containsExactly("stopCompaction COMPACTION");
+	}
+
+	@Test
+	void reuseConnection() throws Exception {
+		try (JmxNodeOperations operations = createOperations("3.11.6")) {
+			assertThat(operations.getConnection()).isSameAs(operations.getConnection());
+		}
+	}
+
+	@Test
+	void failWhenNotAvailable() throws Exception {
+		this.connectorServer.stop();
+		try (JmxNodeOperations operations = createOperations("3.11.6")) {
+			assertThatThrownBy(operations::drain).isInstanceOf(CassandraException.class)
+					.hasMessageContaining("Operation 'drain' cannot be invoked");
+		}
+	}
+
+	private JmxNodeOperations createOperations(String version) {
+		return new JmxNodeOperations(Version.of(version), InetAddress.getLoopbackAddress(), this.port);
+	}
+
+	public interface StorageServiceMBean {
+
+		void forceKeyspaceFlush(String keyspaceName, String... tableNames);
+
+		void forceKeyspaceCompaction(boolean splitOutput, String keyspaceName, String... tableNames);
+
+		void forceKeyspaceCompaction(String keyspaceName, String... tableNames);
+
+		int forceKeyspaceCleanup(int jobs, String keyspaceName, String... tableNames);
+
+		void forceKeyspaceCleanup(String keyspaceName, String... tableNames);
+
+		void disableAutoCompaction(String ks, String... tables);
+
+		void enableAutoCompaction(String ks, String... tables);
+
+		void setCompactionThroughputMbPerSec(int value);
+
+		int getCompactionThroughputMbPerSec();
+
+		void drain();
+
+	}
+
+	public interface CompactionManagerMBean {
+
+		void stopCompaction(String type);
+
+	}
+
+	static final class StorageService implements StorageServiceMBean {
+
+		private final List<String> invocations = new ArrayList<>();
+
+		private int compactionThroughput = 16;
+
+		@Override
+		public void forceKeyspaceFlush(String keyspaceName, String... tableNames) {
+			this.invocations.add("forceKeyspaceFlush " + keyspaceName + " " + Arrays.toString(tableNames));
+		}
+
+		@Override
+		public void forceKeyspaceCompaction(boolean splitOutput, String keyspaceName, String... tableNames) {
+			this.invocations.add("forceKeyspaceCompaction " + splitOutput + " " + keyspaceName + " " + Arrays
+					.toString(tableNames));
+		}
+
+		@Override
+		public void forceKeyspaceCompaction(String keyspaceName, String... tableNames) {
+			this.invocations.add("forceKeyspaceCompaction " + keyspaceName + " " + Arrays.toString(tableNames));
+		}
+
+		@Override
+		public int forceKeyspaceCleanup(int jobs, String keyspaceName, String... tableNames) {
+			this.invocations.add("forceKeyspaceCleanup " + jobs + " " + keyspaceName + " " + Arrays
+					.toString(tableNames));
+			return 0;
+		}
+
+		@Override
+		public void forceKeyspaceCleanup(String keyspaceName, String... tableNames) {
+			this.invocations.add("forceKeyspaceCleanup " + keyspaceName + " " + Arrays.toString(tableNames));
+		}
+
+		@Override
+		public void disableAutoCompaction(String ks, String... tables) {
+			this.invocations.add("disableAutoCompaction " + ks + " " + Arrays.toString(tables));
+		}
+
+		@Override
+		public void enableAutoCompaction(String ks, String... tables) {
+			this.invocations.add("enableAutoCompaction " + ks + " " + Arrays.toString(tables));
+		}
+
+		@Override
+		public void setCompactionThroughputMbPerSec(int value) {
+			this.compactionThroughput = value;
+		}
+
+		@Override
+		public int getCompactionThroughputMbPerSec() {
+			return this.compactionThroughput;
+		}
+
+		@Override
+		public void drain() {
+			this.invocations.add("drain");
+		}
+
+	}
+
+	static final class CompactionManager implements CompactionManagerMBean {
+
+		private final List<String> invocations = new ArrayList<>();
+
+		@Override
+		public void stopCompaction(String type) {
+			this.invocations.add("stopCompaction " + type);
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProcFsProcessSampler}.
+ *
+ * @author Dmytro Nosan
+ */
+class ProcFsProcessSamplerTests {
+
+	private static final Instant NOW = Instant.parse("2020-06-01T10:00:00Z");
+
+	@Test
+	void readSample(@TempDir Path directory) throws Exception {
+		writeProcFiles(directory, 51200, 64, 1500, 250);
+		ProcessSample sample = ProcFsProcessSampler.read(directory, NOW, 100);
+		assertThat(sample.getTimestamp()).isEqualTo(NOW);
+		assertThat(sample.getRss()).isEqualTo(51200L * 1024);
+		assertThat(sample.getCpuTime()).isEqualTo(Duration.ofMillis(17500));
+		assertThat(sample.getThreads()).isEqualTo(64);
+		assertThat(sample.getVoluntaryContextSwitches()).isEqualTo(1200);
+		assertThat(sample.getInvoluntaryContextSwitches()).isEqualTo(35);
+		assertThat(sample.getReadBytes()).isEqualTo(4096);
+		assertThat(sample.getWriteBytes()).isEqualTo(8192);
+	}
+
+	@Test
+	void readSampleTicksAndPageSize(@TempDir Path directory) throws Exception {
+		writeProcFiles(directory, 51200, 64, 1024, 1024);
+		ProcessSample sample = ProcFsProcessSampler.read(directory, NOW, 1024);
+		assertThat(sample.getCpuTime()).isEqualTo(Duration.ofSeconds(2));
+		// pages of stat are not converted, the page size is not known
+		Files.write(directory.resolve("status"), Arrays.asList("Name:\tjava", "Threads:\t64"));
+		assertThat(ProcFsProcessSampler.read(directory, NOW, 1024).getRss()).isEqualTo(-1);
+	}
+
+	@Test
+	@EnabledOnOs(OS.LINUX)
+	void clockTicksPerSecond() {
+		assertThat(ProcFsProcessSampler.getClockTicksPerSecond()).isPositive();
+	}
+
+	@Test
+	void readSampleNoFiles(@TempDir Path directory) {
+		ProcessSample sample = ProcFsProcessSampler.read(directory, NOW, 100);
+		assertThat(sample.getRss()).isEqualTo(-1);
+		assertThat(sample.getCpuTime()).isEqualTo(Duration.ZERO);
+		assertThat(sample.getThreads()).isEqualTo(-1);
+		assertThat(sample.getReadBytes()).isEqualTo(-1);
+		assertThat(sample.getWriteBytes()).isEqualTo(-1);
+	}
+
+	@Test
+	void summary(@TempDir Path directory) throws Exception {
+		MutableClock clock = new MutableClock();
+		ProcFsProcessSampler sampler = new ProcFsProcessSampler(directory, clock, 100);
+		writeProcFiles(directory, 1024, 10, 100, 0);
+		sampler.sample();
+		clock.instant = NOW.plusSeconds(5);
+		writeProcFiles(directory, 3072, 30, 300, 100);
+		sampler.sample();
+		ProcessSummary summary = sampler.getSummary();
+		assertThat(summary.getSamples()).isEqualTo(2);
+		assertThat(summary.getDuration()).isEqualTo(Duration.ofSeconds(5));
+		assertThat(summary.getMaxRss()).isEqualTo(3072L * 1024);
+		assertThat(summary.getAverageRss()).isEqualTo(2048L * 1024);
+		assertThat(summary.getMaxThreads()).isEqualTo(30);
+		assertThat(summary.getLast()).isNotNull();
+		assertThat(summary.getLast().getCpuTime()).isEqualTo(Duration.ofSeconds(4));
+		assertThat(summary.toString()).contains("maxRss=3MB", "cpuTime=PT4S");
+	}
+
+	@Test
+	@EnabledOnOs(OS.LINUX)
+	void sampleCurrentProcess() throws Exception {
+		Path directory = Paths.get("/proc/self");
+		ProcFsProcessSampler sampler = new ProcFsProcessSampler(directory, Clock.systemUTC());
+		sampler.start("sampler", Duration.ofMillis(10));
+		try {
+			Thread.sleep(100);
+		}
+		finally {
+			sampler.close();
+		}
+		ProcessSummary summary = sampler.getSummary();
+		assertThat(summary.getSamples()).isGreaterThan(1);
+		assertThat(summary.getMaxRss()).isPositive();
+		assertThat(summary.getMaxThreads()).isPositive();
+	}
+
+	private static void writeProcFiles(Path directory, long rssKb, int threads, long utime, long stime)
+			throws Exception {
+		String[] fields = new String[50];
+		Arrays.fill(fields, "0");
+		fields[0] = "S";
+		fields[11] = Long.toString(utime);
+		fields[12] = Long.toString(stime);
+		fields[17] = Integer.toString(threads);
+		fields[21] = Long.toString(rssKb / 4);
+		Files.write(directory.resolve("stat"), ("4242 (java cassandra) " + String.join(" ", fields)).getBytes());
+		Files.write(directory.resolve("status"), Arrays.asList("Name:\tjava", "VmRSS:\t  " + rssKb + " kB",
+				"Threads:\t" + threads, "voluntary_ctxt_switches:\t1200", "nonvoluntary_ctxt_switches:\t35"));
+		Files.write(directory.resolve("io"), Arrays.asList("rchar: 100", "wchar: 200", "read_bytes: 4096",
+				"write_bytes: 8192"));
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant = NOW;
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link QuietLogging}.
+ *
+ * @author Dmytro Nosan
+ */
+class QuietLoggingTests {
+
+	@Test
+	void quietConfiguration() throws Exception {
+		Document document = parse(new QuietLogging(false).getConfiguration());
+		assertThat(getRootLevel(document)).isEqualTo("WARN");
+		NodeList loggers = document.getElementsByTagName("logger");
+		assertThat(loggers.getLength()).isEqualTo(QuietLogging.READINESS_LOGGERS.size());
+		for (int i = 0; i < loggers.getLength(); i++) {
+			Element logger = (Element) loggers.item(i);
+			assertThat(logger.getAttribute("name")).isIn(QuietLogging.READINESS_LOGGERS);
+			assertThat(logger.getAttribute("level")).isEqualTo("INFO");
+		}
+		assertThat(document.getElementsByTagName("appender").getLength()).isEqualTo(1);
+	}
+
+	@Test
+	void debugConfiguration() throws Exception {
+		Document document = parse(new QuietLogging(true).getConfiguration());
+		assertThat(getRootLevel(document)).isEqualTo("DEBUG");
+		assertThat(document.getElementsByTagName("logger").getLength()).isZero();
+	}
+
+	@Test
+	void write(@TempDir Path workingDirectory) throws Exception {
+		QuietLogging quietLogging = new QuietLogging(false);
+		Path file = quietLogging.write(workingDirectory);
+		assertThat(file).isEqualTo(workingDirectory.resolve(QuietLogging.FILE));
+		assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8))
+				.isEqualTo(quietLogging.getConfiguration());
+	}
+
+	private static Document parse(String configuration) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(configuration.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String getRootLevel(Document document) {
+		return ((Element) document.getElementsByTagName("root").item(0)).getAttribute("level");
+	}
+
+}
@@ -16,22 +16,35 @@
 
 package com.github.nosan.embedded.cassandra.artifact;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
 import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
 import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -53,6 +66,194 @@ class ArchiveArtifactTests {
 		assertDistribution(artifact.getDistribution());
 	}
 
+	@Test
+	void testArtifactsSameVersion(@TempDir Path temporaryFolder) throws Exception {
+		Path archive1 = createArchive(temporaryFolder.resolve("archive-1.tar.gz"), "1");
+		Path archive2 = createArchive(temporaryFolder.resolve("archive-2.tar.gz"), "2");
+		ArchiveArtifact artifact1 = new ArchiveArtifact(VERSION, new FileSystemResource(archive1));
+		artifact1.setDestination(temporaryFolder);
+		ArchiveArtifact artifact2 = new ArchiveArtifact(VERSION, new FileSystemResource(archive2));
+		artifact2.setDestination(temporaryFolder);
+		Path directory1 = artifact1.getDistribution().getDirectory();
+		Path directory2 = artifact2.getDistribution().getDirectory();
+		assertThat(directory1).isNotEqualTo(directory2);
+		assertThat(directory1.resolve("conf/cassandra.yaml")).hasContent("1");
+		assertThat(directory2.resolve("conf/cassandra.yaml")).hasContent("2");
+		// a new instance finds the extracted archive without extracting it again
+		Files.createFile(directory1.resolve("bin/marker"));
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive1));
+		artifact.setDestination(temporaryFolder);
+		assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory1);
+		assertThat(directory1.resolve("bin/marker")).exists();
+	}
+
+	@Test
+	void testArtifactEntryFilter(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact.setDestination(temporaryFolder);
+		Path directory = artifact.getDistribution().getDirectory();
+		assertThat(directory.resolve("tools")).doesNotExist();
+		// the archive extracted with another filter is extracted again
+		artifact.setEntryFilter(ArchiveEntryFilter.all());
+		Path directoryAll = artifact.getDistribution().getDirectory();
+		assertThat(directoryAll).isNotEqualTo(directory);
+		assertThat(directoryAll.resolve("tools")).exists();
+		artifact.setEntryFilter(ArchiveEntryFilter.runtimeOnly());
+		assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory);
+	}
+
+	@Test
+	void testArtifactUncompressedLibraries(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact.setDestination(temporaryFolder);
+		Path directory = artifact.getDistribution().getDirectory();
+		// the archive extracted with compressed libraries is extracted again
+		artifact.setUncompressedLibraries(true);
+		assertThat(artifact.getDistribution().getDirectory()).isNotEqualTo(directory);
+	}
+
+	@Test
+	void testArtifactWithoutUrl(@TempDir Path temporaryFolder) throws Exception {
+		byte[] content = Files.readAllBytes(createArchive(temporaryFolder.resolve("archive.tar.gz"), "1"));
+		Resource resource = new Resource() {
+
+			@Override
+			public String getFileName() {
+				return "archive.tar.gz";
+			}
+
+			@Override
+			public boolean exists() {
+				return true;
+			}
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream(content);
+			}
+
+			@Override
+			public URL toURL() throws IOException {
+				throw new IOException("No URL");
+			}
+
+		};
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, resource);
+		artifact.setDestination(temporaryFolder);
+		Path directory = artifact.getDistribution().getDirectory();
+		assertThat(directory.resolve("conf/cassandra.yaml")).hasContent("1");
+		ArchiveArtifact other = new ArchiveArtifact(VERSION, resource);
+		other.setDestination(temporaryFolder);
+		assertThat(other.getDistribution().getDirectory()).isEqualTo(directory);
+	}
+
+	@Test
+	void testPrefetch(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		List<String> events = new ArrayList<>();
+		ArchiveArtifact artifact1 = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact1.setDestination(temporaryFolder);
+		artifact1.setListener(new ArtifactListener() {
+
+			@Override
+			public void onExtracted(Path directory, long entries, long bytes, Duration elapsed) {
+				events.add("extracted");
+			}
+
+		});
+		Future<Artifact.Distribution> future = Artifact.prefetch(artifact1).get(0);
+		ArchiveArtifact artifact2 = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact2.setDestination(temporaryFolder);
+		artifact2.setListener(artifact1.getListener());
+		Path directory = artifact2.getDistribution().getDirectory();
+		assertThat(future.get().getDirectory()).isEqualTo(directory);
+		assertThat(events).containsExactly("extracted");
+	}
+
+	@Test
+	void testLegacyArtifact(@TempDir Path temporaryFolder) throws Exception {
+		// the layout of artifacts extracted by previous versions
+		Path legacy = temporaryFolder.resolve(".embedded-cassandra/artifact/local/3.11.6");
+		Files.createDirectories(legacy.resolve("apache-cassandra-3.11.6/conf"));
+		Files.createFile(legacy.resolve("apache-cassandra-3.11.6/conf/cassandra.yaml"));
+		Files.createFile(legacy.resolve(".extracted"));
+		Files.createFile(legacy.resolve(".lock"));
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact.setDestination(temporaryFolder);
+		Path directory = artifact.getDistribution().getDirectory();
+		assertThat(directory.resolve("conf/cassandra.yaml")).hasContent("1");
+		assertThat(legacy.resolve("apache-cassandra-3.11.6")).doesNotExist();
+		assertThat(legacy.resolve(".extracted")).doesNotExist();
+		assertThat(legacy.resolve(".lock")).exists();
+	}
+
+	@Test
+	void testCustomArchiveResource(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		AtomicInteger reads = new AtomicInteger();
+		Resource resource = new FileSystemResource(archive) {
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				reads.incrementAndGet();
+				return super.getInputStream();
+			}
+
+		};
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new ArchiveResource(resource) {
+
+		});
+		artifact.setDestination(temporaryFolder);
+		artifact.setChecksum(DigestUtils.toHex(DigestUtils.getDigest("SHA-256").digest(Files.readAllBytes(archive))));
+		assertThat(artifact.getDistribution().getDirectory().resolve("conf/cassandra.yaml")).hasContent("1");
+		// the archive is extracted and verified by one read
+		assertThat(reads).hasValue(1);
+	}
+
+	@Test
+	void testDamagedArtifact(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact.setDestination(temporaryFolder);
+		Path directory = artifact.getDistribution().getDirectory();
+		Files.delete(directory.resolve("conf/cassandra.yaml"));
+		assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory);
+		assertThat(directory.resolve("conf/cassandra.yaml")).hasContent("1");
+		Files.write(directory.resolve("conf/cassandra.yaml"), "12".getBytes(StandardCharsets.UTF_8));
+		assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory);
+		assertThat(directory.resolve("conf/cassandra.yaml")).hasContent("1");
+	}
+
+	@Test
+	void testArtifactListener(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("archive.tar.gz"), "1");
+		ArchiveArtifact artifact = new ArchiveArtifact(VERSION, new FileSystemResource(archive));
+		artifact.setDestination(temporaryFolder);
+		List<String> events = new ArrayList<>();
+		artifact.setListener(new ArtifactListener() {
+
+			@Override
+			public void onLockAcquired(Path lockFile, Duration waitTime) {
+				events.add("lock " + lockFile.getFileName());
+			}
+
+			@Override
+			public void onExtracted(Path directory, long entries, long bytes, Duration elapsed) {
+				events.add("extracted " + entries + " " + bytes);
+			}
+
+		});
+		artifact.getDistribution();
+		// apache-cassandra, bin, lib, conf and cassandra.yaml
+		assertThat(events).containsExactly("lock .lock", "extracted 5 1");
+		events.clear();
+		artifact.getDistribution();
+		assertThat(events).isEmpty();
+	}
+
 	@Test
 	void testArtifactThreads(@TempDir Path temporaryFolder) throws Exception {
 		ExecutorService executorService = Executors.newFixedThreadPool(2);
@@ -79,6 +280,24 @@ class ArchiveArtifactTests {
 
 	}
 
+	private static Path createArchive(Path archive, String content) throws IOException {
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+			for (String directory : new String[]{"apache-cassandra/bin/", "apache-cassandra/lib/",
+					"apache-cassandra/tools/"}) {
+				os.putArchiveEntry(new TarArchiveEntry(directory));
+				os.closeArchiveEntry();
+			}
+			byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+			TarArchiveEntry entry = new TarArchiveEntry("apache-cassandra/conf/cassandra.yaml");
+			entry.setSize(bytes.length);
+			os.putArchiveEntry(entry);
+			os.write(bytes);
+			os.closeArchiveEntry();
+		}
+		return archive;
+	}
+
 	private void assertDistribution(Artifact.Distribution distribution) {
 		Path directory = distribution.getDirectory();
 		assertThat(distribution.getVersion()).isEqualTo(VERSION);
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.ArchiveResource;
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ArchivePacker}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArchivePackerTests {
+
+	@Test
+	void packAndExtract(@TempDir Path temporaryFolder) throws Exception {
+		Path directory = temporaryFolder.resolve("artifact");
+		Files.createDirectories(directory.resolve("apache-cassandra/bin"));
+		Files.createDirectories(directory.resolve("apache-cassandra/conf"));
+		Files.write(directory.resolve("apache-cassandra/conf/cassandra.yaml"), "1".getBytes(StandardCharsets.UTF_8));
+		Files.createFile(directory.resolve(".extracted"));
+		for (ArchiveFormat format : ArchiveFormat.values()) {
+			Path archive = temporaryFolder.resolve("archives/apache-cassandra-bin" + format.getExtension());
+			ArchivePacker.pack(directory, archive, format);
+			assertThat(archive.getParent().toFile().list()).contains(archive.getFileName().toString());
+			Path destination = temporaryFolder.resolve("destination-" + format);
+			new ArchiveResource(new FileSystemResource(archive)).extract(destination);
+			assertThat(destination.resolve("apache-cassandra/bin")).isDirectory();
+			assertThat(destination.resolve("apache-cassandra/conf/cassandra.yaml")).hasContent("1");
+			assertThat(destination.resolve(".extracted")).doesNotExist();
+		}
+	}
+
+}
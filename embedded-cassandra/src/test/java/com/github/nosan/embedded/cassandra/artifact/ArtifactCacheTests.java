@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.FileLock;
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ArtifactCache}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArtifactCacheTests {
+
+	@Test
+	void evictLeastRecentlyUsed(@TempDir Path directory) throws IOException {
+		ArtifactCache cache = new ArtifactCache(directory, 2500);
+		Path remote = createArtifact(directory.resolve("remote/3.11.5/0123456789abcdef"), 1000);
+		cache.use(remote);
+		Files.setLastModifiedTime(remote.resolve(".last-used"), FileTime.fromMillis(1000));
+		Path local = createArtifact(directory.resolve("local/3.11.6/0123456789abcdef"), 1000);
+		cache.use(local);
+		Files.setLastModifiedTime(local.resolve(".last-used"), FileTime.fromMillis(2000));
+		Path used = createArtifact(directory.resolve("remote/3.11.7/0123456789abcdef"), 1000);
+		cache.use(used);
+		assertThat(remote).doesNotExist();
+		assertThat(local).exists();
+		assertThat(used).exists();
+	}
+
+	@Test
+	void countLinkedFilesOnce(@TempDir Path directory) throws IOException {
+		BlobStore blobStore = new BlobStore(directory.resolve("blobs"));
+		Path first = createArtifact(directory.resolve("remote/3.11.5/0123456789abcdef"), 5000);
+		blobStore.deduplicate(first);
+		Files.setLastModifiedTime(first.resolve(".extracted"), FileTime.fromMillis(1000));
+		Path second = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 5000);
+		blobStore.deduplicate(second);
+		Files.setLastModifiedTime(second.resolve(".extracted"), FileTime.fromMillis(2000));
+		Path used = createArtifact(directory.resolve("remote/3.11.7/0123456789abcdef"), 5000);
+		blobStore.deduplicate(used);
+		new ArtifactCache(directory, 6000).use(used);
+		assertThat(first).exists();
+		assertThat(second).exists();
+		Path other = createArtifact(directory.resolve("local/3.11.7/0123456789abcdef"), 0);
+		Files.write(other.resolve("apache-cassandra/lib/cassandra.jar"), new byte[]{1, 2, 3, 4, 5});
+		Files.write(other.resolve("apache-cassandra/lib/other.jar"), new byte[5000]);
+		// the shared file is freed only once the last artifact that links it is evicted
+		new ArtifactCache(directory, 6000).use(other);
+		assertThat(first).doesNotExist();
+		assertThat(second).doesNotExist();
+		assertThat(used).doesNotExist();
+		assertThat(other).exists();
+	}
+
+	@Test
+	void evictKeepsLockFile(@TempDir Path directory) throws IOException {
+		Path evicted = createArtifact(directory.resolve("local/3.11.6/0123456789abcdef"), 1000);
+		Path used = createArtifact(directory.resolve("local/3.11.6/fedcba9876543210"), 1000);
+		Files.createFile(directory.resolve("local/3.11.6/.lock"));
+		new ArtifactCache(directory, 1500).use(used);
+		assertThat(evicted).doesNotExist();
+		assertThat(used).exists();
+		try (Stream<Path> files = Files.list(directory.resolve("local/3.11.6"))) {
+			assertThat(files.map(Path::getFileName).map(Path::toString)).containsExactlyInAnyOrder(".lock",
+					"fedcba9876543210");
+		}
+	}
+
+	@Test
+	void notEvictLockedArtifact(@TempDir Path directory) throws IOException {
+		Path locked = createArtifact(directory.resolve("remote/3.11.5/0123456789abcdef"), 1000);
+		Path used = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		try (FileLock fileLock = FileLock.of(ArtifactCache.getLockFile(locked))) {
+			assertThat(fileLock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+			new ArtifactCache(directory, 1500).use(used);
+			assertThat(locked).exists();
+		}
+		new ArtifactCache(directory, 1500).use(used);
+		assertThat(locked).doesNotExist();
+		assertThat(used).exists();
+	}
+
+	@Test
+	void notEvictSharedLockedArtifact(@TempDir Path directory) throws IOException {
+		Path locked = createArtifact(directory.resolve("remote/3.11.5/0123456789abcdef"), 1000);
+		Path used = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		try (FileLock fileLock = FileLock.of(ArtifactCache.getLockFile(locked))) {
+			assertThat(fileLock.tryLockShared(1, TimeUnit.SECONDS)).isTrue();
+			new ArtifactCache(directory, 1500).use(used);
+			assertThat(locked).exists();
+		}
+	}
+
+	@Test
+	void resolveArtifact(@TempDir Path directory) throws IOException {
+		Version version = Version.of("3.11.6");
+		Path artifact = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		ArtifactCache cache = new ArtifactCache(directory, ArtifactCache.UNLIMITED);
+		Artifact.Distribution distribution = cache.resolve(artifact, version, Duration.ofSeconds(1));
+		assertThat(distribution).isNotNull();
+		assertThat(distribution.getDirectory()).isEqualTo(artifact.resolve("apache-cassandra"));
+		assertThat(artifact.resolve(".last-used")).exists();
+		Files.delete(artifact.resolve(".extracted"));
+		assertThat(cache.resolve(artifact, version, Duration.ofSeconds(1))).isNull();
+		FileUtils.delete(artifact);
+		assertThat(cache.resolve(artifact, version, Duration.ofSeconds(1))).isNull();
+	}
+
+	@Test
+	void resolveWaitsForLock(@TempDir Path directory) throws Exception {
+		Version version = Version.of("3.11.6");
+		Path artifact = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		ArtifactCache cache = new ArtifactCache(directory, ArtifactCache.UNLIMITED);
+		CountDownLatch locked = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			try (FileLock fileLock = FileLock.of(ArtifactCache.getLockFile(artifact))) {
+				fileLock.tryLock(1, TimeUnit.SECONDS);
+				locked.countDown();
+				Thread.sleep(500);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		thread.start();
+		locked.await();
+		assertThatThrownBy(() -> cache.resolve(artifact, version, Duration.ofMillis(50)))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(cache.resolve(artifact, version, Duration.ofSeconds(10))).isNotNull();
+		thread.join();
+	}
+
+	@Test
+	void deleteLegacyArtifacts(@TempDir Path directory) throws IOException {
+		Path remote = createLegacyArtifact(directory.resolve("remote/3.11.6"));
+		Path local = createLegacyArtifact(directory.resolve("local/3.11.5"));
+		Path artifact = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		new ArtifactCache(directory, ArtifactCache.UNLIMITED).deleteLegacyArtifacts();
+		try (Stream<Path> files = Files.list(remote)) {
+			assertThat(files.map(Path::getFileName).map(Path::toString)).containsExactlyInAnyOrder(".lock",
+					"0123456789abcdef");
+		}
+		try (Stream<Path> files = Files.list(local)) {
+			assertThat(files.map(Path::getFileName).map(Path::toString)).containsExactly(".lock");
+		}
+		assertThat(artifact.resolve("apache-cassandra/lib/cassandra.jar")).exists();
+	}
+
+	@Test
+	void unlimited(@TempDir Path directory) throws IOException {
+		Path artifact = createArtifact(directory.resolve("remote/3.11.5/0123456789abcdef"), 1000);
+		Path used = createArtifact(directory.resolve("remote/3.11.6/0123456789abcdef"), 1000);
+		new ArtifactCache(directory, ArtifactCache.UNLIMITED).use(used);
+		assertThat(artifact).exists();
+		assertThat(used.resolve(".last-used")).exists();
+	}
+
+	private static Path createLegacyArtifact(Path version) throws IOException {
+		createArtifact(version, 1000);
+		Files.move(version.resolve("apache-cassandra"), version.resolve("apache-cassandra-" + version.getFileName()));
+		Files.createFile(version.resolve(".lock"));
+		return version;
+	}
+
+	private static Path createArtifact(Path directory, int size) throws IOException {
+		Files.createDirectories(directory.resolve("apache-cassandra/lib"));
+		Files.createDirectories(directory.resolve("apache-cassandra/bin"));
+		Files.createDirectories(directory.resolve("apache-cassandra/conf"));
+		Files.createFile(directory.resolve("apache-cassandra/conf/cassandra.yaml"));
+		Files.write(directory.resolve("apache-cassandra/lib/cassandra.jar"), new byte[size]);
+		Files.createFile(directory.resolve(".extracted"));
+		return directory;
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ArtifactPrefetcher}.
+ *
+ * @author Dmytro Nosan
+ */
+class ArtifactPrefetcherTests {
+
+	@Test
+	void prefetchArtifacts() throws Exception {
+		Path directory = Paths.get("apache-cassandra");
+		List<Future<Artifact.Distribution>> futures = Artifact.prefetch(
+				() -> new DefaultDistribution(Version.of("3.11.6"), directory),
+				() -> new DefaultDistribution(Version.of("4.0-beta1"), directory));
+		assertThat(futures).hasSize(2);
+		assertThat(futures.get(0).get(10, TimeUnit.SECONDS).getVersion()).isEqualTo(Version.of("3.11.6"));
+		assertThat(futures.get(1).get(10, TimeUnit.SECONDS).getVersion()).isEqualTo(Version.of("4.0-beta1"));
+	}
+
+	@Test
+	void prefetchFailed() {
+		List<Future<Artifact.Distribution>> futures = Artifact.prefetch(() -> {
+			throw new IOException("Network is unreachable");
+		});
+		assertThatThrownBy(() -> futures.get(0).get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.util.FileUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BlobStore}.
+ *
+ * @author Dmytro Nosan
+ */
+class BlobStoreTests {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void deduplicate(@TempDir Path directory) throws IOException {
+		byte[] shared = createContent(10000);
+		Path artifact1 = directory.resolve("remote/3.11.6");
+		Path artifact2 = directory.resolve("remote/3.11.7");
+		createFile(artifact1.resolve("lib/shared.jar"), shared);
+		createFile(artifact2.resolve("lib/shared.jar"), shared);
+		createFile(artifact1.resolve("lib/cassandra.jar"), createContent(10000));
+		createFile(artifact2.resolve("lib/cassandra.jar"), createContent(10000));
+		createFile(artifact2.resolve("conf/small.yaml"), createContent(100));
+		BlobStore blobStore = new BlobStore(directory.resolve("blobs"));
+		blobStore.deduplicate(artifact1);
+		blobStore.deduplicate(artifact2);
+		assertThat(Files.isSameFile(artifact1.resolve("lib/shared.jar"), artifact2.resolve("lib/shared.jar")))
+				.isTrue();
+		assertThat(Files.isSameFile(artifact1.resolve("lib/cassandra.jar"), artifact2.resolve("lib/cassandra.jar")))
+				.isFalse();
+		assertThat(artifact2.resolve("lib/shared.jar")).hasBinaryContent(shared);
+		assertThat(countBlobs(directory.resolve("blobs"))).isEqualTo(3);
+	}
+
+	@Test
+	void prune(@TempDir Path directory) throws IOException {
+		byte[] shared = createContent(10000);
+		Path artifact1 = directory.resolve("remote/3.11.6");
+		Path artifact2 = directory.resolve("remote/3.11.7");
+		createFile(artifact1.resolve("lib/shared.jar"), shared);
+		createFile(artifact2.resolve("lib/shared.jar"), shared);
+		BlobStore blobStore = new BlobStore(directory.resolve("blobs"));
+		blobStore.deduplicate(artifact1);
+		blobStore.deduplicate(artifact2);
+		FileUtils.delete(artifact1);
+		blobStore.prune();
+		assertThat(countBlobs(directory.resolve("blobs"))).isEqualTo(1);
+		FileUtils.delete(artifact2);
+		blobStore.prune();
+		assertThat(countBlobs(directory.resolve("blobs"))).isZero();
+	}
+
+	private byte[] createContent(int size) {
+		byte[] content = new byte[size];
+		this.random.nextBytes(content);
+		return content;
+	}
+
+	private static void createFile(Path file, byte[] content) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content);
+	}
+
+	private static long countBlobs(Path directory) throws IOException {
+		try (Stream<Path> stream = Files.walk(directory)) {
+			return stream.filter(Files::isRegularFile).count();
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ClassPathArtifact}.
+ *
+ * @author Dmytro Nosan
+ */
+class ClassPathArtifactTests {
+
+	private static final Version VERSION = Version.of("3.11.6");
+
+	@Test
+	void testJarArtifact(@TempDir Path temporaryFolder) throws Exception {
+		Path jar = createJar(temporaryFolder.resolve("cassandra.jar"));
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+			ClassPathArtifact artifact = new ClassPathArtifact(VERSION, "/dist/apache-cassandra/", classLoader);
+			artifact.setDestination(temporaryFolder);
+			List<String> events = new ArrayList<>();
+			artifact.setListener(new ArtifactListener() {
+
+				@Override
+				public void onExtracted(Path directory, long entries, long bytes, Duration elapsed) {
+					events.add("extracted");
+				}
+
+			});
+			Artifact.Distribution distribution = artifact.getDistribution();
+			Path directory = distribution.getDirectory();
+			assertThat(distribution.getVersion()).isEqualTo(VERSION);
+			assertThat(directory.getFileName().toString()).isEqualTo("apache-cassandra");
+			assertThat(directory.resolve("bin/cassandra")).hasContent("stored");
+			assertThat(directory.resolve("lib/cassandra.jar")).hasContent("deflated");
+			assertThat(directory.resolve("conf/cassandra.yaml")).hasContent("yaml");
+			assertThat(directory.resolve("javadoc")).doesNotExist();
+			assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory);
+			assertThat(events).containsExactly("extracted");
+		}
+	}
+
+	@Test
+	void testDirectoryArtifact(@TempDir Path temporaryFolder) throws Exception {
+		Path directory = temporaryFolder.resolve("apache-cassandra");
+		Files.createDirectories(directory.resolve("bin"));
+		Files.createDirectories(directory.resolve("lib"));
+		Files.createDirectories(directory.resolve("conf"));
+		Files.createFile(directory.resolve("conf/cassandra.yaml"));
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[]{temporaryFolder.toUri().toURL()}, null)) {
+			ClassPathArtifact artifact = new ClassPathArtifact(VERSION, "apache-cassandra", classLoader);
+			assertThat(artifact.getDistribution().getDirectory()).isEqualTo(directory);
+		}
+	}
+
+	@Test
+	void testArtifactNotFound() {
+		ClassPathArtifact artifact = new ClassPathArtifact(VERSION, "apache-cassandra-not-found");
+		assertThatThrownBy(artifact::getDistribution).isInstanceOf(FileNotFoundException.class);
+	}
+
+	private static Path createJar(Path jar) throws Exception {
+		try (ZipArchiveOutputStream os = new ZipArchiveOutputStream(jar.toFile())) {
+			for (String directory : new String[]{"dist/", "dist/apache-cassandra/", "dist/apache-cassandra/bin/",
+					"dist/apache-cassandra/lib/", "dist/apache-cassandra/conf/"}) {
+				os.putArchiveEntry(new ZipArchiveEntry(directory));
+				os.closeArchiveEntry();
+			}
+			write(os, "dist/apache-cassandra/bin/cassandra", "stored", ZipEntry.STORED);
+			write(os, "dist/apache-cassandra/lib/cassandra.jar", "deflated", ZipEntry.DEFLATED);
+			write(os, "dist/apache-cassandra/conf/cassandra.yaml", "yaml", ZipEntry.STORED);
+			write(os, "dist/apache-cassandra/javadoc/index.html", "html", ZipEntry.DEFLATED);
+			write(os, "other/cassandra.yaml", "other", ZipEntry.DEFLATED);
+		}
+		return jar;
+	}
+
+	private static void write(ZipArchiveOutputStream os, String name, String content, int method) throws Exception {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		ZipArchiveEntry entry = new ZipArchiveEntry(name);
+		entry.setMethod(method);
+		entry.setSize(bytes.length);
+		if (method == ZipEntry.STORED) {
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			entry.setCrc(crc.getValue());
+		}
+		os.putArchiveEntry(entry);
+		os.write(bytes);
+		os.closeArchiveEntry();
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.FileSystemResource;
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link DigestResource} and {@link Checksum}.
+ *
+ * @author Dmytro Nosan
+ */
+class DigestResourceTests {
+
+	@Test
+	void digestPartiallyReadStream(@TempDir Path directory) throws Exception {
+		byte[] content = new byte[100000];
+		new Random(42).nextBytes(content);
+		Path file = Files.write(directory.resolve("apache-cassandra-3.11.6-bin.tar.gz"), content);
+		String sha256 = DigestUtils.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+		Checksum checksum = Checksum.of(sha256.toUpperCase(Locale.ENGLISH));
+		DigestResource resource = new DigestResource(new FileSystemResource(file), checksum.createMessageDigest());
+		try (InputStream is = resource.getInputStream()) {
+			assertThat(is.read(new byte[1000])).isPositive();
+		}
+		assertThat(DigestUtils.toHex(resource.digest())).isEqualTo(checksum.getHash());
+		assertThat(resource.getFileName()).isEqualTo("apache-cassandra-3.11.6-bin.tar.gz");
+	}
+
+	@Test
+	void digestSkippedAndBufferedStream(@TempDir Path directory) throws Exception {
+		byte[] content = new byte[100000];
+		new Random(42).nextBytes(content);
+		Path file = Files.write(directory.resolve("apache-cassandra-3.11.6-bin.tar.gz"), content);
+		Resource buffered = new FileSystemResource(file) {
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				return new BufferedInputStream(super.getInputStream());
+			}
+
+		};
+		DigestResource resource = new DigestResource(buffered, MessageDigest.getInstance("SHA-256"));
+		try (InputStream is = resource.getInputStream()) {
+			assertThat(is.markSupported()).isFalse();
+			assertThat(is.skip(5000)).isEqualTo(5000);
+			assertThat(is.read(new byte[1000])).isPositive();
+		}
+		assertThat(resource.digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+
+	@Test
+	void parseChecksum() {
+		String sha512 = String.join("", Collections.nCopies(8, "0123456789abcdef"));
+		Checksum checksum = Checksum.parse(sha512 + " *apache-cassandra-3.11.6-bin.tar.gz\n", "SHA-512");
+		assertThat(checksum).isNotNull();
+		assertThat(checksum.getAlgorithm()).isEqualTo("SHA-512");
+		assertThat(checksum.getHash()).isEqualTo(sha512);
+		assertThat(Checksum.parse(sha512, "SHA-256")).isNull();
+		assertThat(Checksum.parse("<html>Not Found</html>", "SHA-512")).isNull();
+		assertThatThrownBy(() -> Checksum.of("abc")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
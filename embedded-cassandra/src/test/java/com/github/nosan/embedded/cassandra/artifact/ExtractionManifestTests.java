@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExtractionManifest}.
+ *
+ * @author Dmytro Nosan
+ */
+class ExtractionManifestTests {
+
+	@TempDir
+	Path artifact;
+
+	@BeforeEach
+	void createArtifact() throws Exception {
+		Files.createDirectories(this.artifact.resolve("bin"));
+		Files.createDirectories(this.artifact.resolve("conf"));
+		Files.write(this.artifact.resolve("bin/cassandra"), "bin".getBytes(StandardCharsets.UTF_8));
+		Files.write(this.artifact.resolve("conf/cassandra.yaml"), "conf".getBytes(StandardCharsets.UTF_8));
+		Files.createFile(this.artifact.resolve(".lock"));
+	}
+
+	@Test
+	void validArtifact() throws Exception {
+		ExtractionManifest.write(this.artifact);
+		assertThat(Files.readAllLines(this.artifact.resolve(".manifest"))).hasSize(2);
+		Files.delete(this.artifact.resolve(".lock"));
+		Files.createFile(this.artifact.resolve("conf/cassandra-rackdc.properties"));
+		assertThat(ExtractionManifest.validate(this.artifact)).isTrue();
+	}
+
+	@Test
+	void missingFile() throws Exception {
+		ExtractionManifest.write(this.artifact);
+		Files.delete(this.artifact.resolve("bin/cassandra"));
+		assertThat(ExtractionManifest.validate(this.artifact)).isFalse();
+	}
+
+	@Test
+	void modifiedFile() throws Exception {
+		ExtractionManifest.write(this.artifact);
+		Files.write(this.artifact.resolve("conf/cassandra.yaml"), "cassandra".getBytes(StandardCharsets.UTF_8));
+		assertThat(ExtractionManifest.validate(this.artifact)).isFalse();
+	}
+
+	@Test
+	void withoutManifest() throws Exception {
+		Files.delete(this.artifact.resolve("bin/cassandra"));
+		assertThat(ExtractionManifest.validate(this.artifact)).isTrue();
+	}
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link FileDownloader}.
+ *
+ * @author Dmytro Nosan
+ */
+class FileDownloaderTests {
+
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+	private final byte[] content = new byte[(int) (FileDownloader.MIN_RANGE_SIZE * 4 + 12345)];
+
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+	private final HttpServer httpServer = createHttpServer();
+
+	private volatile boolean interrupt;
+
+	private volatile String etag = "\"v1\"";
+
+	@BeforeEach
+	void setUp() throws Exception {
+		new Random(42).nextBytes(this.content);
+		this.httpServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.httpServer.start();
+		this.httpServer.createContext("/ranges/cassandra.tar.gz", exchange -> send(exchange, true, true));
+		this.httpServer.createContext("/stream/cassandra.tar.gz", exchange -> send(exchange, false, false));
+		this.httpServer.createContext("/ignored/cassandra.tar.gz", exchange -> send(exchange, true, false));
+		this.httpServer.createContext("/broken/cassandra.tar.gz", exchange -> {
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			if (range != null) {
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+				exchange.close();
+			}
+			else {
+				send(exchange, true, true);
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.httpServer.stop(0);
+	}
+
+	@Test
+	void downloadRanges(@TempDir Path directory) throws Exception {
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("ranges"), directory, listener);
+		assertThat(read(resource)).isEqualTo(this.content);
+		assertThat(this.ranges).hasSize(3);
+		assertThat(listener.readBytes).hasValue(this.content.length);
+		assertThat(directory.resolve("cassandra.tar.gz.part")).doesNotExist();
+		assertThat(directory.resolve("cassandra.tar.gz.state")).doesNotExist();
+	}
+
+	@Test
+	void resumeInterruptedDownload(@TempDir Path directory) throws Exception {
+		this.interrupt = true;
+		assertThatThrownBy(() -> createDownloader(4).download(getUrl("ranges"), directory, new TestProgressListener()))
+				.isInstanceOf(IOException.class);
+		assertThat(directory.resolve("cassandra.tar.gz.part")).exists();
+		assertThat(directory.resolve("cassandra.tar.gz.state")).exists();
+		this.interrupt = false;
+		this.ranges.clear();
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("ranges"), directory, listener);
+		assertThat(read(resource)).isEqualTo(this.content);
+		// the first range has been completed before the interruption
+		assertThat(this.ranges).hasSize(3);
+		long requested = 0;
+		for (String range : this.ranges) {
+			Matcher matcher = RANGE.matcher(range);
+			assertThat(matcher.matches()).isTrue();
+			requested += Long.parseLong(matcher.group(2)) - Long.parseLong(matcher.group(1)) + 1;
+		}
+		assertThat(requested).isLessThan(this.content.length / 2);
+		assertThat(listener.readBytes).hasValue(this.content.length);
+		assertThat(directory.resolve("cassandra.tar.gz.state")).doesNotExist();
+	}
+
+	@Test
+	void restartChangedDownload(@TempDir Path directory) throws Exception {
+		this.interrupt = true;
+		assertThatThrownBy(() -> createDownloader(4).download(getUrl("ranges"), directory, new TestProgressListener()))
+				.isInstanceOf(IOException.class);
+		this.interrupt = false;
+		this.etag = "\"v2\"";
+		this.ranges.clear();
+		Resource resource = createDownloader(4).download(getUrl("ranges"), directory, new TestProgressListener());
+		assertThat(read(resource)).isEqualTo(this.content);
+		assertThat(this.ranges).hasSize(3);
+	}
+
+	@Test
+	void downloadStreamRangesNotSupported(@TempDir Path directory) throws Exception {
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("stream"), directory, listener);
+		assertThat(read(resource)).isEqualTo(this.content);
+		assertThat(this.ranges).isEmpty();
+		assertThat(listener.readBytes).hasValue(this.content.length);
+		assertThat(listener.finished).isTrue();
+		assertThat(directory.toFile().list()).isEmpty();
+		assertThatThrownBy(resource::getInputStream).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void countSkippedBytes(@TempDir Path directory) throws Exception {
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("stream"), directory, listener);
+		try (InputStream is = resource.getInputStream()) {
+			while (is.skip(this.content.length) > 0) {
+				// the stream is skipped to the end
+			}
+			assertThat(is.read()).isEqualTo(-1);
+		}
+		assertThat(listener.readBytes).hasValue(this.content.length);
+		assertThat(listener.finished).isTrue();
+	}
+
+	@Test
+	void keepInterruptedStatus(@TempDir Path directory) throws Exception {
+		Resource resource = createDownloader(4).download(getUrl("stream"), directory, new TestProgressListener());
+		Thread.currentThread().interrupt();
+		try {
+			assertThatThrownBy(() -> read(resource)).isInstanceOf(ClosedByInterruptException.class);
+			assertThat(Thread.currentThread().isInterrupted()).isTrue();
+		}
+		finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	void failStreamPrematureEnd(@TempDir Path directory) throws Exception {
+		this.interrupt = true;
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("stream"), directory, listener);
+		assertThatThrownBy(() -> read(resource)).isInstanceOf(IOException.class);
+		assertThat(listener.finished).isFalse();
+	}
+
+	@Test
+	void downloadStreamSingleConnection(@TempDir Path directory) throws Exception {
+		Resource resource = createDownloader(1).download(getUrl("ranges"), directory, new TestProgressListener());
+		assertThat(read(resource)).isEqualTo(this.content);
+		assertThat(this.ranges).isEmpty();
+	}
+
+	@Test
+	void fallbackToStreamRangesIgnored(@TempDir Path directory) throws Exception {
+		TestProgressListener listener = new TestProgressListener();
+		Resource resource = createDownloader(4).download(getUrl("ignored"), directory, listener);
+		assertThat(read(resource)).isEqualTo(this.content);
+		assertThat(listener.readBytes).hasValue(this.content.length);
+	}
+
+	@Test
+	void failRangeNotAvailable(@TempDir Path directory) {
+		assertThatThrownBy(() -> createDownloader(4)
+				.download(getUrl("broken"), directory, new TestProgressListener()))
+				.hasStackTraceContaining("HTTP Status '503' is invalid");
+	}
+
+	private void send(HttpExchange exchange, boolean acceptRanges, boolean supportRanges) throws IOException {
+		if (acceptRanges) {
+			exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+			exchange.getResponseHeaders().add("ETag", this.etag);
+		}
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		Matcher matcher = (range != null && supportRanges) ? RANGE.matcher(range) : null;
+		try (OutputStream os = exchange.getResponseBody()) {
+			if (matcher != null && matcher.matches()) {
+				this.ranges.add(range);
+				int start = Integer.parseInt(matcher.group(1));
+				int end = Integer.parseInt(matcher.group(2));
+				exchange.getResponseHeaders()
+						.add("Content-Range", String.format("bytes %d-%d/%d", start, end, this.content.length));
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_PARTIAL, end - start + 1);
+				write(os, start, end - start + 1);
+			}
+			else {
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, this.content.length);
+				write(os, 0, this.content.length);
+			}
+		}
+		catch (IOException ex) {
+			// the client closes the connection once the first range has been read
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	private void write(OutputStream os, int offset, int length) throws IOException {
+		int limit = this.interrupt ? length / 2 : length;
+		for (int written = 0; written < limit; written += 8192) {
+			int chunk = Math.min(8192, limit - written);
+			os.write(this.content, offset + written, chunk);
+		}
+		if (this.interrupt) {
+			os.flush();
+			throw new IOException("Interrupted");
+		}
+	}
+
+	private URL getUrl(String context) throws Exception {
+		return new URL(String.format("http:/%s/%s/cassandra.tar.gz", this.httpServer.getAddress(), context));
+	}
+
+	private static FileDownloader createDownloader(int connections) {
+		return new FileDownloader(Duration.ofSeconds(2), Duration.ofSeconds(10), null, connections);
+	}
+
+	private static byte[] read(Resource resource) throws IOException {
+		try (InputStream is = resource.getInputStream()) {
+			return IOUtils.toByteArray(is);
+		}
+	}
+
+	private static HttpServer createHttpServer() {
+		try {
+			return HttpServer.create();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static final class TestProgressListener implements ProgressListener {
+
+		private final AtomicLong readBytes = new AtomicLong();
+
+		private volatile boolean finished;
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void update(long readBytes, long totalBytes) {
+			this.readBytes.set(readBytes);
+		}
+
+		@Override
+		public void finish() {
+			this.finished = true;
+		}
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.JarMarker;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LibraryRepacker}.
+ *
+ * @author Dmytro Nosan
+ */
+class LibraryRepackerTests {
+
+	@Test
+	void storeLibraries(@TempDir Path temporaryFolder) throws Exception {
+		Path library = createJar(temporaryFolder.resolve("apache-cassandra/lib/cassandra.jar"));
+		Path tool = createJar(temporaryFolder.resolve("apache-cassandra/tools/cassandra-tools.jar"));
+		LibraryRepacker.store(temporaryFolder);
+		try (ZipFile zipFile = new ZipFile(library.toFile())) {
+			List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntriesInPhysicalOrder());
+			assertThat(entries).extracting(ZipArchiveEntry::getName)
+					.containsExactly("META-INF/", "META-INF/MANIFEST.MF", "org/apache/cassandra/Cassandra.class");
+			assertThat(entries).extracting(ZipArchiveEntry::getMethod).containsOnly(ZipEntry.STORED);
+			assertThat(entries.get(0).getExtraField(JarMarker.getInstance().getHeaderId())).isNotNull();
+			try (InputStream is = zipFile.getInputStream(entries.get(2))) {
+				assertThat(new String(IOUtils.toByteArray(is), StandardCharsets.UTF_8)).isEqualTo("class");
+			}
+		}
+		try (ZipFile zipFile = new ZipFile(tool.toFile())) {
+			assertThat(zipFile.getEntry("META-INF/MANIFEST.MF").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+		}
+		FileTime lastModifiedTime = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(library, lastModifiedTime);
+		LibraryRepacker.store(temporaryFolder);
+		assertThat(Files.getLastModifiedTime(library)).isEqualTo(lastModifiedTime);
+	}
+
+	private static Path createJar(Path jar) throws Exception {
+		Files.createDirectories(jar.getParent());
+		try (ZipArchiveOutputStream os = new ZipArchiveOutputStream(jar.toFile())) {
+			ZipArchiveEntry directory = new ZipArchiveEntry("META-INF/");
+			directory.addAsFirstExtraField(JarMarker.getInstance());
+			os.putArchiveEntry(directory);
+			os.closeArchiveEntry();
+			os.putArchiveEntry(new ZipArchiveEntry("META-INF/MANIFEST.MF"));
+			os.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+			os.closeArchiveEntry();
+			os.putArchiveEntry(new ZipArchiveEntry("org/apache/cassandra/Cassandra.class"));
+			os.write("class".getBytes(StandardCharsets.UTF_8));
+			os.closeArchiveEntry();
+		}
+		return jar;
+	}
+
+}
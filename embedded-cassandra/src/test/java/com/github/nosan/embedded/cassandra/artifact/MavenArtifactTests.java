@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.api.Version;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link MavenArtifact}.
+ *
+ * @author Dmytro Nosan
+ */
+class MavenArtifactTests {
+
+	private static final Version VERSION = Version.of("3.11.6");
+
+	@Test
+	void resolveArtifact(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("repository"));
+		writeChecksum(archive, "sha1", sha(archive, "SHA-1"));
+		MavenArtifact artifact = new MavenArtifact(VERSION);
+		artifact.setRepository(temporaryFolder.resolve("repository"));
+		artifact.setDestination(temporaryFolder);
+		Artifact.Distribution distribution = artifact.getDistribution();
+		assertThat(distribution.getVersion()).isEqualTo(VERSION);
+		assertThat(distribution.getDirectory().resolve("conf/cassandra.yaml")).exists();
+		assertThat(distribution.getDirectory()).startsWith(temporaryFolder.resolve(".embedded-cassandra"));
+	}
+
+	@Test
+	void failChecksumMismatch(@TempDir Path temporaryFolder) throws Exception {
+		Path archive = createArchive(temporaryFolder.resolve("repository"));
+		writeChecksum(archive, "sha512", new StringBuilder(sha(archive, "SHA-512")).reverse().toString());
+		MavenArtifact artifact = new MavenArtifact(VERSION);
+		artifact.setRepository(temporaryFolder.resolve("repository"));
+		artifact.setDestination(temporaryFolder);
+		assertThatThrownBy(artifact::getDistribution).hasStackTraceContaining("SHA-512 checksum mismatch");
+	}
+
+	@Test
+	void failArchiveNotFound(@TempDir Path temporaryFolder) {
+		MavenArtifact artifact = new MavenArtifact(VERSION);
+		artifact.setRepository(temporaryFolder.resolve("repository"));
+		artifact.setDestination(temporaryFolder);
+		assertThatThrownBy(artifact::getDistribution).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("apache-cassandra-3.11.6-bin.tar.gz");
+	}
+
+	private static Path createArchive(Path repository) throws IOException {
+		Path archive = repository
+				.resolve("org/apache/cassandra/apache-cassandra/3.11.6/apache-cassandra-3.11.6-bin.tar.gz");
+		Files.createDirectories(archive.getParent());
+		try (TarArchiveOutputStream os = new TarArchiveOutputStream(
+				new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+			for (String directory : new String[]{"apache-cassandra/bin/", "apache-cassandra/lib/"}) {
+				os.putArchiveEntry(new TarArchiveEntry(directory));
+				os.closeArchiveEntry();
+			}
+			byte[] bytes = "cluster_name: test".getBytes(StandardCharsets.UTF_8);
+			TarArchiveEntry entry = new TarArchiveEntry("apache-cassandra/conf/cassandra.yaml");
+			entry.setSize(bytes.length);
+			os.putArchiveEntry(entry);
+			os.write(bytes);
+			os.closeArchiveEntry();
+		}
+		return archive;
+	}
+
+	private static void writeChecksum(Path archive, String extension, String hash) throws IOException {
+		Files.write(archive.resolveSibling(archive.getFileName() + "." + extension),
+				hash.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String sha(Path archive, String algorithm) throws Exception {
+		return DigestUtils.toHex(MessageDigest.getInstance(algorithm).digest(Files.readAllBytes(archive)));
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.nosan.embedded.cassandra.commons.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MirrorSelector}.
+ *
+ * @author Dmytro Nosan
+ */
+class MirrorSelectorTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final HttpServer slow = createHttpServer();
+
+	private final HttpServer fast = createHttpServer();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (HttpServer httpServer : Arrays.asList(this.slow, this.fast)) {
+			httpServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+			httpServer.setExecutor(this.executor);
+			httpServer.start();
+		}
+		this.slow.createContext("/slow/cassandra.tar.gz", exchange -> {
+			try {
+				this.release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			send(exchange);
+		});
+		this.slow.createContext("/broken/cassandra.tar.gz", exchange -> {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+			exchange.close();
+		});
+		this.fast.createContext("/fast/cassandra.tar.gz", exchange -> {
+			this.requests.incrementAndGet();
+			send(exchange);
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.release.countDown();
+		this.slow.stop(0);
+		this.fast.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void selectFastMirror(@TempDir Path directory) throws Exception {
+		MirrorStats stats = MirrorStats.load(directory.resolve("mirrors.properties"));
+		List<URL> urls = Arrays.asList(getUrl(this.slow, "slow"), getUrl(this.fast, "fast"));
+		assertThat(createSelector(stats).select(urls, directory)).containsExactly(urls.get(1), urls.get(0));
+		assertThat(directory.resolve("mirrors.properties")).exists();
+	}
+
+	@Test
+	void selectNextMirrorOnFailure(@TempDir Path directory) throws Exception {
+		Path file = directory.resolve("mirrors.properties");
+		List<URL> urls = Arrays.asList(getUrl(this.slow, "broken"), getUrl(this.fast, "fast"));
+		assertThat(createSelector(MirrorStats.load(file)).select(urls, directory)).containsExactly(urls.get(1),
+				urls.get(0));
+		// the failed mirror goes last next time
+		assertThat(MirrorStats.load(file).order(urls, 1000)).containsExactly(urls.get(1), urls.get(0));
+	}
+
+	@Test
+	void keepSingleMirror(@TempDir Path directory) throws Exception {
+		List<URL> urls = Arrays.asList(getUrl(this.fast, "fast"));
+		assertThat(createSelector(MirrorStats.load(directory.resolve("mirrors.properties"))).select(urls, directory))
+				.containsExactly(urls.get(0));
+	}
+
+	@Test
+	void reuseResponseOfChosenMirror(@TempDir Path directory) throws Exception {
+		MirrorSelector selector = createSelector(MirrorStats.load(directory.resolve("mirrors.properties")));
+		List<URL> urls = Arrays.asList(getUrl(this.slow, "slow"), getUrl(this.fast, "fast"));
+		assertThat(selector.select(urls, directory)).containsExactly(urls.get(1), urls.get(0));
+		Resource resource = selector.download(urls.get(1), directory, new NoopProgressListener());
+		try (InputStream is = resource.getInputStream()) {
+			assertThat(IOUtils.toByteArray(is)).hasSize(64 * 1024);
+		}
+		assertThat(this.requests).hasValue(1);
+	}
+
+	@Test
+	void keepResumableMirror(@TempDir Path directory) throws Exception {
+		List<URL> urls = Arrays.asList(getUrl(this.fast, "fast"), getUrl(this.slow, "slow"));
+		Path stateFile = directory.resolve("cassandra.tar.gz.state");
+		DownloadState.create(stateFile, urls.get(1), "etag", null, 1024, 1).save();
+		Files.createFile(directory.resolve("cassandra.tar.gz.part"));
+		MirrorSelector selector = createSelector(MirrorStats.load(directory.resolve("mirrors.properties")));
+		assertThat(selector.select(urls, directory)).containsExactly(urls.get(1), urls.get(0));
+		assertThat(this.requests).hasValue(0);
+	}
+
+	@Test
+	void saveStatsDoesNotLeaveTemporaryFile(@TempDir Path directory) throws Exception {
+		Path file = Files.createDirectories(directory.resolve("mirrors.properties"));
+		Files.createFile(file.resolve("file"));
+		MirrorStats stats = MirrorStats.load(file);
+		stats.recordFailure(getUrl(this.fast, "fast"));
+		stats.save();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files).containsExactly(file);
+		}
+	}
+
+	private void send(HttpExchange exchange) throws IOException {
+		byte[] content = new byte[64 * 1024];
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(content);
+		}
+		catch (IOException ex) {
+			// the probe has been cancelled
+		}
+	}
+
+	private static MirrorSelector createSelector(MirrorStats stats) {
+		FileDownloader downloader = new FileDownloader(Duration.ofSeconds(2), Duration.ofSeconds(10), null, 1);
+		return new MirrorSelector(downloader, stats, Duration.ofMillis(200), Duration.ofMillis(200));
+	}
+
+	private static URL getUrl(HttpServer httpServer, String context) throws Exception {
+		return new URL(String.format("http:/%s/%s/cassandra.tar.gz", httpServer.getAddress(), context));
+	}
+
+	private static HttpServer createHttpServer() {
+		try {
+			return HttpServer.create();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static final class NoopProgressListener implements ProgressListener {
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void update(long readBytes, long totalBytes) {
+		}
+
+		@Override
+		public void finish() {
+		}
+
+	}
+
+}
@@ -27,9 +27,14 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import com.sun.net.httpserver.HttpServer;
 import org.apache.commons.compress.utils.IOUtils;
@@ -40,6 +45,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import com.github.nosan.embedded.cassandra.api.Version;
 import com.github.nosan.embedded.cassandra.commons.io.ClassPathResource;
+import com.github.nosan.embedded.cassandra.commons.util.DigestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -59,6 +65,8 @@ class RemoteArtifactTests {
 
 	private final HttpServer httpServer = createHttpServer();
 
+	private String sha512;
+
 	@BeforeEach
 	void setUp() throws Exception {
 		System.setOut(new PrintStream(this.out));
@@ -68,6 +76,25 @@ class RemoteArtifactTests {
 		try (InputStream inputStream = new ClassPathResource("apache-cassandra-3.11.6-bin.tar.gz").getInputStream()) {
 			content = IOUtils.toByteArray(inputStream);
 		}
+		this.sha512 = DigestUtils.toHex(MessageDigest.getInstance("SHA-512").digest(content));
+		this.httpServer.createContext("/mirror/apache-cassandra-3.11.6-bin.tar.gz", exchange -> {
+			byte[] body = content;
+			if (exchange.getRequestURI().getPath().endsWith(".sha512")) {
+				body = (this.sha512 + "  apache-cassandra-3.11.6-bin.tar.gz").getBytes(StandardCharsets.UTF_8);
+			}
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		this.httpServer.createContext("/corrupted/apache-cassandra-3.11.6-bin.tar.gz", exchange -> {
+			byte[] body = content;
+			if (exchange.getRequestURI().getPath().endsWith(".sha512")) {
+				body = new StringBuilder(this.sha512).reverse().toString().getBytes(StandardCharsets.UTF_8);
+			}
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
 		this.httpServer.createContext("/apache-cassandra-3.11.6-bin.tar.gz", exchange -> {
 			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
 			exchange.getResponseBody().write(content);
@@ -111,6 +138,41 @@ class RemoteArtifactTests {
 		assertThat(this.output.toString()).contains("Downloaded");
 	}
 
+	@Test
+	void shouldVerifyChecksum(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setUrlFactory(version -> Collections.singletonList(new URL(
+				String.format("http:/%s/mirror/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("SHA-512 checksum of");
+	}
+
+	@Test
+	void shouldFallThroughChecksumMismatch(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		String address = this.httpServer.getAddress().toString();
+		artifact.setUrlFactory(version -> Arrays.asList(
+				new URL(String.format("http:/%s/corrupted/apache-cassandra-3.11.6-bin.tar.gz", address)),
+				new URL(String.format("http:/%s/mirror/apache-cassandra-3.11.6-bin.tar.gz", address))));
+		assertDistribution(artifact.getDistribution());
+		assertThat(this.output.toString()).contains("SHA-512 checksum of");
+	}
+
+	@Test
+	void shouldNotDownloadArtifactChecksumMismatch(@TempDir Path temporaryFolder) throws Exception {
+		RemoteArtifact artifact = new RemoteArtifact(VERSION);
+		artifact.setDestination(temporaryFolder);
+		artifact.setChecksum(new StringBuilder(this.sha512).reverse().toString());
+		artifact.setUrlFactory(version -> Collections.singletonList(
+				new URL(String.format("http:/%s/apache-cassandra-3.11.6-bin.tar.gz", this.httpServer.getAddress()))));
+		assertThatThrownBy(artifact::getDistribution).hasStackTraceContaining("SHA-512 checksum mismatch");
+		try (Stream<Path> files = Files.walk(temporaryFolder.resolve(".embedded-cassandra/artifact/remote/3.11.6"))) {
+			assertThat(files.filter(file -> file.endsWith(".extracted"))).isEmpty();
+		}
+	}
+
 	@Test
 	void shouldNotDownloadArtifactMaxRedirection(@TempDir Path temporaryFolder) throws Exception {
 		this.httpServer.createContext("/dist/apache-cassandra-3.11.6.zip", exchange -> {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.nosan.embedded.cassandra.artifact;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RuntimeEntryFilter}.
+ *
+ * @author Dmytro Nosan
+ */
+class RuntimeEntryFilterTests {
+
+	private final RuntimeEntryFilter linux = new RuntimeEntryFilter("Linux");
+
+	private final RuntimeEntryFilter windows = new RuntimeEntryFilter("Windows 10");
+
+	@Test
+	void acceptRuntimeEntries() {
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/")).isTrue();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/bin/cassandra")).isTrue();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/lib/guava-18.0.jar")).isTrue();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/conf/cassandra.yaml")).isTrue();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/lib/sigar-bin/")).isTrue();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/lib/sigar-bin/libsigar-amd64-linux.so")).isTrue();
+		assertThat(this.windows.accept("apache-cassandra-3.11.6/bin/cassandra.ps1")).isTrue();
+		assertThat(this.windows.accept("apache-cassandra-3.11.6/lib/sigar-bin/sigar-amd64-winnt.dll")).isTrue();
+	}
+
+	@Test
+	void skipUnneededEntries() {
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/javadoc/")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/javadoc/index.html")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/doc/cql3/CQL.html")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/pylib/cqlshlib/cqlhandling.py")).isFalse();
+		assertThat(this.linux.accept("./apache-cassandra-3.11.6/tools/bin/sstablemetadata")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/bin/cassandra.ps1")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/conf/cassandra-env.ps1")).isFalse();
+		assertThat(this.linux.accept("apache-cassandra-3.11.6/lib/sigar-bin/sigar-amd64-winnt.dll")).isFalse();
+		assertThat(this.windows.accept("apache-cassandra-3.11.6/lib/sigar-bin/libsigar-amd64-linux.so")).isFalse();
+	}
+
+	@Test
+	void skipEntriesWithoutRootDirectory() {
+		assertThat(this.linux.accept("javadoc/index.html")).isFalse();
+		assertThat(this.linux.accept("lib/sigar-bin/libsigar-universal64-macosx.dylib")).isFalse();
+		assertThat(this.linux.accept("lib/guava-18.0.jar")).isTrue();
+	}
+
+	@Test
+	void keepNativesOnUnknownPlatform() {
+		RuntimeEntryFilter filter = new RuntimeEntryFilter("Plan 9");
+		assertThat(filter.accept("apache-cassandra-3.11.6/lib/sigar-bin/libsigar-amd64-linux.so")).isTrue();
+	}
+
+	@Test
+	void identifierDependsOnPlatform() {
+		assertThat(this.linux.getId()).isEqualTo("runtime-linux");
+		assertThat(this.windows.getId()).isEqualTo("runtime-windows-winnt");
+		assertThat(new RuntimeEntryFilter("Plan 9").getId()).isEqualTo("runtime");
+		assertThat(ArchiveEntryFilter.all().getId()).isEqualTo("all");
+	}
+
+}